@@ -45,6 +45,32 @@ public class GameLoopGroupAutoConfiguration {
     private void updateSystemProperty() {
         System.setProperty(GamedoConfiguration.MAX_EVENT_POST_DEPTH_KEY,
                 String.valueOf(gameLoopProperties.getMaxEventPostDepth()));
+        System.setProperty(GamedoConfiguration.CRON_OFFLOAD_THREAD_COUNT_KEY,
+                String.valueOf(gameLoopProperties.getCronOffloadThreadCount()));
+        System.setProperty(GamedoConfiguration.CRON_OFFLOAD_QUEUE_CAPACITY_KEY,
+                String.valueOf(gameLoopProperties.getCronOffloadQueueCapacity()));
+        System.setProperty(GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_KEY,
+                String.valueOf(gameLoopProperties.getCronMisfireThresholdMillis()));
+        System.setProperty(GamedoConfiguration.TIMER_TICK_MILLIS_KEY,
+                String.valueOf(gameLoopProperties.getTimerTickMillis()));
+        System.setProperty(GamedoConfiguration.TIMER_WHEEL_SIZE_KEY,
+                String.valueOf(gameLoopProperties.getTimerWheelSize()));
+        System.setProperty(GamedoConfiguration.REBALANCE_PERIOD_MILLIS_KEY,
+                String.valueOf(gameLoopProperties.getRebalancePeriodMillis()));
+        System.setProperty(GamedoConfiguration.REBALANCE_HIGH_WATERMARK_KEY,
+                String.valueOf(gameLoopProperties.getRebalanceHighWatermark()));
+        System.setProperty(GamedoConfiguration.REBALANCE_LOW_WATERMARK_KEY,
+                String.valueOf(gameLoopProperties.getRebalanceLowWatermark()));
+        System.setProperty(GamedoConfiguration.REBALANCE_MAX_MIGRATION_PER_ROUND_KEY,
+                String.valueOf(gameLoopProperties.getRebalanceMaxMigrationPerRound()));
+        System.setProperty(GamedoConfiguration.REBALANCE_ENTITY_COOLDOWN_MILLIS_KEY,
+                String.valueOf(gameLoopProperties.getRebalanceEntityCooldownMillis()));
+        System.setProperty(GamedoConfiguration.INVOKE_CHUNK_SIZE_KEY,
+                String.valueOf(gameLoopProperties.getInvokeChunkSize()));
+        System.setProperty(GamedoConfiguration.LANE_URGENT_BATCH_KEY,
+                String.valueOf(gameLoopProperties.getLaneUrgentBatch()));
+        System.setProperty(GamedoConfiguration.LANE_BACKGROUND_BATCH_KEY,
+                String.valueOf(gameLoopProperties.getLaneBackgroundBatch()));
         System.setProperty(GamedoConfiguration.GAMEDO_METRIC_ENTITY_ENABLE_KEY,
                 String.valueOf(metricProperties.isEnable() && metricProperties.isEntityEnable()));
         System.setProperty(GamedoConfiguration.GAMEDO_METRIC_EVENT_ENABLE_KEY,
@@ -71,7 +97,19 @@ public class GameLoopGroupAutoConfiguration {
                 .gameLoopIdCounter(defaults.getGameLoopIdCounter())
                 .gameLoopIdPrefix(defaults.getGameLoopIdPrefix())
                 .daemon(defaults.isDaemon())
+                .virtualThread(defaults.isVirtualThread())
                 .gameLoopGroupId(defaults.getGameLoopGroupId())
+                .zoneId(defaults.getZoneId())
+                .selectStrategy(defaults.getSelectStrategy())
+                .workStealing(defaults.isWorkStealing())
+                .taskQueueCapacity(defaults.getTaskQueueCapacity())
+                .overflowPolicy(defaults.getOverflowPolicy())
+                .overflowBlockMillis(defaults.getOverflowBlockMillis())
+                .cpuAffinity(defaults.getCpuAffinity())
+                .numaNode(defaults.getNumaNode())
+                .threadPriority(defaults.getThreadPriority())
+                .waitStrategy(defaults.getWaitStrategy())
+                .waitSpinMicros(defaults.getWaitSpinMicros())
                 .gameLoopCount(defaults.getGameLoopCount())
                 .gameLoopIdCounter(defaults.getGameLoopIdCounter())
                 .componentRegisters(defaults.getComponentRegisters())
@@ -99,7 +137,9 @@ public class GameLoopGroupAutoConfiguration {
                 .mapToObj(i -> context.getBean(IGameLoop.class, config))
                 .toArray(IGameLoop[]::new);
 
-        final IGameLoopGroup gameLoopGroup = new GameLoopGroup(config.getGameLoopGroupId(), iGameLoops);
+        final GameLoopGroup gameLoopGroup = new GameLoopGroup(config.getGameLoopGroupId(), config.getSelectStrategy(),
+                iGameLoops);
+        gameLoopGroup.setWorkStealing(config.isWorkStealing());
 
         Arrays.stream(gameLoopGroup.selectAll())
                 .peek(gameLoop -> ((GameLoop) gameLoop).setOwner(gameLoopGroup))
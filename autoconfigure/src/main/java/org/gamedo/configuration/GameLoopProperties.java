@@ -1,10 +1,16 @@
 package org.gamedo.configuration;
 
 import lombok.*;
+import org.gamedo.annotation.Cron;
 import org.gamedo.ecs.GameLoopComponent;
 import org.gamedo.exception.GameLoopException;
 import org.gamedo.gameloop.GameLoopComponentRegister;
 import org.gamedo.gameloop.GameLoopConfig;
+import org.gamedo.gameloop.GameLoopGroupRebalancer;
+import org.gamedo.gameloop.GameLoopOverflowPolicy;
+import org.gamedo.gameloop.GameLoopSelectStrategy;
+import org.gamedo.gameloop.GameLoopTaskLane;
+import org.gamedo.gameloop.GameLoopWaitStrategy;
 import org.gamedo.gameloop.components.entitymanager.GameLoopEntityManager;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
 import org.gamedo.gameloop.components.eventbus.GameLoopEventBus;
@@ -12,8 +18,13 @@ import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
 import org.gamedo.gameloop.components.scheduling.GameLoopScheduler;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.passivation.GameLoopPassivationManager;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.components.systemmanager.GameLoopSystemManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
 import org.gamedo.gameloop.components.tickManager.GameLoopTickManager;
 import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManager;
+import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.util.GamedoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -48,6 +59,14 @@ public class GameLoopProperties {
                     .allInterface(IGameLoopTickManager.class.getName())
                     .implementation(GameLoopTickManager.class.getName())
                     .build())
+            .componentRegister(GameLoopComponentRegisterInner.builder()
+                    .allInterface(IGameLoopSystemManager.class.getName())
+                    .implementation(GameLoopSystemManager.class.getName())
+                    .build())
+            .componentRegister(GameLoopComponentRegisterInner.builder()
+                    .allInterface(IGameLoopPassivationManager.class.getName())
+                    .implementation(GameLoopPassivationManager.class.getName())
+                    .build())
             .build();
 
     /**
@@ -99,6 +118,74 @@ public class GameLoopProperties {
      */
     private int maxEventPostDepth = GamedoConfiguration.MAX_EVENT_POST_DEPTH_DEFAULT;
 
+    /**
+     * 卸载型{@link Cron}函数所使用的卸载线程池的线程数量
+     */
+    private int cronOffloadThreadCount = GamedoConfiguration.CRON_OFFLOAD_THREAD_COUNT_DEFAULT;
+
+    /**
+     * 卸载型{@link Cron}函数所使用的卸载线程池的队列容量
+     */
+    private int cronOffloadQueueCapacity = GamedoConfiguration.CRON_OFFLOAD_QUEUE_CAPACITY_DEFAULT;
+
+    /**
+     * {@link Cron}函数实际触发时间相对于计划触发时间的延迟（毫秒）超过该值时，视为一次misfire
+     */
+    private long cronMisfireThresholdMillis = GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_DEFAULT;
+
+    /**
+     * {@link IGameLoop}的延迟任务以及{@link IGameLoopScheduler}定时器所使用的时间轮的精度（毫秒）
+     */
+    private int timerTickMillis = GamedoConfiguration.TIMER_TICK_MILLIS_DEFAULT;
+
+    /**
+     * {@link IGameLoop}的延迟任务以及{@link IGameLoopScheduler}定时器所使用的时间轮的槽位数量，时间轮的一圈为：
+     * timerTickMillis * timerWheelSize
+     */
+    private int timerWheelSize = GamedoConfiguration.TIMER_WHEEL_SIZE_DEFAULT;
+
+    /**
+     * {@link GameLoopGroupRebalancer}采样与再平衡的周期（毫秒）
+     */
+    private long rebalancePeriodMillis = GamedoConfiguration.REBALANCE_PERIOD_MILLIS_DEFAULT;
+
+    /**
+     * {@link GameLoopGroupRebalancer}的高水位：最忙与最闲的{@link IGameLoop}的利用率之差超过该值时开始再平衡
+     */
+    private double rebalanceHighWatermark = GamedoConfiguration.REBALANCE_HIGH_WATERMARK_DEFAULT;
+
+    /**
+     * {@link GameLoopGroupRebalancer}的低水位：最忙与最闲的{@link IGameLoop}的利用率之差低于该值时停止再平衡
+     */
+    private double rebalanceLowWatermark = GamedoConfiguration.REBALANCE_LOW_WATERMARK_DEFAULT;
+
+    /**
+     * {@link GameLoopGroupRebalancer}每一轮最多迁移的实体数量
+     */
+    private int rebalanceMaxMigrationPerRound = GamedoConfiguration.REBALANCE_MAX_MIGRATION_PER_ROUND_DEFAULT;
+
+    /**
+     * 被{@link GameLoopGroupRebalancer}迁移过的实体在该时间（毫秒）内不会被再次迁移
+     */
+    private long rebalanceEntityCooldownMillis = GamedoConfiguration.REBALANCE_ENTITY_COOLDOWN_MILLIS_DEFAULT;
+
+    /**
+     * gameLoopGroup的invokeAll、invokeAny把任务切分为多个分块分发到各个gameLoop上，该值为每个分块的任务数量，小于等于0时按照
+     * gameLoop的数量平均切分（每个gameLoop一个分块）；任务开销不均匀时，可以配合较小的分块以及工作窃取模式使用
+     */
+    private int invokeChunkSize = GamedoConfiguration.INVOKE_CHUNK_SIZE_DEFAULT;
+
+    /**
+     * gameLoop在执行每个普通任务之前，最多执行的{@link GameLoopTaskLane#URGENT}任务的数量
+     */
+    private int laneUrgentBatch = GamedoConfiguration.LANE_URGENT_BATCH_DEFAULT;
+
+    /**
+     * 普通任务队列每轮转一圈，gameLoop最多执行的{@link GameLoopTaskLane#BACKGROUND}任务的数量，该值越小，大量的后台任务
+     * 对普通任务和紧急任务的延迟影响越小
+     */
+    private int laneBackgroundBatch = GamedoConfiguration.LANE_BACKGROUND_BATCH_DEFAULT;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -120,6 +207,12 @@ public class GameLoopProperties {
          */
         private boolean daemon;
 
+        /**
+         * 是否使用虚拟线程（需要jdk21及以上的版本，否则退化为平台线程），每个gameLoop依然只在一个线程内执行，但阻塞的db、http调用不会
+         * 占用平台线程，适用于ios等执行阻塞io的gameLoopGroup，此时可以把gameLoopCount配置为数千个
+         */
+        private boolean virtualThread;
+
         /**
          * gameLoop的数量
          */
@@ -130,6 +223,65 @@ public class GameLoopProperties {
          */
         private String gameLoopGroupId = "defaults";
 
+        /**
+         * gameLoop的默认时区，用于没有指定时区的cron调度，为空时使用jvm的默认时区
+         */
+        private String zoneId;
+
+        /**
+         * gameLoopGroup的selectNext所使用的选择策略：round-robin、power-of-two-choices、least-pending，任务开销不均匀的
+         * gameLoopGroup（例如ios、workers）建议使用power-of-two-choices
+         */
+        private GameLoopSelectStrategy selectStrategy = GameLoopSelectStrategy.ROUND_ROBIN;
+
+        /**
+         * 是否开启工作窃取模式：通过ExecutorService接口提交的无状态任务可以被组内空闲的gameLoop取走执行，绑定实体的操作不受影响，
+         * 适用于ios、workers等执行无状态任务的gameLoopGroup
+         */
+        private boolean workStealing;
+
+        /**
+         * gameLoop的立即任务队列的容量，小于等于0表示无界；有界时，其他线程提交任务而队列已满时按照overflowPolicy处理
+         */
+        private int taskQueueCapacity;
+
+        /**
+         * 任务队列已满时的处理策略：reject、drop-oldest、block、caller-runs
+         */
+        private GameLoopOverflowPolicy overflowPolicy = GameLoopOverflowPolicy.REJECT;
+
+        /**
+         * 处理策略为block时，提交线程最多阻塞的时间（毫秒）
+         */
+        private long overflowBlockMillis = 100;
+
+        /**
+         * gameLoop线程绑定的cpu列表，例如：2-5,8，只支持linux的平台线程，通过sched_setaffinity在进程内完成绑核。<p>
+         * <b>需要jdk22及以上的版本</b>，当前操作系统或者jdk不支持绑核时（例如：jdk17），创建gameLoop时抛出IllegalStateException，
+         * 应用无法启动
+         */
+        private String cpuAffinity;
+
+        /**
+         * gameLoop线程绑定的numa节点，为空时不绑定，配置了cpuAffinity时忽略该值，与cpuAffinity一样<b>需要jdk22及以上的版本</b>
+         */
+        private Integer numaNode;
+
+        /**
+         * gameLoop线程的优先级（1~10），不在该范围内时使用默认的优先级
+         */
+        private int threadPriority;
+
+        /**
+         * gameLoop线程没有可执行任务时的等待策略：park、spin、busy-spin，busy-spin会一直占满一个cpu核心，建议配合cpuAffinity使用
+         */
+        private GameLoopWaitStrategy waitStrategy = GameLoopWaitStrategy.PARK;
+
+        /**
+         * 等待策略为spin时，阻塞之前自旋等待的时间（微秒）
+         */
+        private long waitSpinMicros = 50;
+
         /**
          * gameLoop的组件列表
          */
@@ -141,8 +293,20 @@ public class GameLoopProperties {
                     .gameLoopIdPrefix(gameLoopIdPrefix)
                     .gameLoopIdCounter(new AtomicInteger(gameLoopIdCounter))
                     .daemon(daemon)
+                    .virtualThread(virtualThread)
                     .gameLoopCount(gameLoopCount)
                     .gameLoopGroupId(gameLoopGroupId)
+                    .zoneId(zoneId)
+                    .selectStrategy(selectStrategy)
+                    .workStealing(workStealing)
+                    .taskQueueCapacity(taskQueueCapacity)
+                    .overflowPolicy(overflowPolicy)
+                    .overflowBlockMillis(overflowBlockMillis)
+                    .cpuAffinity(cpuAffinity)
+                    .numaNode(numaNode)
+                    .threadPriority(threadPriority)
+                    .waitStrategy(waitStrategy)
+                    .waitSpinMicros(waitSpinMicros)
                     .componentRegisters(componentRegisters.stream()
                             .map(GameLoopComponentRegisterInner::convert)
                             .collect(Collectors.toList())
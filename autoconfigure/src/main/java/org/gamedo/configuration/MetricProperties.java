@@ -4,6 +4,7 @@ import lombok.Data;
 import org.gamedo.gameloop.components.entitymanager.GameLoopEntityManager;
 import org.gamedo.gameloop.components.eventbus.GameLoopEventBus;
 import org.gamedo.gameloop.components.scheduling.GameLoopScheduler;
+import org.gamedo.gameloop.components.systemmanager.GameLoopSystemManager;
 import org.gamedo.gameloop.components.tickManager.GameLoopTickManager;
 import org.gamedo.util.GamedoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -36,7 +37,7 @@ public class MetricProperties {
     private boolean eventEnable = GamedoConfiguration.METRIC_EVENT_ENABLE_DEFAULT;
 
     /**
-     * 是否开启{@link GameLoopTickManager}的指标采集
+     * 是否开启{@link GameLoopTickManager}以及{@link GameLoopSystemManager}的指标采集
      */
     private boolean tickEnable = GamedoConfiguration.METRIC_TICK_ENABLE_DEFAULT;
 
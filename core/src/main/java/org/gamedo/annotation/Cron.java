@@ -1,6 +1,7 @@
 package org.gamedo.annotation;
 
 import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.scheduling.CronOffload;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
 import org.gamedo.util.function.IGameLoopEntityManagerFunction;
 import org.gamedo.gameloop.interfaces.IGameLoop;
@@ -12,7 +13,8 @@ import java.lang.annotation.*;
  * 该注解被标注在一个方法上，代表所归属的类具备了在{@link IGameLoop}线程内根据不同的cron表达式调用自身逻辑的能力，含有该注解的方法称为：cron
  * 函数。cron函数的要求：
  * <ul>
- * <li> 返回值为void，包含2个{@link Long}类型的参数，第1个参数代表当前系统时间，第2个参数代表上次cron调用时间（首次调用时为-1）
+ * <li> 返回值为void（卸载型cron函数除外，详情参考{@link Cron#offload()}），包含2个{@link Long}类型的参数，第1个参数代表当前系统时
+ * 间，第2个参数代表上次cron调用时间（首次调用时为-1）
  * <li> 某一个类的cron函数除了包含自己的cron函数，也包含父类及祖先类内的cron函数
  * <li> 对于函数重载：假如某函数被子类重载，那么本类或子类只要任意函数上增加了本注解，那么都会成为cron函数
  * </ul>
@@ -120,4 +122,31 @@ public @interface Cron {
      * @see <a href=https://docs.spring.io/spring-framework/docs/current/reference/html/integration.html#scheduling-cron-expression>spring docs: Cron Expressions</a>
      */
     @SuppressWarnings("HtmlTagCanBeJavadocTag") String value() default "";
+
+    /**
+     * 是否为卸载型cron函数，某些周期性的重度计算（例如排行榜重算、报表生成）如果直接在{@link IGameLoop}线程内执行，会导致线程长时间卡顿，
+     * 此时可以将cron函数声明为卸载型：cron函数的返回值必须为{@link CronOffload}，cron函数本身只负责在{@link IGameLoop}线程内生成数据快
+     * 照，重度计算在独立的有界线程池内执行，计算结果再通过{@link IGameLoop#submit}回到{@link IGameLoop}线程内应用，详情参考
+     * {@link CronOffload}<p>
+     * 需要注意的是：
+     * <ul>
+     * <li> 如果上一次的卸载执行尚未应用完毕，本次触发会被跳过，防止计算任务在卸载线程池内堆积
+     * <li> 卸载线程池是有界的，其线程数量和队列容量分别由系统属性：gamedo.gameloop.cron-offload-thread-count和
+     * gamedo.gameloop.cron-offload-queue-capacity指定，当队列已满时，本次触发会被丢弃并记录错误日志
+     * <li> 如果应用阶段执行时，cron函数已经被反注册，那么计算结果会被丢弃
+     * </ul>
+     *
+     * @return true表示卸载型cron函数
+     */
+    boolean offload() default false;
+
+    /**
+     * 计算触发时间时所使用的时区，例如：Asia/Shanghai、America/New_York、UTC+8，对于存在夏令时的时区，触发时间会自动按照当地时间
+     * 进行换算，例如"0 0 0 * * *"总是在当地的午夜零点触发。如果为空字符串，则使用{@link IGameLoop}的默认时区（参考：
+     * {@link org.gamedo.gameloop.GameLoopConfig#getZoneId()}），如果{@link IGameLoop}也没有指定时区，则使用jvm的默认时区<p>
+     * 时区字符串只在注册时解析一次，并且由{@link org.gamedo.util.ZoneIdCache}缓存，因此不会为每次触发带来额外的时区解析开销
+     *
+     * @return 时区字符串，非法的时区会导致注册失败
+     */
+    String zone() default "";
 }
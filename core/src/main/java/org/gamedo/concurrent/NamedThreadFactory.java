@@ -1,21 +1,124 @@
 package org.gamedo.concurrent;
 
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.logging.Markers;
+
+import java.lang.reflect.Method;
 import java.util.concurrent.ThreadFactory;
 
+/**
+ * 使用固定名字创建线程的{@link ThreadFactory}，可以选择创建虚拟线程：虚拟线程需要jdk21及以上的版本，为了兼容更低版本的jdk，通过反射
+ * 创建，当前jdk不支持时退化为平台线程，参考：{@link #isVirtualThreadSupported()}。平台线程还可以指定优先级以及cpu亲和性，线程启动
+ * 后首先把自己绑定到指定的cpu上，参考：{@link ThreadAffinity}
+ */
+@Log4j2
 public class NamedThreadFactory implements ThreadFactory {
+    /**
+     * Thread.ofVirtual()
+     */
+    private static final Method OF_VIRTUAL;
+    /**
+     * Thread.Builder.name(String)
+     */
+    private static final Method BUILDER_NAME;
+    /**
+     * Thread.Builder.unstarted(Runnable)
+     */
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderUnstarted = null;
+        try {
+            final Class<?> builderClazz = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClazz.getMethod("name", String.class);
+            builderUnstarted = builderClazz.getMethod("unstarted", Runnable.class);
+            //jdk19、20中虚拟线程是预览特性，没有开启预览时会抛出UnsupportedOperationException
+            ofVirtual.invoke(null);
+        } catch (Throwable t) {
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+    }
 
     private final String name;
     private final boolean daemon;
+    private final boolean virtual;
+    private final int priority;
+    private final String cpuList;
 
     public NamedThreadFactory(final String name, boolean daemon) {
+        this(name, daemon, false);
+    }
+
+    public NamedThreadFactory(final String name, boolean daemon, boolean virtual) {
+        this(name, daemon, virtual, 0, null);
+    }
+
+    /**
+     * @param name     线程的名字
+     * @param daemon   是否为后台线程，虚拟线程总是后台线程，忽略该参数
+     * @param virtual  是否创建虚拟线程，当前jdk不支持时创建平台线程
+     * @param priority 平台线程的优先级，不在{@link Thread#MIN_PRIORITY}和{@link Thread#MAX_PRIORITY}之间时使用默认的优先级
+     * @param cpuList  平台线程的cpu亲和性，例如：2-5,8，为null时不绑核，参考：{@link ThreadAffinity#resolveCpuList(String, Integer)}
+     * @throws IllegalStateException 需要绑核的平台线程，但当前操作系统或者jdk不支持绑核，参考：{@link ThreadAffinity#isSupported()}
+     */
+    public NamedThreadFactory(final String name, boolean daemon, boolean virtual, int priority, String cpuList) {
         this.name = name;
         this.daemon = daemon;
+        this.virtual = virtual && OF_VIRTUAL != null;
+        this.priority = priority;
+        this.cpuList = cpuList;
+
+        if (virtual && OF_VIRTUAL == null) {
+            log.warn(Markers.GameLoop, "virtual thread is not supported by the current jvm, fallback to platform thread, name:{}, java.version:{}",
+                    name,
+                    System.getProperty("java.version"));
+        }
+        if (this.virtual && cpuList != null) {
+            log.warn(Markers.GameLoop, "the virtual thread can not be pinned to cpus, ignore the cpu affinity, name:{}, cpuList:{}",
+                    name,
+                    cpuList);
+        }
+        //配置了绑核却无法生效时在启动阶段就失败，而不是等到线程启动之后才发现
+        if (!this.virtual && cpuList != null && !ThreadAffinity.isSupported()) {
+            throw new IllegalStateException("the cpu affinity is configured but not supported, name:" + name +
+                    ", cpuList:" + cpuList +
+                    ", reason:" + ThreadAffinity.getUnsupportedReason());
+        }
+    }
+
+    /**
+     * @return 当前jdk是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
     }
 
     @Override
     public Thread newThread(Runnable r) {
-        final Thread thread = new Thread(r, name);
+        if (virtual) {
+            try {
+                final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, r);
+            } catch (ReflectiveOperationException e) {
+                log.error(Markers.GameLoop, "create virtual thread failed, fallback to platform thread, name:" + name, e);
+            }
+        }
+
+        final Thread thread = new Thread(cpuList == null ? r : () -> {
+            ThreadAffinity.pinCurrentThread(cpuList);
+            r.run();
+        }, name);
         thread.setDaemon(daemon);
+        if (priority >= Thread.MIN_PRIORITY && priority <= Thread.MAX_PRIORITY) {
+            thread.setPriority(priority);
+        }
 
         return thread;
     }
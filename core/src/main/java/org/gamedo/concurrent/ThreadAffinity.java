@@ -0,0 +1,250 @@
+package org.gamedo.concurrent;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.logging.Markers;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 线程的cpu亲和性（绑核），只支持linux，并且不依赖jni、jna等第三方本地库，也不启动任何外部进程：
+ * <ul>
+ * <li> 通过jdk22及以上版本的Foreign Function &amp; Memory API（java.lang.foreign）在进程内直接调用libc的sched_setaffinity，
+ * 为了兼容更低版本的jdk，通过反射访问，参考：{@link #isSupported()}
+ * <li> sched_setaffinity的pid参数为0时作用于调用线程本身，因此绑核只能由线程自己完成，参考：{@link NamedThreadFactory}
+ * <li> numa节点通过/sys/devices/system/node/node{N}/cpulist转换为cpu列表
+ * </ul>
+ * <b>注意：绑核需要linux以及jdk22及以上的版本</b>，在jdk17~21上{@link #isSupported()}总是返回false，此时配置了绑核的
+ * {@link NamedThreadFactory}会在创建时直接抛出异常，而不是静默地不绑核。直接调用{@link #pinCurrentThread(String)}且绑核失败时，
+ * 只在第一次失败时记录一条警告日志（之后的失败只记录debug日志），线程依然正常运行。
+ * 在jdk22及以上的版本中，建议添加jvm参数：--enable-native-access=ALL-UNNAMED，否则jvm会在第一次绑核时输出受限方法的警告
+ */
+@Log4j2
+public final class ThreadAffinity {
+    /**
+     * glibc中cpu_set_t的大小（1024个cpu），内核会用0填充超出cpu列表的部分
+     */
+    private static final int MIN_MASK_LONGS = 1024 / Long.SIZE;
+    /**
+     * int sched_setaffinity(pid_t pid, size_t cpusetsize, const cpu_set_t *mask)
+     */
+    private static final MethodHandle SCHED_SETAFFINITY;
+    /**
+     * Arena.ofConfined()
+     */
+    private static final Method ARENA_OF_CONFINED;
+    /**
+     * Arena.allocate(long, long)
+     */
+    private static final Method ARENA_ALLOCATE;
+    /**
+     * MemorySegment.set(ValueLayout.OfLong, long, long)
+     */
+    private static final Method SEGMENT_SET_LONG;
+    /**
+     * ValueLayout.JAVA_LONG
+     */
+    private static final Object JAVA_LONG;
+    /**
+     * 不支持绑核的原因，支持时为null
+     */
+    private static final String UNSUPPORTED_REASON;
+    private static final AtomicBoolean WARNED = new AtomicBoolean(false);
+
+    static {
+        MethodHandle schedSetAffinity = null;
+        Method arenaOfConfined = null;
+        Method arenaAllocate = null;
+        Method segmentSetLong = null;
+        Object javaLong = null;
+        String unsupportedReason = null;
+        if (!System.getProperty("os.name", "").toLowerCase().contains("linux")) {
+            unsupportedReason = "thread affinity is only supported on linux, os.name:" + System.getProperty("os.name");
+        } else {
+            try {
+                final Class<?> linkerClazz = Class.forName("java.lang.foreign.Linker");
+                final Class<?> linkerOptionClazz = Class.forName("java.lang.foreign.Linker$Option");
+                final Class<?> symbolLookupClazz = Class.forName("java.lang.foreign.SymbolLookup");
+                final Class<?> memoryLayoutClazz = Class.forName("java.lang.foreign.MemoryLayout");
+                final Class<?> valueLayoutClazz = Class.forName("java.lang.foreign.ValueLayout");
+                final Class<?> functionDescriptorClazz = Class.forName("java.lang.foreign.FunctionDescriptor");
+                final Class<?> memorySegmentClazz = Class.forName("java.lang.foreign.MemorySegment");
+                final Class<?> arenaClazz = Class.forName("java.lang.foreign.Arena");
+
+                final Object linker = linkerClazz.getMethod("nativeLinker").invoke(null);
+                final Object lookup = linkerClazz.getMethod("defaultLookup").invoke(linker);
+                final Optional<?> symbol = (Optional<?>) symbolLookupClazz.getMethod("find", String.class)
+                        .invoke(lookup, "sched_setaffinity");
+                if (symbol.isEmpty()) {
+                    throw new UnsupportedOperationException("the symbol sched_setaffinity is not found in libc");
+                }
+
+                javaLong = valueLayoutClazz.getField("JAVA_LONG").get(null);
+                final Object argLayouts = Array.newInstance(memoryLayoutClazz, 3);
+                Array.set(argLayouts, 0, valueLayoutClazz.getField("JAVA_INT").get(null));
+                Array.set(argLayouts, 1, javaLong);
+                Array.set(argLayouts, 2, valueLayoutClazz.getField("ADDRESS").get(null));
+                final Object descriptor = functionDescriptorClazz.getMethod("of", memoryLayoutClazz, argLayouts.getClass())
+                        .invoke(null, valueLayoutClazz.getField("JAVA_INT").get(null), argLayouts);
+                final Object options = Array.newInstance(linkerOptionClazz, 0);
+                schedSetAffinity = (MethodHandle) linkerClazz.getMethod("downcallHandle", memorySegmentClazz,
+                                functionDescriptorClazz,
+                                options.getClass())
+                        .invoke(linker, symbol.get(), descriptor, options);
+
+                arenaOfConfined = arenaClazz.getMethod("ofConfined");
+                arenaAllocate = arenaClazz.getMethod("allocate", long.class, long.class);
+                segmentSetLong = memorySegmentClazz.getMethod("set",
+                        Class.forName("java.lang.foreign.ValueLayout$OfLong"),
+                        long.class,
+                        long.class);
+            } catch (Throwable t) {
+                schedSetAffinity = null;
+                unsupportedReason = "the Foreign Function & Memory API (jdk22+) is not available, java.version:" +
+                        System.getProperty("java.version") + ", cause:" + t;
+            }
+        }
+
+        SCHED_SETAFFINITY = schedSetAffinity;
+        ARENA_OF_CONFINED = arenaOfConfined;
+        ARENA_ALLOCATE = arenaAllocate;
+        SEGMENT_SET_LONG = segmentSetLong;
+        JAVA_LONG = javaLong;
+        UNSUPPORTED_REASON = unsupportedReason;
+    }
+
+    private ThreadAffinity() {
+    }
+
+    /**
+     * @return 当前操作系统以及jdk是否支持绑核
+     */
+    public static boolean isSupported() {
+        return SCHED_SETAFFINITY != null;
+    }
+
+    /**
+     * @return 不支持绑核的原因，支持时返回null
+     */
+    public static String getUnsupportedReason() {
+        return UNSUPPORTED_REASON;
+    }
+
+    /**
+     * 把配置转换为cpu列表，cpuAffinity优先
+     *
+     * @param cpuAffinity cpu列表，例如：2-5,8，为空时使用numaNode
+     * @param numaNode    numa节点，为null时不绑核
+     * @return cpu列表，不需要绑核时返回null
+     * @throws IllegalArgumentException cpu列表格式错误或者numa节点不存在
+     */
+    public static String resolveCpuList(String cpuAffinity, Integer numaNode) {
+        if (cpuAffinity != null && !cpuAffinity.trim().isEmpty()) {
+            parseCpuList(cpuAffinity);
+            return cpuAffinity.trim();
+        }
+
+        if (numaNode == null) {
+            return null;
+        }
+
+        final Path path = Paths.get("/sys/devices/system/node/node" + numaNode, "cpulist");
+        try {
+            final String cpuList = new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+            parseCpuList(cpuList);
+            return cpuList;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("read numa node cpu list failed, numaNode:" + numaNode, e);
+        }
+    }
+
+    /**
+     * 解析linux格式的cpu列表，例如：0-3,8,10-11
+     *
+     * @param cpuList cpu列表
+     * @return 展开后的cpu编号
+     * @throws IllegalArgumentException cpu列表格式错误
+     */
+    public static List<Integer> parseCpuList(String cpuList) {
+        final List<Integer> cpuIdList = new ArrayList<>();
+        try {
+            for (String range : cpuList.trim().split(",")) {
+                final String[] bounds = range.trim().split("-");
+                final int from = Integer.parseInt(bounds[0].trim());
+                final int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                if (bounds.length > 2 || from < 0 || to < from) {
+                    throw new IllegalArgumentException("illegal cpu range:" + range);
+                }
+                for (int cpuId = from; cpuId <= to; cpuId++) {
+                    cpuIdList.add(cpuId);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("illegal cpu list:" + cpuList, e);
+        }
+
+        return cpuIdList;
+    }
+
+    /**
+     * 把当前线程绑定到指定的cpu列表上，只应该在线程启动时调用一次
+     *
+     * @param cpuList cpu列表，例如：2-5,8
+     * @return 绑核成功返回true
+     */
+    public static boolean pinCurrentThread(String cpuList) {
+        final String threadName = Thread.currentThread().getName();
+        if (!isSupported()) {
+            warnOnce(threadName + " is not pinned, cpuList:" + cpuList + ", reason:" + UNSUPPORTED_REASON, null);
+            return false;
+        }
+
+        try {
+            final List<Integer> cpuIdList = parseCpuList(cpuList);
+            final int maxCpuId = cpuIdList.stream().mapToInt(Integer::intValue).max().orElse(0);
+            final long[] mask = new long[Math.max(MIN_MASK_LONGS, maxCpuId / Long.SIZE + 1)];
+            cpuIdList.forEach(cpuId -> mask[cpuId / Long.SIZE] |= 1L << (cpuId % Long.SIZE));
+
+            final int result;
+            try (AutoCloseable arena = (AutoCloseable) ARENA_OF_CONFINED.invoke(null)) {
+                final Object segment = ARENA_ALLOCATE.invoke(arena, (long) mask.length * Long.BYTES, (long) Long.BYTES);
+                for (int i = 0; i < mask.length; i++) {
+                    SEGMENT_SET_LONG.invoke(segment, JAVA_LONG, (long) i * Long.BYTES, mask[i]);
+                }
+                //pid为0表示调用线程本身
+                result = (int) SCHED_SETAFFINITY.invokeWithArguments(0, (long) mask.length * Long.BYTES, segment);
+            }
+            if (result != 0) {
+                warnOnce("sched_setaffinity failed, thread:" + threadName + ", cpuList:" + cpuList + ", result:" + result, null);
+                return false;
+            }
+
+            log.info(Markers.GameLoop, "thread pinned, thread:{}, cpuList:{}", threadName, cpuList);
+            return true;
+        } catch (Throwable t) {
+            warnOnce("pin thread failed, thread:" + threadName + ", cpuList:" + cpuList, t);
+            return false;
+        }
+    }
+
+    /**
+     * 绑核失败通常是环境导致的（所有线程都会以同样的原因失败），因此只有第一次失败记录警告日志
+     */
+    private static void warnOnce(String message, Throwable t) {
+        if (WARNED.compareAndSet(false, true)) {
+            log.warn(Markers.GameLoop, message + ", the following failures are logged at debug level", t);
+        } else {
+            log.debug(Markers.GameLoop, message, t);
+        }
+    }
+}
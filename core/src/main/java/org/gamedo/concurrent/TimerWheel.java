@@ -0,0 +1,407 @@
+package org.gamedo.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 单线程的分层哈希时间轮，用于管理海量的定时任务，和{@link java.util.concurrent.DelayQueue}等基于二叉堆的实现相比：
+ * <ul>
+ * <li> 添加、删除都是O(1)的，并且删除后立即从时间轮中摘除，不会残留在时间轮中
+ * <li> 时间轮中的每一个节点都是{@link Timeout}本身（侵入式双向链表），除了{@link Timeout}实例之外不会再分配任何额外的对象
+ * <li> 不是线程安全的，所有方法都必须在同一个线程内调用，因此没有任何锁的开销
+ * </ul>
+ * 时间轮由多层组成，每一层都有wheelSize个槽位：第0层的每个槽位代表1个tick，第k层的每个槽位代表wheelSize^k个tick。把tick看作以
+ * wheelSize为基数的多位数，{@link Timeout}被放在它与当前tick不同的最高位所在的层，槽位就是该位上的数字，因此：
+ * <ul>
+ * <li> 第0层只包含当前第0层一圈之内到期的{@link Timeout}，同一个槽位内的{@link Timeout}的tick完全相同，按照添加的顺序到期
+ * <li> 当前tick跨过第k层的边界时，第k层对应槽位中的{@link Timeout}被逐个降到更低的层（级联），每个{@link Timeout}最多被级联
+ * 层数次，与{@link Timeout}的延迟、时间轮中{@link Timeout}的总数都无关
+ * <li> 推进时只扫描第0层的槽位，低层为空时直接跳到最低的非空层的下一个边界，长时间没有推进也不会逐个扫描所有的{@link Timeout}
+ * </ul>
+ * 时间轮不会自动推进，需要使用者调用{@link #advance(long)}，并且可以通过{@link #nextExpireNanoTime()}得知下一次需要推进的时间
+ * （最近的到期时间或者最近的级联时间），该值在添加、删除时增量维护，只有在推进之后或者删除了决定该值的{@link Timeout}之后才需要重新
+ * 计算，重新计算只需要按层扫描槽位的头节点，不需要遍历{@link Timeout}
+ */
+public final class TimerWheel {
+
+    private final long originNanoTime;
+    private final long tickNanos;
+    /**
+     * 每一层的位数，也即log2(wheelSize)
+     */
+    private final int bits;
+    private final int mask;
+    /**
+     * 每一层的槽位，除第0层之外按需分配
+     */
+    private final Timeout[][] heads;
+    private final Timeout[][] tails;
+    private final int[] levelSizes;
+    /**
+     * 小于等于该tick的所有{@link Timeout}都已经到期
+     */
+    private long currentTick;
+    private int size;
+    /**
+     * 下一次需要推进的tick（最近的到期tick或者最近的级联tick），为{@link Long#MIN_VALUE}时需要重新计算
+     */
+    private long nextWakeTick = Long.MAX_VALUE;
+    /**
+     * 复用的到期{@link Timeout}缓冲区，避免每次推进时分配
+     */
+    private Timeout[] expiredBuffer = new Timeout[16];
+
+    /**
+     * 创建一个时间轮
+     *
+     * @param tickDuration  每个槽位代表的时间长度
+     * @param timeUnit      tickDuration的时间单位
+     * @param wheelSize     每一层槽位的数量，会被向上取整为2的幂（最小为2）
+     * @param startNanoTime 时间轮的起始时间，参考：{@link System#nanoTime()}
+     */
+    public TimerWheel(long tickDuration, TimeUnit timeUnit, int wheelSize, long startNanoTime) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30]: " + wheelSize);
+        }
+
+        final int normalizedWheelSize = wheelSize <= 2 ? 2 : Integer.highestOneBit(wheelSize - 1) << 1;
+        tickNanos = timeUnit.toNanos(tickDuration);
+        originNanoTime = startNanoTime;
+        bits = Integer.numberOfTrailingZeros(normalizedWheelSize);
+        mask = normalizedWheelSize - 1;
+
+        //tick是非负的long，最多63位
+        final int levelCount = (63 + bits - 1) / bits;
+        heads = new Timeout[levelCount][];
+        tails = new Timeout[levelCount][];
+        levelSizes = new int[levelCount];
+        heads[0] = new Timeout[normalizedWheelSize];
+        tails[0] = new Timeout[normalizedWheelSize];
+    }
+
+    /**
+     * 添加一个{@link Timeout}，如果deadlineNanoTime已经过去，那么会在下一个tick到期
+     *
+     * @param timeout          要添加的{@link Timeout}，不能已经在某个时间轮中
+     * @param deadlineNanoTime 过期时间，参考：{@link System#nanoTime()}
+     * @throws IllegalStateException 如果timeout已经在某个时间轮中
+     */
+    public void add(Timeout timeout, long deadlineNanoTime) {
+        if (timeout.wheel != null) {
+            throw new IllegalStateException("the timeout has already been added to a timer wheel");
+        }
+
+        final long delta = deadlineNanoTime - originNanoTime;
+        //向上取整，保证不会提前到期，注意：这里不能使用(delta + tickNanos - 1) / tickNanos，delta可能非常大而导致溢出
+        final long tick = delta <= 0 ? 0 : delta / tickNanos + (delta % tickNanos == 0 ? 0 : 1);
+
+        timeout.tick = Math.max(tick, currentTick + 1);
+        timeout.expireNanoTime = originNanoTime + timeout.tick * tickNanos;
+        timeout.wheel = this;
+        link(timeout);
+        size++;
+
+        if (nextWakeTick != Long.MIN_VALUE) {
+            nextWakeTick = Math.min(nextWakeTick, wakeTick(timeout));
+        }
+    }
+
+    /**
+     * 从时间轮中立即移除一个{@link Timeout}
+     *
+     * @param timeout 要移除的{@link Timeout}
+     * @return 移除成功返回true，如果timeout不在本时间轮中（例如已经到期或者已经被移除），返回false
+     */
+    public boolean remove(Timeout timeout) {
+        if (timeout.wheel != this) {
+            return false;
+        }
+
+        //只有删除了决定下一次推进时间的Timeout时才需要重新计算
+        if (wakeTick(timeout) == nextWakeTick) {
+            nextWakeTick = Long.MIN_VALUE;
+        }
+        unlink(timeout);
+        timeout.wheel = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * 将时间轮推进到指定的时间，并按照过期时间的先后顺序执行所有到期的{@link Timeout#expire()}，在{@link Timeout#expire()}中添加的
+     * {@link Timeout}最早也只会在下一次推进时到期。如果某个{@link Timeout#expire()}抛出了异常，剩余的到期{@link Timeout}依然会被执
+     * 行，之后再抛出第一个异常
+     *
+     * @param nowNanoTime 当前时间，参考：{@link System#nanoTime()}
+     * @return 本次到期的{@link Timeout}的数量
+     */
+    public int advance(long nowNanoTime) {
+        final long delta = nowNanoTime - originNanoTime;
+        final long targetTick = delta < 0 ? 0 : delta / tickNanos;
+        if (targetTick <= currentTick) {
+            return 0;
+        }
+
+        int expiredCount = 0;
+        while (currentTick < targetTick) {
+            final long fromTick = currentTick + 1;
+            if (levelSizes[0] > 0) {
+                //第0层的槽位与tick一一对应，逐个槽位到期，直到第0层的边界
+                final long endTick = Math.min(targetTick, fromTick | mask);
+                long tick = fromTick;
+                for (; tick <= endTick && levelSizes[0] > 0; tick++) {
+                    expiredCount = expireSlot((int) (tick & mask), expiredCount);
+                }
+                currentTick = levelSizes[0] > 0 ? endTick : tick - 1;
+            } else {
+                final int level = lowestNonEmptyLevel();
+                if (level < 0) {
+                    currentTick = targetTick;
+                    break;
+                }
+
+                //更低的层都是空的，直接跳到该层的下一个边界
+                final int shift = bits * level;
+                final long boundaryTick = ((fromTick >>> shift) + 1) << shift;
+                //最高层的边界可能溢出
+                currentTick = boundaryTick <= fromTick ? targetTick : Math.min(targetTick, boundaryTick - 1);
+            }
+
+            cascade(fromTick, currentTick + 1);
+        }
+
+        nextWakeTick = Long.MIN_VALUE;
+
+        RuntimeException exception = null;
+        for (int i = 0; i < expiredCount; i++) {
+            final Timeout timeout = expiredBuffer[i];
+            expiredBuffer[i] = null;
+            try {
+                timeout.expire();
+            } catch (RuntimeException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+
+        return expiredCount;
+    }
+
+    /**
+     * 返回下一次需要调用{@link #advance(long)}的时间：最近的{@link Timeout}的到期时间，或者更早的级联时间（此时推进不会有
+     * {@link Timeout}到期，但之后的返回值会更加精确）
+     *
+     * @return 下一次需要推进的时间，参考：{@link System#nanoTime()}，如果时间轮为空，返回{@link Long#MAX_VALUE}
+     */
+    public long nextExpireNanoTime() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        if (nextWakeTick == Long.MIN_VALUE) {
+            nextWakeTick = computeNextWakeTick();
+        }
+
+        return originNanoTime + nextWakeTick * tickNanos;
+    }
+
+    /**
+     * 移除所有的{@link Timeout}，被移除的{@link Timeout}不会执行{@link Timeout#expire()}
+     *
+     * @param consumer 每一个被移除的{@link Timeout}的回调
+     * @return 被移除的{@link Timeout}的数量
+     */
+    public int clear(Consumer<? super Timeout> consumer) {
+        int count = 0;
+        for (int level = 0; level < heads.length; level++) {
+            if (heads[level] == null) {
+                continue;
+            }
+            for (int i = 0; i <= mask; i++) {
+                Timeout timeout = heads[level][i];
+                while (timeout != null) {
+                    final Timeout next = timeout.next;
+                    unlink(timeout);
+                    timeout.wheel = null;
+                    size--;
+                    consumer.accept(timeout);
+                    count++;
+                    timeout = next;
+                }
+            }
+        }
+
+        nextWakeTick = Long.MAX_VALUE;
+        return count;
+    }
+
+    /**
+     * @return 时间轮中尚未到期的{@link Timeout}的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 把第0层的一个槽位中的所有{@link Timeout}移入到期缓冲区
+     */
+    private int expireSlot(int index, int expiredCount) {
+        Timeout timeout = heads[0][index];
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            unlink(timeout);
+            timeout.wheel = null;
+            size--;
+            if (expiredCount == expiredBuffer.length) {
+                expiredBuffer = Arrays.copyOf(expiredBuffer, expiredCount << 1);
+            }
+            expiredBuffer[expiredCount++] = timeout;
+            timeout = next;
+        }
+
+        return expiredCount;
+    }
+
+    /**
+     * 下一个待处理的tick从fromTick变为toTick时，从发生变化的最高位所在的层开始，逐层把toTick对应槽位中的{@link Timeout}降到更低的层
+     */
+    private void cascade(long fromTick, long toTick) {
+        final int topLevel = (63 - Long.numberOfLeadingZeros(fromTick ^ toTick)) / bits;
+        for (int level = Math.min(topLevel, heads.length - 1); level > 0; level--) {
+            if (levelSizes[level] == 0) {
+                continue;
+            }
+
+            final int index = (int) ((toTick >>> (bits * level)) & mask);
+            Timeout timeout = heads[level][index];
+            heads[level][index] = null;
+            tails[level][index] = null;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                levelSizes[level]--;
+                link(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private int lowestNonEmptyLevel() {
+        for (int level = 0; level < levelSizes.length; level++) {
+            if (levelSizes[level] > 0) {
+                return level;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * 最低的非空层中，当前位置之后的第一个非空槽位就是下一次需要推进的位置：更低层的所有{@link Timeout}都早于更高层的级联时间
+     */
+    private long computeNextWakeTick() {
+        final long fromTick = currentTick + 1;
+        final int level = lowestNonEmptyLevel();
+        final int shift = bits * level;
+        //第0层从当前槽位开始，更高层的Timeout的位一定大于当前位
+        final int start = (int) ((fromTick >>> shift) & mask) + (level == 0 ? 0 : 1);
+        for (int i = start; i <= mask; i++) {
+            if (heads[level][i] != null) {
+                final long prefix = shift + bits >= Long.SIZE ? 0 : fromTick >>> (shift + bits) << (shift + bits);
+                return prefix | ((long) i << shift);
+            }
+        }
+
+        throw new IllegalStateException("the timer wheel is corrupted, level:" + level + ", size:" + levelSizes[level]);
+    }
+
+    private long wakeTick(Timeout timeout) {
+        final int shift = bits * timeout.level;
+        return timeout.tick >>> shift << shift;
+    }
+
+    private void link(Timeout timeout) {
+        final long fromTick = currentTick + 1;
+        final long tick = timeout.tick;
+        final int level = tick == fromTick ? 0 : (63 - Long.numberOfLeadingZeros(tick ^ fromTick)) / bits;
+        if (heads[level] == null) {
+            heads[level] = new Timeout[mask + 1];
+            tails[level] = new Timeout[mask + 1];
+        }
+
+        final int index = (int) ((tick >>> (bits * level)) & mask);
+        final Timeout tail = tails[level][index];
+        timeout.level = level;
+        timeout.prev = tail;
+        timeout.next = null;
+        if (tail == null) {
+            heads[level][index] = timeout;
+        } else {
+            tail.next = timeout;
+        }
+        tails[level][index] = timeout;
+        levelSizes[level]++;
+    }
+
+    private void unlink(Timeout timeout) {
+        final int level = timeout.level;
+        final int index = (int) ((timeout.tick >>> (bits * level)) & mask);
+        final Timeout prev = timeout.prev;
+        final Timeout next = timeout.next;
+        if (prev == null) {
+            heads[level][index] = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tails[level][index] = prev;
+        } else {
+            next.prev = prev;
+        }
+
+        timeout.prev = null;
+        timeout.next = null;
+        levelSizes[level]--;
+    }
+
+    /**
+     * 时间轮中的定时任务，同时也是时间轮内部链表的节点，同一时刻只能存在于一个时间轮中
+     */
+    public abstract static class Timeout {
+        private TimerWheel wheel;
+        private Timeout prev;
+        private Timeout next;
+        private long tick;
+        private int level;
+        private long expireNanoTime;
+
+        /**
+         * @return 如果当前在某个时间轮中等待到期，返回true
+         */
+        public final boolean isPending() {
+            return wheel != null;
+        }
+
+        /**
+         * @return 最近一次被添加到时间轮时，实际的到期时间（也即过期时间向上取整到tick边界），参考：{@link System#nanoTime()}
+         */
+        public final long getExpireNanoTime() {
+            return expireNanoTime;
+        }
+
+        /**
+         * 到期时在时间轮的线程内被调用，此时本实例已经从时间轮中移除，因此可以再次将自身添加到时间轮中（例如周期性的任务）
+         */
+        protected abstract void expire();
+    }
+}
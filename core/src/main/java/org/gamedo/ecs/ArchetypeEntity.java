@@ -0,0 +1,98 @@
+package org.gamedo.ecs;
+
+import org.gamedo.ecs.interfaces.IEntity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 基于数组存储组件的{@link IEntity}实现，适用于频繁查询组件的热点逻辑，和{@link Entity}相比：
+ * <ul>
+ * <li> 组件按照{@link ComponentRegistry}分配的id存放在数组中，查询组件是一次数组访问，而不是一次哈希查找
+ * <li> 提供了不需要分配{@link Optional}的查询方法{@link #component(ComponentType)}，配合缓存为静态常量的{@link ComponentType}
+ * 使用时，开销与直接访问字段相当
+ * <li> 维护了一个自身所拥有组件的位图（参考：{@link ComponentMask}），可以快速判断实体是否拥有某一组组件
+ * </ul>
+ * 与{@link Entity}一样，本类不是线程安全的，只能在所属的{@link org.gamedo.gameloop.interfaces.IGameLoop}线程内访问
+ */
+public class ArchetypeEntity extends Entity {
+    private static final Object[] EMPTY_COMPONENTS = new Object[0];
+    private static final long[] EMPTY_ARCHETYPE = new long[0];
+
+    private Object[] components = EMPTY_COMPONENTS;
+    private long[] archetype = EMPTY_ARCHETYPE;
+
+    public ArchetypeEntity(String id, Map<Class<?>, Object> componentMap) {
+        super(id, componentMap);
+
+        this.componentMap.forEach((clazz, component) -> store(ComponentRegistry.of(clazz), component));
+    }
+
+    public ArchetypeEntity(String id) {
+        this(id, null);
+    }
+
+    @SuppressWarnings("unused")
+    public ArchetypeEntity(Supplier<String> idSupplier) {
+        this(idSupplier.get());
+    }
+
+    @Override
+    public <T> boolean hasComponent(Class<T> interfaceClazz) {
+        return component(ComponentRegistry.of(interfaceClazz)) != null;
+    }
+
+    @Override
+    public <T> Optional<T> getComponent(Class<T> interfaceClazz) {
+        return Optional.ofNullable(component(ComponentRegistry.of(interfaceClazz)));
+    }
+
+    @Override
+    public <T, R extends T> boolean addComponent(Class<T> interfaceClazz, R component) {
+        if (!super.addComponent(interfaceClazz, component)) {
+            return false;
+        }
+
+        store(ComponentRegistry.of(interfaceClazz), component);
+        return true;
+    }
+
+    /**
+     * 返回某种类型的组件，不会分配任何对象
+     *
+     * @param componentType 组件的类型
+     * @param <T>           组件的类型
+     * @return 如果没有该组件，返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T component(ComponentType<T> componentType) {
+        final int id = componentType.getId();
+        return id < components.length ? (T) components[id] : null;
+    }
+
+    /**
+     * 检测本实体是否拥有某一组组件
+     *
+     * @param componentMask 组件组合
+     * @return 如果拥有其中所有的组件，返回true
+     */
+    public boolean matches(ComponentMask componentMask) {
+        return componentMask.isSubsetOf(archetype);
+    }
+
+    private void store(ComponentType<?> componentType, Object component) {
+        final int id = componentType.getId();
+        if (id >= components.length) {
+            components = Arrays.copyOf(components, Math.max(id + 1, components.length << 1));
+        }
+        components[id] = component;
+
+        final int wordIndex = id >> 6;
+        if (wordIndex >= archetype.length) {
+            archetype = Arrays.copyOf(archetype, wordIndex + 1);
+        }
+        archetype[wordIndex] |= 1L << id;
+    }
+}
@@ -0,0 +1,122 @@
+package org.gamedo.ecs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 一组组件类型构成的位图，第{@link ComponentType#getId()}位代表是否包含该组件类型。{@link ArchetypeEntity}使用它描述自身所拥有的组件
+ * 组合（也即实体的原型，archetype），外界则使用它描述所需要的组件组合，通过{@link ArchetypeEntity#matches(ComponentMask)}即可用少量
+ * 的位运算完成匹配，本类是不可变的
+ */
+public final class ComponentMask {
+    private final long[] words;
+    private final List<ComponentType<?>> componentTypeList;
+
+    private ComponentMask(long[] words, List<ComponentType<?>> componentTypeList) {
+        this.words = words;
+        this.componentTypeList = componentTypeList;
+    }
+
+    /**
+     * 定义一个组件组合
+     *
+     * @param componentTypes 所包含的组件类型
+     * @return 组件组合
+     */
+    public static ComponentMask of(ComponentType<?>... componentTypes) {
+        final int maxId = Arrays.stream(componentTypes).mapToInt(ComponentType::getId).max().orElse(-1);
+        final long[] words = new long[(maxId >> 6) + 1];
+        for (ComponentType<?> componentType : componentTypes) {
+            words[componentType.getId() >> 6] |= 1L << componentType.getId();
+        }
+
+        final List<ComponentType<?>> componentTypeList = Arrays.stream(componentTypes)
+                .distinct()
+                .collect(Collectors.toList());
+        return new ComponentMask(words, Collections.unmodifiableList(componentTypeList));
+    }
+
+    /**
+     * 定义一个组件组合
+     *
+     * @param clazz   所包含的组件类型
+     * @param clazzes 所包含的其他组件类型
+     * @return 组件组合
+     */
+    public static ComponentMask of(Class<?> clazz, Class<?>... clazzes) {
+        final ComponentType<?>[] componentTypes = new ComponentType<?>[clazzes.length + 1];
+        componentTypes[0] = ComponentRegistry.of(clazz);
+        for (int i = 0; i < clazzes.length; i++) {
+            componentTypes[i + 1] = ComponentRegistry.of(clazzes[i]);
+        }
+
+        return of(componentTypes);
+    }
+
+    /**
+     * @return 本组合所包含的所有组件类型，顺序与定义时相同
+     */
+    public List<ComponentType<?>> getComponentTypeList() {
+        return componentTypeList;
+    }
+
+    /**
+     * 检测本组合是否包含了另一个组合中的所有组件类型
+     *
+     * @param other 另一个组合
+     * @return 如果包含，返回true
+     */
+    public boolean containsAll(ComponentMask other) {
+        return containsAll(words, other.words);
+    }
+
+    boolean isSubsetOf(long[] otherWords) {
+        return containsAll(otherWords, words);
+    }
+
+    private static boolean containsAll(long[] words, long[] otherWords) {
+        for (int i = 0; i < otherWords.length; i++) {
+            final long otherWord = otherWords[i];
+            if (otherWord == 0) {
+                continue;
+            }
+            if (i >= words.length || (words[i] & otherWord) != otherWord) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ComponentMask)) {
+            return false;
+        }
+
+        final long[] otherWords = ((ComponentMask) o).words;
+        return containsAll(words, otherWords) && containsAll(otherWords, words);
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentMask" + componentTypeList.stream()
+                .map(componentType -> componentType.getClazz().getSimpleName())
+                .collect(Collectors.toList());
+    }
+}
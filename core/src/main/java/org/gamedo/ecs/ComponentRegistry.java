@@ -0,0 +1,47 @@
+package org.gamedo.ecs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 全局的组件类型注册表，为每一种组件类型分配一个较小的整数id（参考：{@link ComponentType}），使得组件可以被存放在以id为下标的稠密数组
+ * 中，从而把组件的查询从一次哈希查找变为一次数组访问<p>
+ * 组件类型在第一次使用时自动注册，注册之后永不删除，因此id的总数等于进程内出现过的组件类型的数量，本类是线程安全的
+ */
+public final class ComponentRegistry {
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger(0);
+    private static final Map<Class<?>, ComponentType<?>> COMPONENT_TYPE_MAP = new ConcurrentHashMap<>(64);
+    /**
+     * {@link ClassValue}的查询比{@link ConcurrentHashMap}更快，并且同一个类并发调用computeValue时，最终由
+     * {@link #COMPONENT_TYPE_MAP}保证只会分配一个id
+     */
+    private static final ClassValue<ComponentType<?>> COMPONENT_TYPE_CACHE = new ClassValue<ComponentType<?>>() {
+        @Override
+        protected ComponentType<?> computeValue(Class<?> type) {
+            return COMPONENT_TYPE_MAP.computeIfAbsent(type, key -> new ComponentType<>(key, ID_COUNTER.getAndIncrement()));
+        }
+    };
+
+    private ComponentRegistry() {
+    }
+
+    /**
+     * 返回组件类型对应的句柄，如果是第一次使用，则为其分配一个新的id
+     *
+     * @param clazz 组件的类型
+     * @param <T>   组件的类型
+     * @return 组件类型的句柄
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ComponentType<T> of(Class<T> clazz) {
+        return (ComponentType<T>) COMPONENT_TYPE_CACHE.get(clazz);
+    }
+
+    /**
+     * @return 目前已经注册的组件类型的数量，也即下一个将被分配的id
+     */
+    public static int getComponentTypeCount() {
+        return ID_COUNTER.get();
+    }
+}
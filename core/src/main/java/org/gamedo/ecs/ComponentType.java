@@ -0,0 +1,34 @@
+package org.gamedo.ecs;
+
+/**
+ * 组件类型的句柄，由{@link ComponentRegistry}统一分配，每一种组件类型（也即{@link org.gamedo.ecs.interfaces.IEntity#addComponent(Class, Object)}
+ * 中的interfaceClazz）在整个进程内有且仅有一个句柄以及一个从0开始、连续递增的id，{@link ArchetypeEntity}使用该id作为组件数组的下标。<p>
+ * 句柄是线程安全的不可变对象，建议缓存为静态常量，例如：
+ * <pre>
+ *     private static final ComponentType&lt;IPosition&gt; POSITION = ComponentRegistry.of(IPosition.class);
+ * </pre>
+ *
+ * @param <T> 组件的类型
+ */
+public final class ComponentType<T> {
+    private final Class<T> clazz;
+    private final int id;
+
+    ComponentType(Class<T> clazz, int id) {
+        this.clazz = clazz;
+        this.id = id;
+    }
+
+    public Class<T> getClazz() {
+        return clazz;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentType{" + "clazz=" + clazz.getSimpleName() + ", id=" + id + '}';
+    }
+}
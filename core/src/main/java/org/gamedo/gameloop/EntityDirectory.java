@@ -0,0 +1,68 @@
+package org.gamedo.gameloop;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.gameloop.interfaces.IGameLoopGroup;
+import org.gamedo.logging.Markers;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link IGameLoopGroup}级别的实体目录：{@link IEntity}的id --> 该实体所在的{@link IGameLoop}，本类是线程安全的，查询是一次无锁的读操作，
+ * 不需要向所有{@link IGameLoop}广播{@link org.gamedo.util.function.IGameLoopEntityManagerFunction#hasEntity(String)}<p>
+ * 目录由{@link IGameLoopEntityManager}在注册、反注册实体时（在{@link IGameLoop}线程内）维护，只有已经归属于某个{@link IGameLoopGroup}
+ * （参考：{@link IGameLoop#owner()}）的{@link IGameLoop}上的实体才会被记录。由于目录是在其他线程内被更新的，查询的结果只是一个快照：在
+ * 查询之后，实体可能已经被反注册或者被迁移到了其他{@link IGameLoop}上
+ */
+@Log4j2
+public final class EntityDirectory {
+    private final Map<String, IGameLoop> entityId2GameLoopMap = new ConcurrentHashMap<>(1024);
+
+    /**
+     * 查询实体所在的{@link IGameLoop}
+     *
+     * @param entityId 实体的id
+     * @return 如果该实体没有注册在任何{@link IGameLoop}上，返回Optional.empty()
+     */
+    public Optional<IGameLoop> owner(String entityId) {
+        return Optional.ofNullable(entityId2GameLoopMap.get(entityId));
+    }
+
+    /**
+     * @return 目录中实体的数量
+     */
+    public int size() {
+        return entityId2GameLoopMap.size();
+    }
+
+    /**
+     * 记录实体注册到了某个{@link IGameLoop}上，由{@link IGameLoopEntityManager}调用
+     *
+     * @param entityId 实体的id
+     * @param gameLoop 实体所在的{@link IGameLoop}
+     */
+    public void put(String entityId, IGameLoop gameLoop) {
+        final IGameLoop old = entityId2GameLoopMap.put(entityId, gameLoop);
+        if (old != null && old != gameLoop) {
+            log.warn(Markers.GameLoop, "the entity has registered on another gameLoop, entityId:{}, old:{}, new:{}",
+                    entityId,
+                    old.getId(),
+                    gameLoop.getId());
+        }
+    }
+
+    /**
+     * 记录实体从某个{@link IGameLoop}上反注册，由{@link IGameLoopEntityManager}调用，只有目录中记录的恰好是该{@link IGameLoop}时才会移除
+     *
+     * @param entityId 实体的id
+     * @param gameLoop 实体所在的{@link IGameLoop}
+     * @return 如果成功移除，返回true
+     */
+    public boolean remove(String entityId, IGameLoop gameLoop) {
+        return entityId2GameLoopMap.remove(entityId, gameLoop);
+    }
+}
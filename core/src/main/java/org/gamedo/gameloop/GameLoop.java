@@ -1,7 +1,11 @@
 package org.gamedo.gameloop;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.experimental.Delegate;
 import lombok.extern.log4j.Log4j2;
@@ -10,10 +14,21 @@ import org.gamedo.util.function.EntityFunction;
 import org.gamedo.exception.GameLoopException;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.gameloop.interfaces.IGameLoopGroup;
+import org.gamedo.gameloop.interfaces.IThreadAgnosticRunnable;
+import org.gamedo.logging.Markers;
+import org.gamedo.util.Metric;
+import org.gamedo.util.ZoneIdCache;
 
+import java.time.ZoneId;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 
 @Log4j2
@@ -22,39 +37,88 @@ public class GameLoop extends Entity implements IGameLoop {
     protected final Optional<IGameLoop> gameLoopOptional = Optional.of(this);
     @Delegate(types = ScheduledExecutorService.class)
     protected final ScheduledExecutorService delegate;
+    private final GameLoopScheduledExecutorService executorService;
+    /**
+     * 监控{@link #delegate}的{@link MeterRegistry}，没有监控时为null
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * 与{@link ExecutorServiceMetrics}监控{@link #delegate}时注册的是同一组Timer，用于统计不经过{@link #delegate}提交的任务，
+     * 例如紧急、后台通道中的任务，参考：{@link #instrument(Runnable)}
+     */
+    private final Timer executionTimer;
+    private final Timer idleTimer;
+    private final ReplyInbox replyInbox = new ReplyInbox(this);
     protected volatile Thread currentThread;
     private volatile IGameLoopGroup owner;
 
     public GameLoop(final String id) {
         super(id);
 
-        delegate = new GameLoopScheduledExecutorService(this, id, false);
+        executorService = new GameLoopScheduledExecutorService(this, id, false);
+        delegate = executorService;
+        meterRegistry = null;
+        executionTimer = null;
+        idleTimer = null;
     }
 
     public GameLoop(final String id, boolean daemon) {
         super(id);
 
-        delegate = new GameLoopScheduledExecutorService(this, id, daemon);
+        executorService = new GameLoopScheduledExecutorService(this, id, daemon);
+        delegate = executorService;
+        meterRegistry = null;
+        executionTimer = null;
+        idleTimer = null;
     }
 
     public GameLoop(final GameLoopConfig gameLoopConfig) {
-        this(gameLoopConfig.getGameLoopIdPrefix() + gameLoopConfig.getGameLoopIdCounter().getAndIncrement(),
-                gameLoopConfig.isDaemon());
+        super(gameLoopConfig.getGameLoopIdPrefix() + gameLoopConfig.getGameLoopIdCounter().getAndIncrement());
 
+        executorService = new GameLoopScheduledExecutorService(this, id, gameLoopConfig);
+        delegate = executorService;
+        meterRegistry = null;
+        executionTimer = null;
+        idleTimer = null;
         componentMap.putAll(gameLoopConfig.componentMap(this));
+        componentMap.put(ZoneId.class, ZoneIdCache.of(gameLoopConfig.getZoneId()));
     }
 
     public GameLoop(final GameLoopConfig gameLoopConfig, MeterRegistry meterRegistry) {
         super(gameLoopConfig.getGameLoopIdPrefix() + gameLoopConfig.getGameLoopIdCounter().getAndIncrement());
 
-        final boolean daemon = gameLoopConfig.isDaemon();
-        final GameLoopScheduledExecutorService executorService = new GameLoopScheduledExecutorService(this, id, daemon);
+        executorService = new GameLoopScheduledExecutorService(this, id, gameLoopConfig);
         final Tags tags = Tags.of("name", id, "owner", gameLoopConfig.getGameLoopGroupId());
 
         delegate = ExecutorServiceMetrics.monitor(meterRegistry, executorService, id, tags);
+        this.meterRegistry = meterRegistry;
+        //与ExecutorServiceMetrics（TimedExecutorService）使用相同的名字以及标签，因此得到的是同一个Timer
+        executionTimer = meterRegistry.timer("executor", tags);
+        idleTimer = meterRegistry.timer("executor.idle", tags);
+        Gauge.builder(Metric.MeterIdDelayedTaskGauge, executorService, GameLoopScheduledExecutorService::getDelayedTaskCount)
+                .tags(tags)
+                .baseUnit(BaseUnits.TASKS)
+                .description("the pending delayed task count of the timer wheel")
+                .register(meterRegistry);
+        Gauge.builder(Metric.MeterIdPendingTaskGauge, executorService, GameLoopScheduledExecutorService::getPendingTaskCount)
+                .tags(tags)
+                .baseUnit(BaseUnits.TASKS)
+                .description("the pending immediate task count, capacity:" + executorService.getCapacity())
+                .register(meterRegistry);
+        FunctionCounter.builder(Metric.MeterIdRejectedTaskCounter, executorService, GameLoopScheduledExecutorService::getRejectedTaskCount)
+                .tags(tags)
+                .baseUnit(BaseUnits.TASKS)
+                .description("the task count rejected because the task queue is full")
+                .register(meterRegistry);
+        FunctionCounter.builder(Metric.MeterIdDroppedTaskCounter, executorService, GameLoopScheduledExecutorService::getDroppedTaskCount)
+                .tags(tags)
+                .baseUnit(BaseUnits.TASKS)
+                .description("the task count dropped by the drop-oldest overflow policy")
+                .register(meterRegistry);
 
         componentMap.putAll(gameLoopConfig.componentMap(this));
         componentMap.put(MeterRegistry.class, meterRegistry);
+        componentMap.put(ZoneId.class, ZoneIdCache.of(gameLoopConfig.getZoneId()));
     }
 
     @Override
@@ -91,6 +155,23 @@ public class GameLoop extends Entity implements IGameLoop {
         return Optional.ofNullable(owner);
     }
 
+    @Override
+    public long getBusyNanoTime() {
+        return executorService.getBusyNanoTime();
+    }
+
+    /**
+     * @return 本{@link GameLoop}所使用的线程池，可以用于查询任务队列的容量、被拒绝的任务数量等统计信息
+     */
+    public GameLoopScheduledExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    @Override
+    public int getPendingTaskCount() {
+        return executorService.getPendingTaskCount();
+    }
+
     @Override
     public <R> CompletableFuture<R> submit(EntityFunction<IGameLoop, R> function) {
 
@@ -101,7 +182,183 @@ public class GameLoop extends Entity implements IGameLoop {
                 return CompletableFuture.failedFuture(t);
             }
         } else {
-            return CompletableFuture.supplyAsync(() -> function.apply(this), this);
+            final CompletableFuture<R> future = new CompletableFuture<>();
+            execute(() -> {
+                try {
+                    future.complete(function.apply(this));
+                } catch (Throwable t) {
+                    //与CompletableFuture.supplyAsync保持一致
+                    future.completeExceptionally(t instanceof CompletionException ? t : new CompletionException(t));
+                }
+            }, () -> future.completeExceptionally(abandonedException()));
+            return future;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        //线程池需要识别出IThreadAgnosticRunnable（参考：GameLoopOverflowPolicy.CALLER_RUNS），因此不经过监控的包装
+        if (command instanceof IThreadAgnosticRunnable) {
+            executorService.execute(command);
+        } else {
+            delegate.execute(command);
+        }
+    }
+
+    @Override
+    public void execute(EntityFunction<IGameLoop, ?> function) {
+
+        if (inThread()) {
+            apply(function);
+        } else {
+            delegate.execute(() -> apply(function));
+        }
+    }
+
+    @Override
+    public void execute(Runnable command, GameLoopTaskLane lane) {
+        if (lane == null || lane == GameLoopTaskLane.NORMAL) {
+            execute(command);
+        } else {
+            executorService.execute(instrument(command), lane);
+        }
+    }
+
+    @Override
+    public void execute(EntityFunction<IGameLoop, ?> function, GameLoopTaskLane lane) {
+
+        if (inThread()) {
+            apply(function);
+        } else {
+            execute(() -> apply(function), lane);
+        }
+    }
+
+    @Override
+    public <R> CompletableFuture<R> submit(EntityFunction<IGameLoop, R> function, GameLoopTaskLane lane) {
+
+        if (lane == null || lane == GameLoopTaskLane.NORMAL) {
+            return submit(function);
+        }
+
+        if (inThread()) {
+            try {
+                return CompletableFuture.completedFuture(function.apply(this));
+            } catch (Throwable t) {
+                return CompletableFuture.failedFuture(t);
+            }
+        } else {
+            final CompletableFuture<R> future = new CompletableFuture<>();
+            execute(() -> {
+                try {
+                    future.complete(function.apply(this));
+                } catch (Throwable t) {
+                    //与submit(EntityFunction)保持一致
+                    future.completeExceptionally(t instanceof CompletionException ? t : new CompletionException(t));
+                }
+            }, lane, () -> future.completeExceptionally(abandonedException()));
+            return future;
+        }
+    }
+
+    @Override
+    public <R> GameLoopPromise<R> promise(EntityFunction<IGameLoop, R> function) {
+
+        final GameLoopPromise<R> promise = new GameLoopPromise<>(this, function);
+        if (inThread()) {
+            promise.run();
+        } else {
+            try {
+                if (meterRegistry == null) {
+                    //promise本身就是任务，被丢弃时由线程池直接结束，不需要额外的包装以及回调
+                    executorService.execute(promise);
+                } else {
+                    execute(promise, () -> promise.complete(null, abandonedException()));
+                }
+            } catch (RejectedExecutionException e) {
+                promise.complete(null, e);
+            }
+        }
+
+        return promise;
+    }
+
+    /**
+     * 投递一个由其他{@link IGameLoop}产生的回复，同一时间到达的回复会被合并为一次投递，参考：{@link ReplyInbox}
+     *
+     * @param reply 要在本线程内执行的回复
+     */
+    void reply(Runnable reply) {
+        replyInbox.offer(reply);
+    }
+
+    /**
+     * 提交一个框架内部的任务，不受任务队列容量的限制，参考：{@link GameLoopScheduledExecutorService#executeInternal(Runnable)}
+     *
+     * @param task 要在本线程内执行的任务
+     */
+    void executeInternal(Runnable task) {
+        executorService.executeInternal(task);
+    }
+
+    /**
+     * 在其他线程内提交一个任务，并在任务开始执行之前被丢弃（参考：{@link GameLoopOverflowPolicy#DROP_OLDEST}）或者由于关闭而被取消时
+     * 执行onAbandoned，用于结束调用方持有的结果，参考：{@link GameLoopScheduledExecutorService#onAbandoned(Future, Runnable)}
+     *
+     * @param task        要在本线程内执行的任务
+     * @param onAbandoned 任务被丢弃时的回调
+     * @throws RejectedExecutionException 如果任务被拒绝
+     */
+    void execute(Runnable task, Runnable onAbandoned) {
+        GameLoopScheduledExecutorService.onAbandoned(delegate.submit(task), onAbandoned);
+    }
+
+    /**
+     * {@link #execute(Runnable, Runnable)}的指定通道版本
+     *
+     * @param task        要在本线程内执行的任务
+     * @param lane        任务通道，不能是{@link GameLoopTaskLane#NORMAL}
+     * @param onAbandoned 任务被丢弃时的回调
+     * @throws RejectedExecutionException 如果任务被拒绝
+     */
+    void execute(Runnable task, GameLoopTaskLane lane, Runnable onAbandoned) {
+        GameLoopScheduledExecutorService.onAbandoned(executorService.submit(Executors.callable(instrument(task)), lane), onAbandoned);
+    }
+
+    /**
+     * 对不经过{@link #delegate}提交的任务做与{@link ExecutorServiceMetrics}相同的包装：统计任务在队列中的等待时间以及执行时间。
+     * {@link IThreadAgnosticRunnable}不做包装，线程池需要识别出它（参考：{@link GameLoopOverflowPolicy#CALLER_RUNS}）
+     *
+     * @param task 要执行的任务
+     * @return 没有监控时返回task本身
+     */
+    private Runnable instrument(Runnable task) {
+        Objects.requireNonNull(task);
+        if (meterRegistry == null || task instanceof IThreadAgnosticRunnable) {
+            return task;
+        }
+
+        final Timer.Sample idleSample = Timer.start(meterRegistry);
+        return () -> {
+            idleSample.stop(idleTimer);
+            final Timer.Sample executionSample = Timer.start(meterRegistry);
+            try {
+                task.run();
+            } finally {
+                executionSample.stop(executionTimer);
+            }
+        };
+    }
+
+    CancellationException abandonedException() {
+        return new CancellationException("the task is abandoned before execution, gameLoop:" + id);
+    }
+
+    private void apply(EntityFunction<IGameLoop, ?> function) {
+        try {
+            function.apply(this);
+        } catch (Throwable t) {
+            log.error(Markers.GameLoop, "exception caught, gameLoop:" + id, t);
         }
     }
 
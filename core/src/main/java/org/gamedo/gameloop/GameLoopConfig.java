@@ -9,6 +9,10 @@ import org.gamedo.gameloop.components.eventbus.GameLoopEventBus;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
 import org.gamedo.gameloop.components.scheduling.GameLoopScheduler;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.passivation.GameLoopPassivationManager;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.components.systemmanager.GameLoopSystemManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
 import org.gamedo.gameloop.components.tickManager.GameLoopTickManager;
 import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManager;
 import org.gamedo.gameloop.interfaces.IGameLoop;
@@ -49,6 +53,14 @@ public class GameLoopConfig {
                     .allInterface(IGameLoopTickManager.class)
                     .implementation(GameLoopTickManager.class)
                     .build())
+            .componentRegister(GameLoopComponentRegister.builder()
+                    .allInterface(IGameLoopSystemManager.class)
+                    .implementation(GameLoopSystemManager.class)
+                    .build())
+            .componentRegister(GameLoopComponentRegister.builder()
+                    .allInterface(IGameLoopPassivationManager.class)
+                    .implementation(GameLoopPassivationManager.class)
+                    .build())
             .build();
 
 
@@ -67,6 +79,13 @@ public class GameLoopConfig {
      */
     private boolean daemon;
 
+    /**
+     * 是否使用虚拟线程（需要jdk21及以上的版本，否则退化为平台线程），每个gameLoop依然只有一个线程，单线程的语义不变，但任务内的阻塞io
+     * 不会占用平台线程，适用于执行阻塞io的gameLoopGroup，此时可以配置大量的gameLoop，参考：
+     * {@link org.gamedo.concurrent.NamedThreadFactory#isVirtualThreadSupported()}
+     */
+    private boolean virtualThread;
+
     /**
      * gameLoop的数量
      */
@@ -77,6 +96,63 @@ public class GameLoopConfig {
      */
     private String gameLoopGroupId = "defaults";
 
+    /**
+     * gameLoop的默认时区，用于没有指定时区的cron调度，例如：Asia/Shanghai，为空时使用jvm的默认时区，当同一个jvm内运行多个区域的
+     * gameLoopGroup时，可以为每个gameLoopGroup指定其所在区域的时区
+     */
+    private String zoneId;
+
+    /**
+     * gameLoopGroup的{@link org.gamedo.gameloop.interfaces.IGameLoopGroup#selectNext()}所使用的选择策略，为空时使用轮询
+     */
+    private GameLoopSelectStrategy selectStrategy = GameLoopSelectStrategy.ROUND_ROBIN;
+
+    /**
+     * gameLoopGroup是否开启工作窃取模式，参考：{@link GameLoopGroup#setWorkStealing(boolean)}
+     */
+    private boolean workStealing;
+
+    /**
+     * gameLoop的立即任务队列的容量，小于等于0表示无界，参考：{@link GameLoopOverflowPolicy}
+     */
+    private int taskQueueCapacity;
+
+    /**
+     * 任务队列已满时的处理策略，为空时拒绝
+     */
+    private GameLoopOverflowPolicy overflowPolicy = GameLoopOverflowPolicy.REJECT;
+
+    /**
+     * 处理策略为{@link GameLoopOverflowPolicy#BLOCK}时，提交线程最多阻塞的时间（毫秒）
+     */
+    private long overflowBlockMillis = 100;
+
+    /**
+     * gameLoop线程绑定的cpu列表，例如：2-5,8，只支持linux的平台线程，参考：{@link org.gamedo.concurrent.ThreadAffinity}<p>
+     * <b>需要jdk22及以上的版本</b>，当前操作系统或者jdk不支持绑核时（例如：jdk17），创建gameLoop时抛出{@link IllegalStateException}
+     */
+    private String cpuAffinity;
+
+    /**
+     * gameLoop线程绑定的numa节点，为空时不绑定，配置了cpuAffinity时忽略该值，与cpuAffinity一样<b>需要jdk22及以上的版本</b>
+     */
+    private Integer numaNode;
+
+    /**
+     * gameLoop线程的优先级（1~10），不在该范围内时使用默认的优先级
+     */
+    private int threadPriority;
+
+    /**
+     * gameLoop线程没有可执行任务时的等待策略，为空时立即阻塞
+     */
+    private GameLoopWaitStrategy waitStrategy = GameLoopWaitStrategy.PARK;
+
+    /**
+     * 等待策略为{@link GameLoopWaitStrategy#SPIN}时，阻塞之前自旋等待的时间（微秒）
+     */
+    private long waitSpinMicros = 50;
+
     /**
      * gameLoop的组件列表
      */
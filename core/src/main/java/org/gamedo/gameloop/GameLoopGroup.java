@@ -1,28 +1,70 @@
 package org.gamedo.gameloop;
 
 import lombok.extern.log4j.Log4j2;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
 import org.gamedo.util.function.EntityFunction;
 import org.gamedo.util.function.EntityPredicate;
 import org.gamedo.exception.GameLoopException;
-import org.gamedo.util.function.GameLoopFunction;
+import org.gamedo.util.function.IGameLoopEntityManagerFunction;
+import org.gamedo.util.function.IGameLoopSchedulerFunction;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.gameloop.interfaces.IGameLoopGroup;
 import org.gamedo.logging.Markers;
+import org.gamedo.util.GamedoConfiguration;
 import org.gamedo.util.Pair;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Log4j2
 public class GameLoopGroup implements IGameLoopGroup {
+    /**
+     * 亲和性映射表的槽位数量，必须是2的幂
+     */
+    private static final int AFFINITY_SLOT_COUNT = 4096;
+    /**
+     * 工作窃取模式下，每个任务投递的令牌数量
+     */
+    private static final int STEAL_FAN_OUT = 2;
+
     private final String id;
     private final AtomicInteger idx = new AtomicInteger(0);
     private final List<IGameLoop> gameLoopList = new CopyOnWriteArrayList<>();
+    private final Map<String, IGameLoop> id2GameLoopMap = new ConcurrentHashMap<>(16);
+    /**
+     * 槽位 --> 该槽位所映射的{@link IGameLoop}，每个槽位使用最高随机权重（rendezvous）哈希选择{@link IGameLoop}，因此增加
+     * {@link IGameLoop}时只有被新{@link IGameLoop}赢得的槽位会改变映射；只在注册时整体替换，查询时无需加锁
+     */
+    private volatile IGameLoop[] affinityTable;
+    /**
+     * {@link #gameLoopList}的只读快照，分发-汇总查询直接使用，避免每次查询都复制一次列表；只在注册时整体替换
+     */
+    private volatile IGameLoop[] gameLoopArray;
+    private final EntityDirectory entityDirectory = new EntityDirectory();
+    /**
+     * 正在迁移的实体的id --> 迁移结束时完成的CompletableFuture，迁移期间实体不在实体目录中，{@link #submitOwner(String, EntityFunction)}
+     * 需要等待迁移结束
+     */
+    private final Map<String, CompletableFuture<Boolean>> migratingMap = new ConcurrentHashMap<>(16);
+    private final GameLoopSelectStrategy selectStrategy;
+    /**
+     * 工作窃取模式下，通过{@link ExecutorService}接口提交的、未绑定实体的任务
+     */
+    private final Queue<Runnable> stealableQueue = new ConcurrentLinkedQueue<>();
+    private final Runnable stealToken = this::runStealable;
+    private volatile boolean workStealing;
 
     public GameLoopGroup(String id, IGameLoop... gameLoops) {
+        this(id, GameLoopSelectStrategy.ROUND_ROBIN, gameLoops);
+    }
+
+    public GameLoopGroup(String id, GameLoopSelectStrategy selectStrategy, IGameLoop... gameLoops) {
 
         if (gameLoops.length == 0) {
             log.error(Markers.GameLoop, "none gameLoop setted for:{}", id);
@@ -42,7 +84,14 @@ public class GameLoopGroup implements IGameLoopGroup {
         }
 
         this.id = id;
+        this.selectStrategy = selectStrategy == null ? GameLoopSelectStrategy.ROUND_ROBIN : selectStrategy;
         gameLoopList.addAll(Arrays.stream(gameLoops).collect(Collectors.toList()));
+        gameLoopList.forEach(gameLoop -> {
+            id2GameLoopMap.put(gameLoop.getId(), gameLoop);
+            setOwner(gameLoop);
+        });
+        affinityTable = buildAffinityTable(gameLoopList);
+        gameLoopArray = gameLoopList.toArray(IGameLoop[]::new);
     }
 
     public GameLoopGroup(String id, int gameLoopCount) {
@@ -59,10 +108,17 @@ public class GameLoopGroup implements IGameLoopGroup {
     @Override
     public List<Runnable> shutdownNow() {
 
-        return gameLoopList.stream()
+        final List<Runnable> runnableList = gameLoopList.stream()
                 .map(gameLoop -> gameLoop.shutdownNow())
                 .flatMap(runnables -> runnables.stream())
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        //工作窃取模式下尚未被取走的任务
+        for (Runnable runnable = stealableQueue.poll(); runnable != null; runnable = stealableQueue.poll()) {
+            runnableList.add(runnable);
+        }
+
+        return runnableList;
     }
 
     @Override
@@ -97,42 +153,123 @@ public class GameLoopGroup implements IGameLoopGroup {
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return selectNext().submit(task);
+        if (!workStealing) {
+            return selectNext().submit(task);
+        }
+
+        final FutureTask<T> future = new FutureTask<>(task);
+        executeStealable(future);
+        return future;
     }
 
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return selectNext().submit(task, result);
+        if (!workStealing) {
+            return selectNext().submit(task, result);
+        }
+
+        final FutureTask<T> future = new FutureTask<>(task, result);
+        executeStealable(future);
+        return future;
     }
 
     @Override
     public Future<?> submit(Runnable task) {
-        return selectNext().submit(task);
+        if (!workStealing) {
+            return selectNext().submit(task);
+        }
+
+        final FutureTask<Void> future = new FutureTask<>(task, null);
+        executeStealable(future);
+        return future;
     }
 
+    /**
+     * 把任务按照{@link GamedoConfiguration#getInvokeChunkSize()}切分为多个分块，分别分发到各个{@link IGameLoop}上并行执行，每个分块
+     * 在所分配的{@link IGameLoop}线程内顺序执行；如果调用方本身就是本组的某个{@link IGameLoop}，调用方会在等待期间协助执行尚未开始的
+     * 任务，避免等待分配给自己的分块而死锁
+     */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return selectNext().invokeAll(tasks);
+        final List<FutureTask<T>> futureList = dispatch(tasks, FutureTask::new);
+        try {
+            help(futureList, Long.MAX_VALUE, null);
+            for (FutureTask<T> future : futureList) {
+                if (!future.isDone()) {
+                    try {
+                        future.get();
+                    } catch (CancellationException | ExecutionException ignored) {
+                    }
+                }
+            }
+            return new ArrayList<>(futureList);
+        } catch (InterruptedException e) {
+            cancel(futureList);
+            throw e;
+        }
     }
 
+    /**
+     * 和{@link #invokeAll(Collection)}相同，超时后尚未开始的任务会被取消；正在执行的任务不会被中断，因为中断{@link IGameLoop}线程
+     * 会影响该线程上的其他任务
+     */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return selectNext().invokeAll(tasks, timeout, unit);
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final List<FutureTask<T>> futureList = dispatch(tasks, FutureTask::new);
+        try {
+            help(futureList, deadline, null);
+            for (FutureTask<T> future : futureList) {
+                if (future.isDone()) {
+                    continue;
+                }
+
+                final long nanos = deadline - System.nanoTime();
+                if (nanos <= 0) {
+                    cancel(futureList);
+                    break;
+                }
+
+                try {
+                    future.get(nanos, TimeUnit.NANOSECONDS);
+                } catch (CancellationException | ExecutionException ignored) {
+                } catch (TimeoutException e) {
+                    cancel(futureList);
+                    break;
+                }
+            }
+            return new ArrayList<>(futureList);
+        } catch (InterruptedException e) {
+            cancel(futureList);
+            throw e;
+        }
     }
 
+    /**
+     * 和{@link #invokeAll(Collection)}一样把任务分发到各个{@link IGameLoop}上，返回第一个成功完成的任务的结果，并取消其他尚未开始的任务
+     */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return selectNext().invokeAny(tasks);
+        try {
+            return invokeAny(tasks, false, 0);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return selectNext().invokeAny(tasks, timeout, unit);
+        return invokeAny(tasks, true, unit.toNanos(timeout));
     }
 
     @Override
     public void execute(Runnable command) {
-        selectNext().execute(command);
+        if (!workStealing) {
+            selectNext().execute(command);
+            return;
+        }
+
+        executeStealable(command);
     }
 
     @Override
@@ -156,14 +293,51 @@ public class GameLoopGroup implements IGameLoopGroup {
         //计算位置：当前位置的前一个位置，也就是说轮询一圈后才能被select到
         final int indexAdd = Math.abs((idx.get() + size) % (size + 1));
         gameLoopList.add(indexAdd, gameLoop);
+        id2GameLoopMap.put(gameLoop.getId(), gameLoop);
+        setOwner(gameLoop);
+        affinityTable = buildAffinityTable(gameLoopList);
+        gameLoopArray = gameLoopList.toArray(IGameLoop[]::new);
         return true;
     }
 
     @Override
     public Optional<IGameLoop> select(String id) {
-        return gameLoopList.stream()
-                .filter(gameLoop -> gameLoop.getId().equals(id))
-                .findFirst();
+        return Optional.ofNullable(id2GameLoopMap.get(id));
+    }
+
+    @Override
+    public EntityDirectory getEntityDirectory() {
+        return entityDirectory;
+    }
+
+    @Override
+    public Optional<IGameLoop> owner(String entityId) {
+        return entityDirectory.owner(entityId);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> submitOwner(String entityId, EntityFunction<IGameLoop, R> function) {
+        //迁移期间实体已经从源IGameLoop上反注册，但还没有注册到目标IGameLoop上，等迁移结束（无论成功与否）之后再提交到其所在的IGameLoop
+        final CompletableFuture<Boolean> migrating = migratingMap.get(entityId);
+        if (migrating != null) {
+            return migrating.thenCompose(migrated -> submitOwner(entityId, function));
+        }
+
+        return entityDirectory.owner(entityId)
+                .map(gameLoop -> gameLoop.submit((EntityFunction<IGameLoop, R>) iGameLoop -> {
+                    //被钝化的实体仍然保留在实体目录中，在操作执行之前先将其激活
+                    iGameLoop.getComponent(IGameLoopPassivationManager.class)
+                            .filter(passivationManager -> passivationManager.isPassivated(entityId))
+                            .ifPresent(passivationManager -> passivationManager.activate(entityId));
+                    return function.apply(iGameLoop);
+                }))
+                .orElseGet(() -> CompletableFuture.failedFuture(new GameLoopException("the entity is not found in " +
+                        "gameLoopGroup:" + id + ", entityId:" + entityId)));
+    }
+
+    @Override
+    public IGameLoop selectAffinity(String key) {
+        return affinityTable[mix(key.hashCode()) & (AFFINITY_SLOT_COUNT - 1)];
     }
 
     @Override
@@ -173,28 +347,52 @@ public class GameLoopGroup implements IGameLoopGroup {
 
     @Override
     public IGameLoop selectNext() {
-        return gameLoopList.get(Math.abs(idx.getAndIncrement() % gameLoopList.size()));
+        final IGameLoop[] gameLoops = gameLoopArray;
+        switch (selectStrategy) {
+            case POWER_OF_TWO_CHOICES:
+                return selectPowerOfTwoChoices(gameLoops);
+            case LEAST_PENDING:
+                return selectLeastPending(gameLoops);
+            default:
+                return gameLoops[Math.abs(idx.getAndIncrement() % gameLoops.length)];
+        }
+    }
+
+    public GameLoopSelectStrategy getSelectStrategy() {
+        return selectStrategy;
+    }
+
+    public boolean isWorkStealing() {
+        return workStealing;
+    }
+
+    /**
+     * 开启或关闭工作窃取模式（默认关闭）。开启后，通过{@link ExecutorService}接口（{@link #submit(Callable)}、
+     * {@link #submit(Runnable)}、{@link #execute(Runnable)}等）提交的任务不再固定在{@link #selectNext()}选中的{@link IGameLoop}上，
+     * 而是进入本组共享的队列，同时向两个随机的{@link IGameLoop}投递令牌，由最先执行到令牌的{@link IGameLoop}取走，因此
+     * 被长任务阻塞的{@link IGameLoop}不会拖慢这些任务。由于任务可能在任意{@link IGameLoop}上执行，只适用于不访问任何实体、组件状态的
+     * 无状态任务；绑定实体的操作（{@link #submit(EntityFunction)}、{@link #submit(String, EntityFunction)}、
+     * {@link #submitOwner(String, EntityFunction)}以及{@link IGameLoop}自身的接口）不受影响，仍然严格地在所属线程内执行
+     *
+     * @param workStealing 是否开启
+     */
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <C extends Comparable<? super C>> CompletableFuture<List<IGameLoop>> select(EntityFunction<IGameLoop, C> chooser,
                                                                                        Comparator<C> comparator,
                                                                                        int limit) {
+        return select(chooser, comparator, limit, null);
+    }
 
-        List<IGameLoop> gameLoopNewList = new ArrayList<>(gameLoopList);
-        final CompletableFuture<C>[] futureList = gameLoopNewList.stream()
-                .map(gameLoop -> gameLoop.submit(chooser))
-                .toArray(CompletableFuture[]::new);
-
-        return CompletableFuture.allOf(futureList)
-                .thenApply(v -> IntStream.range(0, gameLoopNewList.size())
-                        .mapToObj(i -> Pair.of(futureList[i].join(), gameLoopNewList.get(i)))
-                        .sorted(Comparator.comparing(Pair::getK, comparator))
-                        .limit(limit)
-                        .map(Pair::getV)
-                        .collect(Collectors.toList())
-                );
+    @Override
+    public <C extends Comparable<? super C>> CompletableFuture<List<IGameLoop>> select(EntityFunction<IGameLoop, C> chooser,
+                                                                                       Comparator<C> comparator,
+                                                                                       int limit,
+                                                                                       Executor executor) {
+        return ScatterGather.select(gameLoopArray, chooser, comparator, limit, executor);
     }
 
     @Override
@@ -202,31 +400,309 @@ public class GameLoopGroup implements IGameLoopGroup {
         return selectNext().submit(function);
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
+    public <R> CompletableFuture<R> submit(String key, EntityFunction<IGameLoop, R> function) {
+        return selectAffinity(key).submit(function);
+    }
+
     @Override
     public <R> CompletableFuture<List<R>> submit(EntityFunction<IGameLoop, Boolean> filter,
                                                  EntityFunction<IGameLoop, R> function) {
+        return submit(filter, function, null);
+    }
 
-        final List<IGameLoop> gameLoopNewList = new ArrayList<>(gameLoopList);
-        final GameLoopFunction<Pair<Boolean, R>> functionInner = gameLoop -> {
-            final Boolean k = filter.apply(gameLoop);
-            final R v = k ? function.apply(gameLoop) : null;
-            return Pair.of(k, v);
-        };
-
-        final CompletableFuture<Pair<Boolean, R>>[] futureList = gameLoopNewList.stream()
-                .map(gameLoop -> gameLoop.submit(functionInner))
-                .toArray(CompletableFuture[]::new);
-
-        return CompletableFuture.allOf(futureList)
-                .thenApply(v -> IntStream.range(0, gameLoopNewList.size())
-                        .filter(i -> futureList[i].join().getK())
-                        .mapToObj(i -> futureList[i].join().getV())
-                        .collect(Collectors.toList()));
+    @Override
+    public <R> CompletableFuture<List<R>> submit(EntityFunction<IGameLoop, Boolean> filter,
+                                                 EntityFunction<IGameLoop, R> function,
+                                                 Executor executor) {
+        return ScatterGather.submit(gameLoopArray, filter, function, executor);
     }
 
     @Override
     public <R> CompletableFuture<List<R>> submitAll(EntityFunction<IGameLoop, R> function) {
         return submit(EntityPredicate.True(), function);
     }
+
+    @Override
+    public CompletableFuture<Boolean> migrate(String entityId, IGameLoop targetLoop) {
+
+        if (!gameLoopList.contains(targetLoop)) {
+            log.error(Markers.GameLoop, "the target gameLoop is not belong to gameLoopGroup:{}, entityId:{}, " +
+                    "target:{}", id, entityId, targetLoop.getId());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        final CompletableFuture<Boolean> migrating = new CompletableFuture<>();
+        if (migratingMap.putIfAbsent(entityId, migrating) != null) {
+            log.error(Markers.GameLoop, "the entity is migrating, gameLoopGroup:{}, entityId:{}, target:{}",
+                    id, entityId, targetLoop.getId());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        //优先查询实体目录，只有实体所在的IGameLoop尚未归属于本IGameLoopGroup时才需要广播查询
+        final Optional<IGameLoop> owner = entityDirectory.owner(entityId);
+        final CompletableFuture<List<IGameLoop>> sourceFuture = owner.isPresent() ?
+                CompletableFuture.completedFuture(List.of(owner.get())) :
+                submit(IGameLoopEntityManagerFunction.hasEntity(entityId), gameLoop -> gameLoop);
+
+        return sourceFuture
+                .thenCompose(list -> {
+                    if (list.isEmpty()) {
+                        log.error(Markers.GameLoop, "the entity is not found in gameLoopGroup:{}, entityId:{}",
+                                id, entityId);
+                        return CompletableFuture.completedFuture(false);
+                    }
+
+                    final IGameLoop sourceLoop = list.get(0);
+                    return sourceLoop == targetLoop ? CompletableFuture.completedFuture(true) :
+                            migrate(entityId, sourceLoop, targetLoop);
+                })
+                .whenComplete((result, throwable) -> {
+                    //先移除再完成，等待中的submitOwner重新提交时实体目录已经指向实体最终所在的IGameLoop
+                    migratingMap.remove(entityId, migrating);
+                    migrating.complete(throwable == null && result);
+                });
+    }
+
+    private CompletableFuture<Boolean> migrate(String entityId, IGameLoop sourceLoop, IGameLoop targetLoop) {
+
+        return sourceLoop.submit(IGameLoopEntityManagerFunction.migrateOut(entityId))
+                .thenCompose(optionalEntity -> {
+                    if (optionalEntity.isEmpty()) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+
+                    final IEntity entity = optionalEntity.get();
+                    return targetLoop.submit(IGameLoopEntityManagerFunction.registerEntity(entity))
+                            .exceptionally(throwable -> {
+                                log.error(Markers.GameLoop, "migrate in failed, entityId:" + entityId +
+                                        ", target:" + targetLoop.getId(), throwable);
+                                return false;
+                            })
+                            .thenCompose(registered -> registered ?
+                                    sourceLoop.submit(gameLoop -> Pair.of(IGameLoopEntityManagerFunction.finishMigrateOut(entityId).apply(gameLoop),
+                                                    IGameLoopEntityManagerFunction.releaseTimers(entityId).apply(gameLoop)))
+                                            .thenCompose(pair -> targetLoop.submit(gameLoop -> {
+                                                IGameLoopEntityManagerFunction.deliverEvents(entityId, pair.getK()).apply(gameLoop);
+                                                //定时器的到期时间不变，因此剩余的延迟不会因为迁移而改变
+                                                IGameLoopSchedulerFunction.attachTimers(pair.getV()).apply(gameLoop);
+                                                return true;
+                                            })) :
+                                    //回滚：在同一个任务内停止暂存、重新注册并转交事件、挂回定时器，避免在这期间有事件丢失
+                                    sourceLoop.submit(gameLoop -> {
+                                        final List<IEvent> eventList = IGameLoopEntityManagerFunction.finishMigrateOut(entityId).apply(gameLoop);
+                                        IGameLoopEntityManagerFunction.registerEntity(entity).apply(gameLoop);
+                                        IGameLoopEntityManagerFunction.deliverEvents(entityId, eventList).apply(gameLoop);
+                                        IGameLoopSchedulerFunction.attachTimers(IGameLoopEntityManagerFunction.releaseTimers(entityId).apply(gameLoop))
+                                                .apply(gameLoop);
+                                        return false;
+                                    }));
+                })
+                .whenComplete((result, throwable) -> log.debug(Markers.GameLoop, "migrate finish, entityId:{}, " +
+                                "source:{}, target:{}, result:{}",
+                        () -> entityId,
+                        () -> sourceLoop.getId(),
+                        () -> targetLoop.getId(),
+                        () -> throwable == null ? result : throwable));
+    }
+
+    private <T> T invokeAny(Collection<? extends Callable<T>> tasks, boolean timed, long nanos) throws InterruptedException,
+            ExecutionException, TimeoutException {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("empty tasks");
+        }
+
+        final long deadline = timed ? System.nanoTime() + nanos : Long.MAX_VALUE;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger remaining = new AtomicInteger(tasks.size());
+        final List<FutureTask<T>> futureList = dispatch(tasks, task -> new FutureTask<T>(task) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+
+                try {
+                    result.complete(get());
+                } catch (ExecutionException e) {
+                    //全部失败时，以最后一个异常结束
+                    if (remaining.decrementAndGet() == 0) {
+                        result.completeExceptionally(e.getCause());
+                    }
+                } catch (InterruptedException | CancellationException ignored) {
+                }
+            }
+        });
+
+        try {
+            help(futureList, deadline, result);
+            return timed ? result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : result.get();
+        } finally {
+            cancel(futureList);
+        }
+    }
+
+    private <T> List<FutureTask<T>> dispatch(Collection<? extends Callable<T>> tasks,
+                                             Function<Callable<T>, FutureTask<T>> factory) {
+        final List<FutureTask<T>> futureList = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futureList.add(factory.apply(Objects.requireNonNull(task)));
+        }
+
+        final int size = futureList.size();
+        if (size == 0) {
+            return futureList;
+        }
+
+        final IGameLoop[] gameLoops = gameLoopArray;
+        final int chunkSizeConfig = GamedoConfiguration.getInvokeChunkSize();
+        final int chunkSize = chunkSizeConfig > 0 ? chunkSizeConfig : (size + gameLoops.length - 1) / gameLoops.length;
+        final int start = ThreadLocalRandom.current().nextInt(gameLoops.length);
+        try {
+            for (int from = 0, i = 0; from < size; from += chunkSize, i++) {
+                final List<FutureTask<T>> chunk = futureList.subList(from, Math.min(size, from + chunkSize));
+                final Runnable chunkTask = () -> chunk.forEach(FutureTask::run);
+                if (workStealing) {
+                    executeStealable(chunkTask);
+                } else {
+                    gameLoops[(start + i) % gameLoops.length].execute(chunkTask);
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(futureList);
+            throw e;
+        }
+
+        return futureList;
+    }
+
+    /**
+     * 如果调用方是本组的某个{@link IGameLoop}，则在本线程内执行尚未开始的任务（已经开始或者已经完成的任务会被{@link FutureTask#run()}
+     * 直接忽略），直到所有任务都已开始、超过截止时间或者stop已经完成
+     */
+    private void help(List<? extends FutureTask<?>> futureList, long deadline, Future<?> stop) {
+        final IGameLoop current = GameLoops.current().orElse(null);
+        if (current == null || id2GameLoopMap.get(current.getId()) != current) {
+            return;
+        }
+
+        for (FutureTask<?> future : futureList) {
+            if ((deadline != Long.MAX_VALUE && deadline - System.nanoTime() <= 0) || (stop != null && stop.isDone())) {
+                return;
+            }
+            future.run();
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> futureList) {
+        futureList.forEach(future -> future.cancel(false));
+    }
+
+    private void executeStealable(Runnable task) {
+        Objects.requireNonNull(task);
+        final IGameLoop[] gameLoops = gameLoopArray;
+        //先入队再投递令牌，保证未执行的令牌数量始终不少于队列中的任务数量，任务不会被遗漏
+        stealableQueue.offer(task);
+
+        final int fanOut = Math.min(STEAL_FAN_OUT, gameLoops.length);
+        final int start = ThreadLocalRandom.current().nextInt(gameLoops.length);
+        int accepted = 0;
+        for (int i = 0; i < fanOut; i++) {
+            try {
+                gameLoops[(start + i) % gameLoops.length].execute(stealToken);
+                accepted++;
+            } catch (RejectedExecutionException ignored) {
+            }
+        }
+
+        if (accepted == 0 && stealableQueue.remove(task)) {
+            throw new RejectedExecutionException("the gameLoopGroup has been shut down, gameLoopGroup:" + id);
+        }
+    }
+
+    private void runStealable() {
+        final Runnable task = stealableQueue.poll();
+        if (task == null) {
+            return;
+        }
+
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.error(Markers.GameLoop, "exception caught in stealable task, gameLoopGroup:" + id, t);
+        }
+    }
+
+    private static IGameLoop selectPowerOfTwoChoices(IGameLoop[] gameLoops) {
+        if (gameLoops.length == 1) {
+            return gameLoops[0];
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int i = random.nextInt(gameLoops.length);
+        int j = random.nextInt(gameLoops.length - 1);
+        if (j >= i) {
+            j++;
+        }
+
+        return gameLoops[j].getPendingTaskCount() < gameLoops[i].getPendingTaskCount() ? gameLoops[j] : gameLoops[i];
+    }
+
+    private static IGameLoop selectLeastPending(IGameLoop[] gameLoops) {
+        //从随机位置开始遍历，避免所有调用方在任务数量相同时都选中同一个IGameLoop
+        final int start = gameLoops.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(gameLoops.length);
+        IGameLoop selected = gameLoops[start];
+        int minCount = selected.getPendingTaskCount();
+        for (int i = 1; i < gameLoops.length && minCount > 0; i++) {
+            final IGameLoop gameLoop = gameLoops[(start + i) % gameLoops.length];
+            final int count = gameLoop.getPendingTaskCount();
+            if (count < minCount) {
+                selected = gameLoop;
+                minCount = count;
+            }
+        }
+
+        return selected;
+    }
+
+    private void setOwner(IGameLoop gameLoop) {
+        if (gameLoop instanceof GameLoop && gameLoop.owner().isEmpty()) {
+            ((GameLoop) gameLoop).setOwner(this);
+        }
+    }
+
+    private static IGameLoop[] buildAffinityTable(List<IGameLoop> gameLoopList) {
+        final IGameLoop[] table = new IGameLoop[AFFINITY_SLOT_COUNT];
+        final int[] seeds = gameLoopList.stream()
+                .mapToInt(gameLoop -> mix(gameLoop.getId().hashCode()))
+                .toArray();
+
+        //权重只依赖于槽位和IGameLoop的id，与注册的顺序无关
+        for (int slot = 0; slot < AFFINITY_SLOT_COUNT; slot++) {
+            int winner = 0;
+            int maxWeight = Integer.MIN_VALUE;
+            for (int i = 0; i < seeds.length; i++) {
+                final int weight = mix(seeds[i] ^ (slot * 0x9E3779B9));
+                if (weight > maxWeight || (weight == maxWeight && seeds[i] > seeds[winner])) {
+                    winner = i;
+                    maxWeight = weight;
+                }
+            }
+            table[slot] = gameLoopList.get(winner);
+        }
+
+        return table;
+    }
+
+    /**
+     * murmur3的32位finalizer，使哈希值的每一位都充分混合
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
 }
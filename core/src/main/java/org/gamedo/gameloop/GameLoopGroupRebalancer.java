@@ -0,0 +1,259 @@
+package org.gamedo.gameloop;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.concurrent.NamedThreadFactory;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.gameloop.interfaces.IGameLoopGroup;
+import org.gamedo.logging.Markers;
+import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.function.EntityPredicate;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * {@link IGameLoopGroup}的负载再平衡器：{@link IGameLoopGroup#select(org.gamedo.util.function.EntityFunction, Comparator, int)}
+ * 只能在放置实体时选择负载最低的{@link IGameLoop}，而长期存活的实体会随着时间推移在某些{@link IGameLoop}上堆积，本类周期性地修正这种倾斜：
+ * <ul>
+ * <li> 采样：通过{@link IGameLoop#getBusyNanoTime()}计算每个{@link IGameLoop}在采样周期内的线程利用率，并进行指数平滑，避免对瞬时
+ * 的负载尖峰做出反应；同时采样实体数量，利用率除以实体数量即为单个实体的平均开销
+ * <li> 滞后：最忙与最闲的{@link IGameLoop}的利用率之差超过高水位时才开始再平衡，直到低于低水位时才停止，避免在阈值附近反复抖动
+ * <li> 限流：每一轮最多迁移{@link GamedoConfiguration#getRebalanceMaxMigrationPerRound()}个实体，迁移数量按照利用率差值的一半
+ * 除以单个实体的平均开销估算；被迁移过的实体在冷却时间内不会被再次迁移，避免实体在两个{@link IGameLoop}之间来回迁移
+ * <li> 失效：迁移之后，源与目标{@link IGameLoop}的采样（包括平滑后的利用率）都反映的是迁移之前的负载，因此被丢弃，直到迁移之后重新
+ * 记录基准值并完成一次完整的采样周期，这两个{@link IGameLoop}才会重新参与决策，避免按照过期的利用率重复迁移而矫枉过正
+ * <li> 迁移：使用{@link IGameLoopGroup#migrate(String, IGameLoop)}完成线程安全的交接
+ * </ul>
+ * 本类是可选的，需要手动创建并调用{@link #start()}，不再使用时调用{@link #close()}；{@link IGameLoop}自身以及不满足过滤条件的实体（例如
+ * 与其他实体存在同线程假设的实体）不会被迁移。每一轮再平衡都在上一轮结束之后才会开始，因此内部状态不需要额外的同步
+ */
+@Log4j2
+public class GameLoopGroupRebalancer implements Closeable {
+    /**
+     * 利用率的指数平滑系数，越大表示越侧重最近一次的采样
+     */
+    private static final double SMOOTHING_FACTOR = 0.5;
+
+    private final IGameLoopGroup gameLoopGroup;
+    private final EntityPredicate<IEntity> migratable;
+    private final AtomicBoolean rebalancing = new AtomicBoolean(false);
+    private final Map<String, Sample> gameLoopId2SampleMap = new HashMap<>(16);
+    /**
+     * 处于冷却中的实体id --> 冷却结束的时间，迁移实体的候选过程在{@link IGameLoop}线程内访问
+     */
+    private final Map<String, Long> entityId2CooldownMap = new ConcurrentHashMap<>(16);
+    private ScheduledExecutorService executorService;
+    /**
+     * 是否处于再平衡状态（滞后区间内保持上一次的状态）
+     */
+    private boolean active;
+
+    public GameLoopGroupRebalancer(IGameLoopGroup gameLoopGroup) {
+        this(gameLoopGroup, EntityPredicate.True());
+    }
+
+    /**
+     * @param gameLoopGroup 要再平衡的{@link IGameLoopGroup}
+     * @param migratable    实体是否允许被迁移，在实体所在的{@link IGameLoop}线程内调用
+     */
+    public GameLoopGroupRebalancer(IGameLoopGroup gameLoopGroup, EntityPredicate<IEntity> migratable) {
+        this.gameLoopGroup = gameLoopGroup;
+        this.migratable = migratable;
+    }
+
+    /**
+     * 开始周期性地再平衡，周期为{@link GamedoConfiguration#getRebalancePeriodMillis()}
+     *
+     * @return 如果已经开始，返回false
+     */
+    public synchronized boolean start() {
+        if (executorService != null) {
+            return false;
+        }
+
+        final long period = GamedoConfiguration.getRebalancePeriodMillis();
+        executorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("rebalancer-" +
+                gameLoopGroup.getId(), true));
+        executorService.scheduleAtFixedRate(this::rebalance, period, period, TimeUnit.MILLISECONDS);
+
+        log.info(Markers.GameLoop, "rebalancer started, gameLoopGroup:{}, period:{}", gameLoopGroup.getId(), period);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executorService == null) {
+            return;
+        }
+
+        executorService.shutdownNow();
+        executorService = null;
+        log.info(Markers.GameLoop, "rebalancer closed, gameLoopGroup:{}", gameLoopGroup.getId());
+    }
+
+    /**
+     * 执行一轮采样与再平衡，如果上一轮尚未结束，则本轮直接跳过。第一次采样只记录基准值，不会迁移任何实体
+     *
+     * @return 本轮成功迁移的实体数量
+     */
+    public CompletableFuture<Integer> rebalance() {
+        if (!rebalancing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        try {
+            return gameLoopGroup.submitAll(gameLoop -> new Sample(gameLoop,
+                            gameLoop.getBusyNanoTime(),
+                            System.nanoTime(),
+                            gameLoop.getComponent(IGameLoopEntityManager.class)
+                                    .map(entityManager -> entityManager.getEntityCount())
+                                    .orElse(0)))
+                    .thenCompose(this::rebalance)
+                    .exceptionally(throwable -> {
+                        log.error(Markers.GameLoop, "rebalance failed, gameLoopGroup:" + gameLoopGroup.getId(), throwable);
+                        return 0;
+                    })
+                    .whenComplete((count, throwable) -> rebalancing.set(false));
+        } catch (Throwable t) {
+            rebalancing.set(false);
+            log.error(Markers.GameLoop, "rebalance failed, gameLoopGroup:" + gameLoopGroup.getId(), t);
+            return CompletableFuture.completedFuture(0);
+        }
+    }
+
+    private CompletableFuture<Integer> rebalance(List<Sample> sampleList) {
+
+        final List<Sample> sampledList = sampleList.stream()
+                .filter(this::update)
+                .collect(Collectors.toList());
+        gameLoopId2SampleMap.keySet().retainAll(sampleList.stream()
+                .map(sample -> sample.gameLoop.getId())
+                .collect(Collectors.toSet()));
+
+        if (sampledList.size() < 2) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        final Sample hot = Collections.max(sampledList, Comparator.comparingDouble(sample -> sample.utilization));
+        final Sample cold = Collections.min(sampledList, Comparator.comparingDouble(sample -> sample.utilization));
+        final double gap = hot.utilization - cold.utilization;
+        final boolean activeOld = active;
+        active = active ? gap >= GamedoConfiguration.getRebalanceLowWatermark() :
+                gap >= GamedoConfiguration.getRebalanceHighWatermark();
+        if (active != activeOld) {
+            log.info(Markers.GameLoop, "rebalancer {}, gameLoopGroup:{}, hot:{}({}), cold:{}({})",
+                    active ? "activated" : "deactivated",
+                    gameLoopGroup.getId(),
+                    hot.gameLoop.getId(),
+                    String.format("%.3f", hot.utilization),
+                    cold.gameLoop.getId(),
+                    String.format("%.3f", cold.utilization));
+        }
+
+        if (!active || hot.entityCount == 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        //把利用率差值的一半从最忙的迁移到最闲的，按照单个实体的平均开销估算需要迁移的数量
+        final double entityCost = hot.utilization / hot.entityCount;
+        final int maxMigration = GamedoConfiguration.getRebalanceMaxMigrationPerRound();
+        final int count = (int) Math.min(maxMigration, Math.max(1, Math.ceil(gap / 2 / Math.max(entityCost, 1e-9))));
+        final long nanoTime = System.nanoTime();
+        entityId2CooldownMap.values().removeIf(deadline -> deadline - nanoTime <= 0);
+
+        return hot.gameLoop.submit(gameLoop -> selectCandidates(gameLoop, count))
+                .thenCompose(entityIdList -> migrate(entityIdList, hot.gameLoop, cold.gameLoop));
+    }
+
+    private boolean update(Sample sample) {
+        final Sample last = gameLoopId2SampleMap.put(sample.gameLoop.getId(), sample);
+        if (last == null || last.gameLoop != sample.gameLoop || sample.nanoTime - last.nanoTime <= 0) {
+            return false;
+        }
+
+        final double utilization = Math.min(1.0, (double) (sample.busyNanoTime - last.busyNanoTime) /
+                (sample.nanoTime - last.nanoTime));
+        sample.utilization = last.utilization < 0 ? utilization :
+                SMOOTHING_FACTOR * utilization + (1 - SMOOTHING_FACTOR) * last.utilization;
+        return true;
+    }
+
+    private List<String> selectCandidates(IGameLoop gameLoop, int count) {
+        return gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(entityManager -> entityManager.getEntityMap()
+                        .values()
+                        .stream()
+                        .filter(entity -> !(entity instanceof IGameLoop))
+                        .filter(entity -> !entityId2CooldownMap.containsKey(entity.getId()))
+                        .filter(migratable::apply)
+                        .limit(count)
+                        .map(IEntity::getId)
+                        .collect(Collectors.toList()))
+                .orElse(Collections.emptyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Integer> migrate(List<String> entityIdList, IGameLoop source, IGameLoop target) {
+        if (entityIdList.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        final long deadline = System.nanoTime() +
+                TimeUnit.MILLISECONDS.toNanos(GamedoConfiguration.getRebalanceEntityCooldownMillis());
+        entityIdList.forEach(entityId -> entityId2CooldownMap.put(entityId, deadline));
+
+        final CompletableFuture<Boolean>[] futures = entityIdList.stream()
+                .map(entityId -> gameLoopGroup.migrate(entityId, target)
+                        .exceptionally(throwable -> false))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures)
+                .thenApply(v -> (int) Arrays.stream(futures).filter(CompletableFuture::join).count())
+                .whenComplete((count, throwable) -> {
+                    //迁移已经结束，此时丢弃采样，下一轮记录的基准值中不会包含迁移之前的负载
+                    if (count != null && count > 0) {
+                        gameLoopId2SampleMap.remove(source.getId());
+                        gameLoopId2SampleMap.remove(target.getId());
+                    }
+                })
+                .whenComplete((count, throwable) -> log.info(Markers.GameLoop, "rebalance finish, gameLoopGroup:{}, " +
+                                "source:{}, target:{}, candidate:{}, migrated:{}",
+                        gameLoopGroup.getId(),
+                        source.getId(),
+                        target.getId(),
+                        entityIdList.size(),
+                        count));
+    }
+
+    private static final class Sample {
+        private final IGameLoop gameLoop;
+        private final long busyNanoTime;
+        private final long nanoTime;
+        private final int entityCount;
+        /**
+         * 平滑后的利用率，小于0表示尚未计算
+         */
+        private double utilization = -1;
+
+        private Sample(IGameLoop gameLoop, long busyNanoTime, long nanoTime, int entityCount) {
+            this.gameLoop = gameLoop;
+            this.busyNanoTime = busyNanoTime;
+            this.nanoTime = nanoTime;
+            this.entityCount = entityCount;
+        }
+    }
+}
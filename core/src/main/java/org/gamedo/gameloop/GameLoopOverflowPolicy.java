@@ -0,0 +1,35 @@
+package org.gamedo.gameloop;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.gameloop.interfaces.IThreadAgnosticRunnable;
+import org.gamedo.util.function.EntityFunction;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link IGameLoop}的任务队列有界（参考：{@link GameLoopConfig#getTaskQueueCapacity()}）时，其他线程提交任务而队列已满时的处理策略，
+ * 在{@link IGameLoop}线程内提交的任务不受容量的限制
+ */
+public enum GameLoopOverflowPolicy {
+    /**
+     * 拒绝新提交的任务，抛出{@link RejectedExecutionException}
+     */
+    REJECT,
+    /**
+     * 取消队列中最早提交的任务（调用方会在返回的Future上得到{@link java.util.concurrent.CancellationException}），然后接受新提交的任务，
+     * 适用于只关心最新数据的场景，例如状态同步。通过{@link IGameLoop#submit(EntityFunction)}、{@link IGameLoop#promise(EntityFunction)}
+     * 以及{@link org.gamedo.gameloop.interfaces.IGameLoopGroup#select}、{@link org.gamedo.gameloop.interfaces.IGameLoopGroup#submitAll}
+     * 提交的任务被丢弃时，返回的结果同样以{@link java.util.concurrent.CancellationException}异常结束
+     */
+    DROP_OLDEST,
+    /**
+     * 阻塞提交线程，直到队列有空位或者超时（参考：{@link GameLoopConfig#getOverflowBlockMillis()}），超时后抛出
+     * {@link RejectedExecutionException}，可以把压力反馈给生产者，但不要在其他{@link IGameLoop}线程内提交，否则会阻塞该线程
+     */
+    BLOCK,
+    /**
+     * 在提交线程内直接执行任务，此时任务不在{@link IGameLoop}线程内执行，因此只对实现了{@link IThreadAgnosticRunnable}的任务生效；
+     * 其他任务（包括所有的{@link EntityFunction}）必须在{@link IGameLoop}线程内执行，按照{@link #BLOCK}处理
+     */
+    CALLER_RUNS,
+}
@@ -0,0 +1,297 @@
+package org.gamedo.gameloop;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.exception.GameLoopException;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.logging.Markers;
+import org.gamedo.util.function.EntityFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link IGameLoop#promise(EntityFunction)}返回的轻量级异步结果，和{@link CompletableFuture}相比：
+ * <ul>
+ * <li> 本身就是提交给{@link IGameLoop}执行的任务，跨线程提交时不需要额外分配{@link CompletableFuture}以及其内部的任务包装对象，
+ * 被丢弃时也由线程池直接结束，不需要额外注册回调。注意：开启了线程池监控（ExecutorServiceMetrics）时，与其他任务一样会额外分配
+ * 监控的包装对象以及被丢弃时的回调
+ * <li> 所有通过{@link #whenComplete(BiConsumer)}注册的回调都在目标{@link IGameLoop}线程内执行：结果产生时直接在该线程内依次执行已经
+ * 注册的回调；结果产生之后才注册的回调会被提交到该{@link IGameLoop}上执行。因此回调内可以直接访问目标{@link IGameLoop}的组件和实体
+ * <li> 通过{@link #onCaller(BiConsumer)}注册的回调会被自动投递回调用方{@link IGameLoop}的线程内执行，适用于{@link IGameLoop}之间的
+ * 请求-应答
+ * <li> 只提供了少量的组合能力，如果需要复杂的编排，可以通过{@link #toCompletableFuture()}转换
+ * </ul>
+ * 如果任务在开始执行之前被丢弃（参考：{@link GameLoopOverflowPolicy#DROP_OLDEST}）或者由于关闭而被取消，本结果会在丢弃任务的
+ * 线程内以{@link java.util.concurrent.CancellationException}异常结束，已经注册的回调依然被投递到目标{@link IGameLoop}线程内执行。<p>
+ * 如果目标{@link IGameLoop}已经关闭，提交会被拒绝，此时本结果会以{@link RejectedExecutionException}异常结束，回调无法投递，只能在
+ * 结束本结果的线程（即提交线程）内执行；之后再注册的回调同样无法投递到目标{@link IGameLoop}，会在注册线程内直接执行，而不会抛出
+ * {@link RejectedExecutionException}。这是回调不在目标{@link IGameLoop}线程内执行的唯一情况
+ *
+ * @param <R> 结果的类型
+ */
+@Log4j2
+public final class GameLoopPromise<R> implements Runnable {
+    private static final Object PENDING = new Object();
+
+    private final IGameLoop gameLoop;
+    private final EntityFunction<IGameLoop, R> function;
+    /**
+     * 以下字段都由this保护
+     */
+    private Object result = PENDING;
+    private Throwable throwable;
+    /**
+     * null、单个回调或者回调列表，绝大多数情况下只有一个回调，不需要分配列表
+     */
+    private Object callbacks;
+
+    GameLoopPromise(IGameLoop gameLoop, EntityFunction<IGameLoop, R> function) {
+        this.gameLoop = gameLoop;
+        this.function = function;
+    }
+
+    @Override
+    public void run() {
+        R r = null;
+        Throwable t = null;
+        try {
+            r = function.apply(gameLoop);
+        } catch (Throwable e) {
+            t = e;
+        }
+
+        complete(r, t);
+    }
+
+    /**
+     * 注册一个结果回调，回调在目标{@link IGameLoop}线程内执行，回调抛出的异常只会被记录日志。如果注册时已经产生了结果，而目标
+     * {@link IGameLoop}已经关闭、拒绝了回调的投递，那么回调会在当前线程内立即执行，参数为已经产生的结果或者异常
+     *
+     * @param action 回调，参数为：结果、异常（正常结束时为null）
+     * @return 本结果
+     */
+    public GameLoopPromise<R> whenComplete(BiConsumer<? super R, ? super Throwable> action) {
+        synchronized (this) {
+            if (result == PENDING) {
+                addCallback(action);
+                return this;
+            }
+        }
+
+        if (gameLoop.inThread()) {
+            invoke(action);
+        } else {
+            dispatch(() -> invoke(action));
+        }
+
+        return this;
+    }
+
+    /**
+     * 注册一个在调用方{@link IGameLoop}（{@link GameLoops#current()}）线程内执行的结果回调：当{@link IGameLoop} A向{@link IGameLoop} B
+     * 提交操作后，回调会被自动投递回A，而不是在B的线程内执行，因此回调内可以安全地访问A的组件和实体，不需要再手动地提交回A。同一时间
+     * 到达A的多个回复会被合并为一次投递。回调抛出的异常只会被记录日志
+     * <ul>
+     * <li> 如果调用方就是目标{@link IGameLoop}，等价于{@link #whenComplete(BiConsumer)}
+     * <li> 如果调用方不在任何{@link IGameLoop}线程内，同样等价于{@link #whenComplete(BiConsumer)}，回调在目标{@link IGameLoop}线程内执行
+     * <li> 如果在回调投递时调用方{@link IGameLoop}已经关闭，回调会被丢弃
+     * </ul>
+     *
+     * @param action 回调，参数为：结果、异常（正常结束时为null）
+     * @return 本结果
+     */
+    public GameLoopPromise<R> onCaller(BiConsumer<? super R, ? super Throwable> action) {
+        final IGameLoop caller = GameLoops.current().orElse(null);
+        if (caller == null || caller == gameLoop) {
+            return whenComplete(action);
+        }
+
+        synchronized (this) {
+            if (result == PENDING) {
+                addCallback((r, t) -> reply(caller, () -> invoke(action)));
+                return this;
+            }
+        }
+
+        //已经产生了结果，并且当前就在调用方线程内
+        invoke(action);
+        return this;
+    }
+
+    /**
+     * @return 如果已经产生了结果（包括异常结束），返回true
+     */
+    public synchronized boolean isDone() {
+        return result != PENDING;
+    }
+
+    /**
+     * 立即返回结果
+     *
+     * @param valueIfAbsent 尚未产生结果时返回的值
+     * @return 结果
+     * @throws CompletionException 如果异常结束
+     */
+    public synchronized R getNow(R valueIfAbsent) {
+        return result == PENDING ? valueIfAbsent : report();
+    }
+
+    /**
+     * 阻塞等待结果，和{@link CompletableFuture#join()}一样，不建议在{@link IGameLoop}线程内调用
+     *
+     * @return 结果
+     * @throws CompletionException 如果异常结束
+     * @throws GameLoopException   如果在目标{@link IGameLoop}线程内等待一个尚未产生的结果（这将永远无法结束）
+     */
+    public R join() {
+        synchronized (this) {
+            if (result != PENDING) {
+                return report();
+            }
+        }
+
+        if (gameLoop.inThread()) {
+            throw new GameLoopException("join a pending promise in its own gameLoop thread, gameLoop id:" +
+                    gameLoop.getId());
+        }
+
+        boolean interrupted = false;
+        try {
+            synchronized (this) {
+                while (result == PENDING) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                return report();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 转换为{@link CompletableFuture}，以便使用其完整的编排能力，注意：返回的{@link CompletableFuture}在目标{@link IGameLoop}线程内完成
+     *
+     * @return 与本结果同时完成的CompletableFuture
+     */
+    public CompletableFuture<R> toCompletableFuture() {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        whenComplete((r, t) -> {
+            if (t == null) {
+                future.complete(r);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+
+        return future;
+    }
+
+    void complete(R r, Throwable t) {
+        final Object callbacksOld;
+        synchronized (this) {
+            if (result != PENDING) {
+                return;
+            }
+
+            result = r;
+            throwable = t;
+            callbacksOld = callbacks;
+            callbacks = null;
+            notifyAll();
+        }
+
+        if (callbacksOld == null) {
+            return;
+        }
+
+        if (gameLoop.inThread()) {
+            invokeAll(callbacksOld);
+        } else {
+            //在其他线程内结束（任务被丢弃或者提交被拒绝），已经注册的回调依然投递到目标IGameLoop线程内执行
+            dispatch(() -> invokeAll(callbacksOld));
+        }
+    }
+
+    /**
+     * 把回调投递到目标{@link IGameLoop}线程内执行
+     */
+    private void dispatch(Runnable callback) {
+        try {
+            if (gameLoop instanceof GameLoop) {
+                ((GameLoop) gameLoop).executeInternal(callback);
+            } else {
+                gameLoop.execute(callback);
+            }
+        } catch (RejectedExecutionException e) {
+            //目标IGameLoop已经关闭（例如本结果正是因为提交被拒绝而结束的），回调无处投递，直接在当前线程内执行
+            callback.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invokeAll(Object callbacks) {
+        if (callbacks instanceof List) {
+            ((List<BiConsumer<? super R, ? super Throwable>>) callbacks).forEach(this::invoke);
+        } else {
+            invoke((BiConsumer<? super R, ? super Throwable>) callbacks);
+        }
+    }
+
+    private static void reply(IGameLoop caller, Runnable reply) {
+        if (caller instanceof GameLoop) {
+            ((GameLoop) caller).reply(reply);
+        } else {
+            caller.execute(reply);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addCallback(BiConsumer<? super R, ? super Throwable> action) {
+        if (callbacks == null) {
+            callbacks = action;
+        } else if (callbacks instanceof List) {
+            ((List<Object>) callbacks).add(action);
+        } else {
+            final List<Object> list = new ArrayList<>(4);
+            list.add(callbacks);
+            list.add(action);
+            callbacks = list;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invoke(BiConsumer<? super R, ? super Throwable> action) {
+        final R r;
+        final Throwable t;
+        synchronized (this) {
+            r = (R) result;
+            t = throwable;
+        }
+
+        try {
+            action.accept(t == null ? r : null, t);
+        } catch (Throwable e) {
+            log.error(Markers.GameLoop, "exception caught in promise callback, gameLoop:" + gameLoop.getId(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private R report() {
+        if (throwable != null) {
+            throw throwable instanceof CompletionException ? (CompletionException) throwable :
+                    new CompletionException(throwable);
+        }
+
+        return (R) result;
+    }
+}
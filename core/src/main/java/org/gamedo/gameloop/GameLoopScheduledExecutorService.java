@@ -1,22 +1,175 @@
 package org.gamedo.gameloop;
 
+import lombok.extern.log4j.Log4j2;
 import org.gamedo.concurrent.NamedThreadFactory;
+import org.gamedo.concurrent.ThreadAffinity;
+import org.gamedo.concurrent.TimerWheel;
+import org.gamedo.gameloop.interfaces.IThreadAgnosticRunnable;
 import org.gamedo.logging.GamedoLogContext;
+import org.gamedo.logging.Markers;
+import org.gamedo.util.GamedoConfiguration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
+/**
+ * {@link GameLoop}的线程池，所有延迟大于0的定时任务（{@link #schedule(Runnable, long, TimeUnit)}、
+ * {@link #scheduleAtFixedRate(Runnable, long, long, TimeUnit)}等）都不会进入{@link ScheduledThreadPoolExecutor}内部基于二叉堆和
+ * ReentrantLock的DelayedWorkQueue，而是由{@link GameLoop}线程独享的{@link TimerWheel}管理：
+ * <ul>
+ * <li> 在{@link GameLoop}线程内添加、取消定时任务都是O(1)的，并且取消后立即从时间轮中移除
+ * <li> 在其他线程添加、取消定时任务时，任务会被压入无锁的栈中，之后由{@link GameLoop}线程批量转移到时间轮中，整个过程不需要任何锁
+ * <li> 时间轮由唯一的驱动任务推进，驱动任务只在最近的定时任务到期时才被唤醒
+ * </ul>
+ * 需要注意的是：
+ * <ul>
+ * <li> 定时任务的精度为时间轮的精度，参考：{@link GamedoConfiguration#getTimerTickMillis()}
+ * <li> 线程池被关闭（{@link #shutdown()}）后，所有尚未到期的定时任务都会被取消，不会再执行
+ * <li> 定时任务不会出现在{@link #getQueue()}中，可以通过{@link #getDelayedTaskCount()}获取尚未到期的定时任务的数量
+ * </ul>
+ * 默认情况下立即任务的队列是无界的，如果配置了容量（参考：{@link GameLoopConfig#getTaskQueueCapacity()}），其他线程提交的立即任务会先
+ * 进入一个有界的收件箱，由{@link GameLoop}线程批量取出执行，收件箱已满时按照{@link GameLoopOverflowPolicy}处理；{@link GameLoop}线程
+ * 自身提交的任务以及内部任务不受容量的限制<p>
+ * 除了普通的先进先出队列之外，还可以通过{@link #execute(Runnable, GameLoopTaskLane)}、{@link #submit(Callable, GameLoopTaskLane)}
+ * 把任务提交到紧急或者后台通道（参考：{@link GameLoopTaskLane}），两个通道都是无锁的队列，配置了容量时每个通道的容量与收件箱相同，
+ * 同样按照{@link GameLoopOverflowPolicy}处理溢出：
+ * <ul>
+ * <li> 紧急通道在每个普通任务执行之前被检查，每次最多执行{@link GamedoConfiguration#getLaneUrgentBatch()}个
+ * <li> 后台通道由唯一的处理任务驱动，处理任务排在普通队列的末尾，每次最多执行{@link GamedoConfiguration#getLaneBackgroundBatch()}
+ * 个，之后如果还有剩余，就重新排到普通队列的末尾，因此后台任务每轮只占用固定的份额，不会推迟排在其后的普通任务
+ * </ul>
+ * 线程池只有一个核心线程并且永不回收，因此无论该线程是平台线程还是虚拟线程（参考：{@link GameLoopConfig#isVirtualThread()}），
+ * 所有任务都在同一个线程内串行执行；使用虚拟线程时，任务内的阻塞io只会让虚拟线程让出载体线程，而不会占用一个平台线程。对于平台线程，
+ * 还可以配置绑核、线程优先级以及空闲时的等待策略（参考：{@link GameLoopWaitStrategy}），以降低任务的唤醒延迟
+ */
+@Log4j2
 public class GameLoopScheduledExecutorService extends ScheduledThreadPoolExecutor {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<GameLoopScheduledExecutorService, WheelFuture> SCHEDULE_STACK =
+            AtomicReferenceFieldUpdater.newUpdater(GameLoopScheduledExecutorService.class, WheelFuture.class, "scheduleStack");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<GameLoopScheduledExecutorService, WheelFuture> CANCEL_STACK =
+            AtomicReferenceFieldUpdater.newUpdater(GameLoopScheduledExecutorService.class, WheelFuture.class, "cancelStack");
+    private static final AtomicLongFieldUpdater<GameLoopScheduledExecutorService> TASK_SEQUENCE =
+            AtomicLongFieldUpdater.newUpdater(GameLoopScheduledExecutorService.class, "taskSequence");
+    /**
+     * 每次从收件箱中取出执行的最大任务数量，避免长时间占用线程而推迟定时任务
+     */
+    private static final int INBOX_DRAIN_BATCH = 64;
+
     private final GameLoop gameLoop;
+    /**
+     * 只能在{@link GameLoop}线程内访问
+     */
+    private final TimerWheel timerWheel;
+    private final Runnable drainTask = this::drain;
+    private final Runnable driverTask = this::drive;
+    /**
+     * 其他线程添加的定时任务
+     */
+    private volatile WheelFuture<?> scheduleStack;
+    /**
+     * 其他线程取消的定时任务
+     */
+    private volatile WheelFuture<?> cancelStack;
+    private ScheduledFuture<?> driverFuture;
+    private long driverNanoTime;
+    private boolean driving;
+    /**
+     * 当前任务开始执行的时间，只能在{@link GameLoop}线程内访问
+     */
+    private long taskStartNanoTime;
+    /**
+     * 累计执行任务所花费的时间，只有{@link GameLoop}线程会写入，其他线程可以读取
+     */
+    private volatile long busyNanoTime;
+    /**
+     * 线程池队列中尚未开始执行的任务数量：进入队列时（{@link #decorateTask(Runnable, RunnableScheduledFuture)}）加一，被取出执行
+     * （{@link #beforeExecute(Thread, Runnable)}）或者取消后移出队列（{@link #remove(Runnable)}）时减一。{@link #getQueue()}的size()
+     * 需要获取DelayedWorkQueue的锁，会与{@link GameLoop}线程以及所有提交线程竞争，而负载均衡（参考：{@link GameLoopSelectStrategy}）
+     * 会频繁地读取该值
+     */
+    private final LongAdder queuedTaskCount = new LongAdder();
+    /**
+     * 其他线程提交的立即任务的有界收件箱，为null表示无界（立即任务直接进入线程池的队列）
+     */
+    private final BlockingQueue<WheelFuture<?>> inbox;
+    private final int capacity;
+    private final GameLoopOverflowPolicy overflowPolicy;
+    private final long overflowBlockNanos;
+    private final AtomicBoolean inboxScheduled = new AtomicBoolean(false);
+    private final Runnable inboxTask = this::drainInbox;
+    private final LongAdder rejectedTaskCount = new LongAdder();
+    private final LongAdder droppedTaskCount = new LongAdder();
+    private final Lane urgentLane = new Lane();
+    private final Lane backgroundLane = new Lane();
+    private final int urgentBatch = Math.max(1, GamedoConfiguration.getLaneUrgentBatch());
+    private final int backgroundBatch = Math.max(1, GamedoConfiguration.getLaneBackgroundBatch());
+    private final AtomicBoolean laneScheduled = new AtomicBoolean(false);
+    private final Runnable laneTask = this::drainLanes;
+    private final GameLoopWaitStrategy waitStrategy;
+    private final long waitSpinNanos;
+    /**
+     * 进入线程池队列的任务序号，只在自旋等待时使用：序号发生变化说明有新的任务到达
+     */
+    private volatile long taskSequence;
 
     public GameLoopScheduledExecutorService(GameLoop gameLoop, String id, boolean daemon) {
-        super(1, new NamedThreadFactory(id, daemon));
+        this(gameLoop, id, GameLoopConfig.builder().daemon(daemon).build());
+    }
+
+    public GameLoopScheduledExecutorService(GameLoop gameLoop, String id, GameLoopConfig gameLoopConfig) {
+        super(1, new NamedThreadFactory(id,
+                gameLoopConfig.isDaemon(),
+                gameLoopConfig.isVirtualThread(),
+                gameLoopConfig.getThreadPriority(),
+                ThreadAffinity.resolveCpuList(gameLoopConfig.getCpuAffinity(), gameLoopConfig.getNumaNode())));
         this.gameLoop = gameLoop;
+        capacity = gameLoopConfig.getTaskQueueCapacity();
+        overflowPolicy = gameLoopConfig.getOverflowPolicy() == null ? GameLoopOverflowPolicy.REJECT : gameLoopConfig.getOverflowPolicy();
+        overflowBlockNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, gameLoopConfig.getOverflowBlockMillis()));
+        waitStrategy = gameLoopConfig.getWaitStrategy() == null ? GameLoopWaitStrategy.PARK : gameLoopConfig.getWaitStrategy();
+        waitSpinNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, gameLoopConfig.getWaitSpinMicros()));
+        inbox = capacity > 0 ? new LinkedBlockingQueue<>(capacity) : null;
+        timerWheel = new TimerWheel(GamedoConfiguration.getTimerTickMillis(),
+                TimeUnit.MILLISECONDS,
+                GamedoConfiguration.getTimerWheelSize(),
+                System.nanoTime());
+
+        //DelayedWorkQueue中只剩下驱动任务，驱动任务重新调度时需要立即移除旧的
+        setRemoveOnCancelPolicy(true);
+        setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
     @Override
     protected void beforeExecute(Thread t, Runnable r) {
         super.beforeExecute(t, r);
+        queuedTaskCount.decrement();
 
         //原子操作
         synchronized (gameLoop) {
@@ -24,17 +177,926 @@ public class GameLoopScheduledExecutorService extends ScheduledThreadPoolExecuto
             gameLoop.currentThread = Thread.currentThread();
             GameLoops.GAME_LOOP_THREAD_LOCAL.set(gameLoop.gameLoopOptional);
         }
+
+        taskStartNanoTime = System.nanoTime();
+
+        //紧急任务插在当前任务之前执行，所花费的时间也计入当前任务
+        if (!urgentLane.isEmpty()) {
+            drainLane(urgentLane, urgentBatch);
+        }
     }
 
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
         super.afterExecute(r, t);
 
+        //单线程写入，不需要原子的累加操作
+        //noinspection NonAtomicOperationOnVolatileField
+        busyNanoTime += System.nanoTime() - taskStartNanoTime;
+
         //原子操作
         synchronized (gameLoop) {
             GameLoops.GAME_LOOP_THREAD_LOCAL.set(Optional.empty());
             gameLoop.currentThread = null;
             GamedoLogContext.clearEntityId();
         }
+
+        if (waitStrategy != GameLoopWaitStrategy.PARK) {
+            spinWait();
+        }
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+        countQueuedTask();
+        if (waitStrategy != GameLoopWaitStrategy.PARK) {
+            TASK_SEQUENCE.incrementAndGet(this);
+        }
+        return task;
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+        countQueuedTask();
+        if (waitStrategy != GameLoopWaitStrategy.PARK) {
+            TASK_SEQUENCE.incrementAndGet(this);
+        }
+        return task;
+    }
+
+    /**
+     * 关闭之后提交的任务会被拒绝而不会进入队列，因此不计数，关闭时仍留在队列中的任务在{@link #terminated()}时一并清零
+     */
+    private void countQueuedTask() {
+        if (!isShutdown()) {
+            queuedTaskCount.increment();
+        }
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        //取消的任务会通过本函数移出队列，参考：setRemoveOnCancelPolicy(true)
+        final boolean removed = super.remove(task);
+        if (removed) {
+            queuedTaskCount.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * 在{@link GameLoop}线程内自旋等待下一个任务，只读取volatile的任务序号，不竞争线程池队列的锁。返回之后线程池会从队列中取出任务，
+     * 如果此时任务已经在队列中，就不需要阻塞和唤醒线程
+     */
+    private void spinWait() {
+        //先读取序号再检查队列，之后到达的任务一定会改变序号
+        final long sequence = taskSequence;
+        final Runnable head = getQueue().peek();
+        if (head != null && ((Delayed) head).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+            return;
+        }
+
+        final long startNanoTime = System.nanoTime();
+        while (taskSequence == sequence && !isShutdown()) {
+            final long nowNanoTime = System.nanoTime();
+            //队列中唯一的延迟任务是时间轮的驱动任务
+            if (driverFuture != null && nowNanoTime - driverNanoTime >= 0) {
+                return;
+            }
+            if (waitStrategy == GameLoopWaitStrategy.SPIN && nowNanoTime - startNanoTime >= waitSpinNanos) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        //execute、submit等方法内部也是通过schedule(command, 0, TimeUnit.NANOSECONDS)实现的，这些任务不需要经过时间轮
+        if (delay <= 0) {
+            return inbox == null || gameLoop.inThread() ? super.schedule(command, delay, unit) :
+                    offer(new WheelFuture<Void>(this, Objects.requireNonNull(command), System.nanoTime(), 0));
+        }
+
+        return enqueue(new WheelFuture<Void>(this, Objects.requireNonNull(command), triggerTime(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            return inbox == null || gameLoop.inThread() ? super.schedule(callable, delay, unit) :
+                    offer(new WheelFuture<V>(this, Objects.requireNonNull(callable), System.nanoTime(), 0));
+        }
+
+        return enqueue(new WheelFuture<V>(this, Objects.requireNonNull(callable), triggerTime(delay, unit), 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0L) {
+            throw new IllegalArgumentException("period must be greater than 0: " + period);
+        }
+
+        return enqueue(new WheelFuture<Void>(this, Objects.requireNonNull(command), triggerTime(initialDelay, unit),
+                unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0L) {
+            throw new IllegalArgumentException("delay must be greater than 0: " + delay);
+        }
+
+        return enqueue(new WheelFuture<Void>(this, Objects.requireNonNull(command), triggerTime(initialDelay, unit),
+                -unit.toNanos(delay)));
+    }
+
+    /**
+     * 把任务提交到指定的通道，{@link GameLoopTaskLane#NORMAL}等同于{@link #execute(Runnable)}，其他通道与收件箱一样受到任务
+     * 队列容量的限制，本函数是线程安全的
+     *
+     * @param command 要执行的任务
+     * @param lane    任务通道
+     */
+    public void execute(Runnable command, GameLoopTaskLane lane) {
+        if (lane == null || lane == GameLoopTaskLane.NORMAL) {
+            execute(command);
+            return;
+        }
+
+        enqueueLane(new WheelFuture<Void>(this, Objects.requireNonNull(command), System.nanoTime(), 0), lane);
+    }
+
+    /**
+     * 把任务提交到指定的通道，{@link GameLoopTaskLane#NORMAL}等同于{@link #submit(Callable)}，其他通道与收件箱一样受到任务
+     * 队列容量的限制，本函数是线程安全的
+     *
+     * @param task 要执行的任务
+     * @param lane 任务通道
+     * @param <V>  任务的返回值类型
+     * @return 任务的执行结果
+     */
+    public <V> Future<V> submit(Callable<V> task, GameLoopTaskLane lane) {
+        if (lane == null || lane == GameLoopTaskLane.NORMAL) {
+            return submit(task);
+        }
+
+        return enqueueLane(new WheelFuture<V>(this, Objects.requireNonNull(task), System.nanoTime(), 0), lane);
+    }
+
+    /**
+     * 返回尚未到期的定时任务的数量，该值在{@link GameLoop}线程之外读取时只是一个近似值
+     *
+     * @return 时间轮中尚未到期的定时任务的数量
+     */
+    public int getDelayedTaskCount() {
+        return timerWheel.size();
+    }
+
+    /**
+     * 返回自创建以来执行任务所花费的累计时间，包括时间轮推进以及所有定时任务的执行时间，不包括空闲等待的时间
+     *
+     * @return 累计的忙碌时间（纳秒）
+     */
+    public long getBusyNanoTime() {
+        return busyNanoTime;
+    }
+
+    /**
+     * 返回尚未开始执行的立即任务的数量（包括时间轮的驱动任务以及紧急、后台通道中的任务，不包括时间轮中尚未到期的定时任务），本函数是
+     * 线程安全的，并且不获取任何锁，在其他线程内读取时只是一个近似值
+     *
+     * @return 待执行的任务数量
+     */
+    public int getPendingTaskCount() {
+        return (int) Math.max(0, queuedTaskCount.sum()) + (inbox == null ? 0 : inbox.size()) + urgentLane.size() +
+                backgroundLane.size();
+    }
+
+    /**
+     * @return 任务队列的容量，小于等于0表示无界
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 返回由于任务队列已满而被拒绝的任务数量，包括：{@link GameLoopOverflowPolicy#REJECT}、{@link GameLoopOverflowPolicy#BLOCK}
+     * 超时以及{@link GameLoopOverflowPolicy#CALLER_RUNS}在提交线程内执行的任务
+     *
+     * @return 累计被拒绝的任务数量
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTaskCount.sum();
+    }
+
+    /**
+     * @return 累计被{@link GameLoopOverflowPolicy#DROP_OLDEST}丢弃的任务数量
+     */
+    public long getDroppedTaskCount() {
+        return droppedTaskCount.sum();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> runnableList = new ArrayList<>();
+        if (inbox != null) {
+            inbox.drainTo(runnableList);
+        }
+
+        runnableList.addAll(super.shutdownNow());
+        if (inbox != null) {
+            inbox.drainTo(runnableList);
+        }
+        pollAll(urgentLane, runnableList::add);
+        pollAll(backgroundLane, runnableList::add);
+
+        return runnableList;
+    }
+
+    @Override
+    protected void terminated() {
+        super.terminated();
+
+        //此时线程池内已经没有任何线程，可以安全地访问时间轮
+        cancelStack = null;
+        queuedTaskCount.reset();
+        if (inbox != null) {
+            for (WheelFuture<?> task = inbox.poll(); task != null; task = inbox.poll()) {
+                task.cancelInternal();
+            }
+        }
+        pollAll(urgentLane, WheelFuture::cancelInternal);
+        pollAll(backgroundLane, WheelFuture::cancelInternal);
+        cancelScheduleStack();
+        final int count = timerWheel.clear(timeout -> ((WheelFuture<?>) timeout).cancelInternal());
+        if (count > 0) {
+            log.debug(Markers.GameLoop, "cancel {} delayed tasks when terminated, gameLoop:{}",
+                    () -> count,
+                    () -> gameLoop.getId());
+        }
+    }
+
+    private static long triggerTime(long delay, TimeUnit unit) {
+        //防止溢出，参考：ScheduledThreadPoolExecutor.triggerTime
+        final long delayNanos = Math.min(Math.max(0, unit.toNanos(delay)), Long.MAX_VALUE >> 1);
+        return System.nanoTime() + delayNanos;
+    }
+
+    private <V> ScheduledFuture<V> enqueue(WheelFuture<V> task) {
+        if (isShutdown()) {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return task;
+        }
+
+        if (gameLoop.inThread()) {
+            addToWheel(task);
+            return task;
+        }
+
+        WheelFuture<?> head;
+        do {
+            head = scheduleStack;
+            task.scheduleNext = head;
+        } while (!SCHEDULE_STACK.compareAndSet(this, head, task));
+
+        //检查关闭与压栈不是原子的，terminated()可能已经清空过栈，此时由本线程取消栈中剩余的任务，否则这些任务永远不会完成
+        if (isShutdown()) {
+            cancelScheduleStack();
+            return task;
+        }
+
+        //只有栈由空变为非空的线程才需要投递转移任务
+        if (head == null) {
+            submitDrainTask();
+        }
+
+        return task;
+    }
+
+    /**
+     * 取消其他线程添加、尚未转移到时间轮中的定时任务，通过getAndSet取得整个栈，因此与{@link #drain()}之间每个任务只会被处理一次
+     */
+    private void cancelScheduleStack() {
+        for (WheelFuture<?> task = SCHEDULE_STACK.getAndSet(this, null); task != null; task = task.scheduleNext) {
+            task.cancelInternal();
+        }
+    }
+
+    /**
+     * 提交一个内部任务，不受任务队列容量的限制，也不会被{@link GameLoopOverflowPolicy#CALLER_RUNS}在提交线程内执行
+     *
+     * @param task 要在{@link GameLoop}线程内执行的任务
+     */
+    void executeInternal(Runnable task) {
+        super.schedule(task, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 为本线程池返回的任务注册一个回调：任务在开始执行之前被取消（被{@link GameLoopOverflowPolicy#DROP_OLDEST}丢弃、线程池关闭时仍在
+     * 收件箱或者通道中）时，在取消任务的线程内执行，最多执行一次。{@link GameLoop}用它来结束调用方持有的{@link java.util.concurrent.CompletableFuture}等
+     * 结果，否则调用方会永远等待。如果注册时任务已经被取消，立即执行。直接提交的{@link GameLoopPromise}不需要注册，被取消时直接以
+     * {@link CancellationException}结束
+     *
+     * @param future      {@link #submit(Runnable)}等函数返回的结果
+     * @param onAbandoned 回调
+     */
+    static void onAbandoned(Future<?> future, Runnable onAbandoned) {
+        if (future instanceof WheelFuture) {
+            ((WheelFuture<?>) future).onAbandoned(onAbandoned);
+        }
+    }
+
+    private <V> ScheduledFuture<V> offer(WheelFuture<V> task) {
+        if (isShutdown()) {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return task;
+        }
+
+        if (inbox.offer(task) || overflow(task, null)) {
+            scheduleInbox();
+        }
+
+        return task;
+    }
+
+    /**
+     * 收件箱或者通道已满时按照{@link GameLoopOverflowPolicy}处理
+     *
+     * @param lane 任务所在的通道，为null时表示收件箱
+     * @return 如果最终进入了收件箱或者通道，返回true
+     */
+    private boolean overflow(WheelFuture<?> task, Lane lane) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                for (; ; ) {
+                    final WheelFuture<?> oldest = lane == null ? inbox.poll() : lane.poll();
+                    if (oldest != null && oldest.cancelInternal()) {
+                        droppedTaskCount.increment();
+                    }
+                    if (lane == null ? inbox.offer(task) : lane.offer(task, capacity)) {
+                        return true;
+                    }
+                }
+            case BLOCK:
+                if (offerBlocking(task, lane)) {
+                    return true;
+                }
+                break;
+            case CALLER_RUNS:
+                if (task.task instanceof IThreadAgnosticRunnable) {
+                    rejectedTaskCount.increment();
+                    task.run();
+                    return false;
+                }
+                //必须在GameLoop线程内执行的任务（包括所有的EntityFunction）不能在提交线程内执行，退化为BLOCK
+                if (offerBlocking(task, lane)) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+
+        rejectedTaskCount.increment();
+        throw new RejectedExecutionException("the task queue is full, gameLoop:" + gameLoop.getId() +
+                ", capacity:" + capacity +
+                ", policy:" + overflowPolicy +
+                (lane == null ? "" : ", lane:" + (lane == urgentLane ? GameLoopTaskLane.URGENT : GameLoopTaskLane.BACKGROUND)));
+    }
+
+    private boolean offerBlocking(WheelFuture<?> task, Lane lane) {
+        try {
+            return lane == null ? inbox.offer(task, overflowBlockNanos, TimeUnit.NANOSECONDS) :
+                    lane.offer(task, capacity, overflowBlockNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void scheduleInbox() {
+        if (!inboxScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            super.schedule(inboxTask, 0, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            //线程池已经关闭，收件箱中剩余的任务会在terminated()中被取消
+            inboxScheduled.set(false);
+            log.debug(Markers.GameLoop, "the gameLoop {} has shutdown, inbox task rejected", () -> gameLoop.getId());
+        }
+    }
+
+    /**
+     * 在{@link GameLoop}线程内批量执行收件箱中的任务，线程池关闭之后不能再调度下一批，因此一次性执行完收件箱中剩余的任务
+     */
+    private void drainInbox() {
+        final int batch = isShutdown() ? Integer.MAX_VALUE : INBOX_DRAIN_BATCH;
+        for (int i = 0; i < batch; i++) {
+            final WheelFuture<?> task = inbox.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        }
+
+        //先清除标记再检查，保证与提交线程之间不会遗漏任务
+        inboxScheduled.set(false);
+        if (!inbox.isEmpty()) {
+            scheduleInbox();
+        }
+    }
+
+    private <V> Future<V> enqueueLane(WheelFuture<V> task, GameLoopTaskLane lane) {
+        if (isShutdown()) {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return task;
+        }
+
+        final Lane target = lane == GameLoopTaskLane.URGENT ? urgentLane : backgroundLane;
+        //与收件箱相同，GameLoop线程自身提交的任务不受容量的限制
+        if (capacity <= 0 || gameLoop.inThread()) {
+            target.add(task);
+            scheduleLanes();
+        } else if (target.offer(task, capacity) || overflow(task, target)) {
+            scheduleLanes();
+        }
+
+        return task;
+    }
+
+    private void scheduleLanes() {
+        if (!laneScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            super.schedule(laneTask, 0, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            //线程池已经关闭，通道中剩余的任务会在terminated()中被取消
+            laneScheduled.set(false);
+            log.debug(Markers.GameLoop, "the gameLoop {} has shutdown, lane task rejected", () -> gameLoop.getId());
+        }
+    }
+
+    /**
+     * 在{@link GameLoop}线程内按照权重执行紧急、后台通道中的任务，线程池关闭之后一次性执行完通道中剩余的任务
+     */
+    private void drainLanes() {
+        final boolean shutdown = isShutdown();
+        drainLane(urgentLane, shutdown ? Integer.MAX_VALUE : urgentBatch);
+        drainLane(backgroundLane, shutdown ? Integer.MAX_VALUE : backgroundBatch);
+
+        //先清除标记再检查，保证与提交线程之间不会遗漏任务
+        laneScheduled.set(false);
+        if (!urgentLane.isEmpty() || !backgroundLane.isEmpty()) {
+            scheduleLanes();
+        }
+    }
+
+    private void drainLane(Lane lane, int batch) {
+        for (int i = 0; i < batch; i++) {
+            final WheelFuture<?> task = lane.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        }
+    }
+
+    private void pollAll(Lane lane, Consumer<WheelFuture<?>> consumer) {
+        for (WheelFuture<?> task = lane.poll(); task != null; task = lane.poll()) {
+            consumer.accept(task);
+        }
+    }
+
+    private void onCancel(WheelFuture<?> task) {
+        if (gameLoop.inThread()) {
+            timerWheel.remove(task);
+            return;
+        }
+
+        WheelFuture<?> head;
+        do {
+            head = cancelStack;
+            task.cancelNext = head;
+        } while (!CANCEL_STACK.compareAndSet(this, head, task));
+
+        if (head == null) {
+            submitDrainTask();
+        }
+    }
+
+    private void submitDrainTask() {
+        try {
+            super.schedule(drainTask, 0, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            //线程池已经关闭，剩余的定时任务会在terminated()中被取消
+            log.debug(Markers.GameLoop, "the gameLoop {} has shutdown, drain task rejected", () -> gameLoop.getId());
+        }
+    }
+
+    /**
+     * 在{@link GameLoop}线程内将其他线程添加、取消的定时任务转移到时间轮中
+     */
+    private void drain() {
+        //拒绝策略（例如CallerRunsPolicy）可能会在其他线程内执行转移任务
+        if (!gameLoop.inThread()) {
+            return;
+        }
+
+        //栈是后进先出的，先反转链表，保证相同到期时间的定时任务按照添加的顺序执行
+        WheelFuture<?> reversed = null;
+        WheelFuture<?> task = SCHEDULE_STACK.getAndSet(this, null);
+        while (task != null) {
+            final WheelFuture<?> next = task.scheduleNext;
+            task.scheduleNext = reversed;
+            reversed = task;
+            task = next;
+        }
+
+        while (reversed != null) {
+            final WheelFuture<?> next = reversed.scheduleNext;
+            reversed.scheduleNext = null;
+            if (!reversed.isDone()) {
+                addToWheel(reversed);
+            }
+            reversed = next;
+        }
+
+        task = CANCEL_STACK.getAndSet(this, null);
+        while (task != null) {
+            final WheelFuture<?> next = task.cancelNext;
+            task.cancelNext = null;
+            timerWheel.remove(task);
+            task = next;
+        }
+    }
+
+    private void addToWheel(WheelFuture<?> task) {
+        timerWheel.add(task, task.deadlineNanoTime);
+
+        //推进时间轮的过程中添加的定时任务，会在推进结束后统一计算下一次唤醒的时间
+        if (!driving && (driverFuture == null || task.getExpireNanoTime() - driverNanoTime < 0)) {
+            armDriver(task.getExpireNanoTime());
+        }
+    }
+
+    private void armDriver(long expireNanoTime) {
+        if (driverFuture != null) {
+            driverFuture.cancel(false);
+            driverFuture = null;
+        }
+
+        try {
+            final long delay = Math.max(0, expireNanoTime - System.nanoTime());
+            driverFuture = super.schedule(driverTask, delay, TimeUnit.NANOSECONDS);
+            driverNanoTime = expireNanoTime;
+        } catch (RejectedExecutionException e) {
+            log.debug(Markers.GameLoop, "the gameLoop {} has shutdown, stop driving the timer wheel", () -> gameLoop.getId());
+        }
+    }
+
+    private void drive() {
+        driverFuture = null;
+        driving = true;
+        try {
+            timerWheel.advance(System.nanoTime());
+        } catch (RuntimeException e) {
+            log.error(Markers.GameLoop, "exception caught when advance the timer wheel, gameLoop:" + gameLoop.getId(), e);
+        } finally {
+            driving = false;
+            final long nextExpireNanoTime = timerWheel.nextExpireNanoTime();
+            if (nextExpireNanoTime != Long.MAX_VALUE) {
+                armDriver(nextExpireNanoTime);
+            }
+        }
+    }
+
+    /**
+     * 紧急或者后台通道：无锁的队列加上单独的计数（{@link ConcurrentLinkedQueue#size()}需要遍历整个队列）。任务队列有界时，每个通道的
+     * 容量与收件箱相同，其他线程提交的任务同样按照{@link GameLoopOverflowPolicy}处理；{@link GameLoop}线程自身提交的任务不受容量的限制，
+     * 但是会占用通道的容量
+     */
+    private static final class Lane {
+        /**
+         * 阻塞提交时重试的间隔：通道是无锁的，没有可以等待的条件，只能定期重试
+         */
+        private static final long BLOCK_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+        private final Queue<WheelFuture<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void add(WheelFuture<?> task) {
+            size.incrementAndGet();
+            queue.offer(task);
+        }
+
+        private boolean offer(WheelFuture<?> task, int capacity) {
+            for (; ; ) {
+                final int s = size.get();
+                if (s >= capacity) {
+                    return false;
+                }
+                if (size.compareAndSet(s, s + 1)) {
+                    queue.offer(task);
+                    return true;
+                }
+            }
+        }
+
+        private boolean offer(WheelFuture<?> task, int capacity, long timeoutNanos) throws InterruptedException {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            while (!offer(task, capacity)) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(Math.min(remaining, BLOCK_RETRY_NANOS));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            return true;
+        }
+
+        private WheelFuture<?> poll() {
+            final WheelFuture<?> task = queue.poll();
+            if (task != null) {
+                size.decrementAndGet();
+            }
+            return task;
+        }
+
+        private boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        private int size() {
+            return size.get();
+        }
+    }
+
+    /**
+     * 时间轮中的定时任务，同时也是返回给调用者的{@link ScheduledFuture}，为了降低每个定时任务的内存占用，没有使用{@link java.util.concurrent.FutureTask}
+     *
+     * @param <V> 定时任务的返回值类型
+     */
+    private static final class WheelFuture<V> extends TimerWheel.Timeout implements RunnableScheduledFuture<V> {
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int NORMAL = 2;
+        private static final int EXCEPTIONAL = 3;
+        private static final int CANCELLED = 4;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<WheelFuture> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelFuture.class, "state");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<WheelFuture, Runnable> ABANDON_HOOK =
+                AtomicReferenceFieldUpdater.newUpdater(WheelFuture.class, Runnable.class, "abandonHook");
+
+        private final GameLoopScheduledExecutorService executor;
+        /**
+         * {@link Runnable}或者{@link Callable}，避免为{@link Runnable}额外分配一个适配器
+         */
+        private final Object task;
+        /**
+         * 大于0：scheduleAtFixedRate的周期，小于0：scheduleWithFixedDelay的延迟，等于0：一次性任务
+         */
+        private final long period;
+        private long deadlineNanoTime;
+        private volatile int state;
+        private Object outcome;
+        /**
+         * 在开始执行之前被取消时的回调，参考：{@link GameLoopScheduledExecutorService#onAbandoned(Future, Runnable)}
+         */
+        private volatile Runnable abandonHook;
+        WheelFuture<?> scheduleNext;
+        WheelFuture<?> cancelNext;
+
+        private WheelFuture(GameLoopScheduledExecutorService executor, Object task, long deadlineNanoTime, long period) {
+            this.executor = executor;
+            this.task = task;
+            this.deadlineNanoTime = deadlineNanoTime;
+            this.period = period;
+        }
+
+        @Override
+        protected void expire() {
+            if (!STATE.compareAndSet(this, PENDING, RUNNING)) {
+                return;
+            }
+
+            if (period == 0) {
+                runOnce();
+                return;
+            }
+
+            try {
+                call();
+            } catch (Throwable t) {
+                complete(EXCEPTIONAL, t);
+                return;
+            }
+
+            //执行过程中可能已经被取消了
+            if (!STATE.compareAndSet(this, RUNNING, PENDING)) {
+                return;
+            }
+
+            if (executor.isShutdown()) {
+                cancel(false);
+                return;
+            }
+
+            deadlineNanoTime = period > 0 ? deadlineNanoTime + period : System.nanoTime() - period;
+            executor.addToWheel(this);
+        }
+
+        @Override
+        public void run() {
+            //只有被拒绝策略直接调用或者从收件箱中取出时才会执行到这里，对于周期性任务，只执行一次
+            if (!STATE.compareAndSet(this, PENDING, RUNNING)) {
+                return;
+            }
+
+            if (period == 0) {
+                runOnce();
+                return;
+            }
+
+            try {
+                call();
+                STATE.compareAndSet(this, RUNNING, PENDING);
+            } catch (Throwable t) {
+                complete(EXCEPTIONAL, t);
+            }
+        }
+
+        private void runOnce() {
+            try {
+                complete(NORMAL, call());
+            } catch (Throwable t) {
+                complete(EXCEPTIONAL, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private V call() throws Exception {
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                return null;
+            }
+
+            return ((Callable<V>) task).call();
+        }
+
+        private void complete(int newState, Object result) {
+            outcome = result;
+            if (STATE.compareAndSet(this, RUNNING, newState)) {
+                signalWaiters();
+            }
+        }
+
+        private synchronized void signalWaiters() {
+            notifyAll();
+        }
+
+        boolean cancelInternal() {
+            for (; ; ) {
+                final int s = state;
+                if (s > RUNNING) {
+                    return false;
+                }
+                if (STATE.compareAndSet(this, s, CANCELLED)) {
+                    signalWaiters();
+                    if (s == PENDING) {
+                        runAbandonHook();
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void onAbandoned(Runnable hook) {
+            abandonHook = hook;
+            if (state == CANCELLED) {
+                runAbandonHook();
+            }
+        }
+
+        private void runAbandonHook() {
+            //GameLoopPromise本身就是任务，直接结束它，参考：GameLoop.promise(EntityFunction)
+            if (task instanceof GameLoopPromise) {
+                ((GameLoopPromise<?>) task).complete(null, executor.gameLoop.abandonedException());
+                return;
+            }
+
+            final Runnable hook = ABANDON_HOOK.getAndSet(this, null);
+            if (hook == null) {
+                return;
+            }
+
+            try {
+                hook.run();
+            } catch (Throwable t) {
+                log.error(Markers.GameLoop, "exception caught in abandon hook, task:" + task, t);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!cancelInternal()) {
+                return false;
+            }
+
+            executor.onCancel(this);
+            return true;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanoTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (o == this) {
+                return 0;
+            }
+
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state > RUNNING;
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            int s = state;
+            if (s <= RUNNING) {
+                synchronized (this) {
+                    while ((s = state) <= RUNNING) {
+                        wait();
+                    }
+                }
+            }
+
+            return report(s);
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            int s = state;
+            if (s <= RUNNING) {
+                final long deadline = System.nanoTime() + unit.toNanos(timeout);
+                synchronized (this) {
+                    while ((s = state) <= RUNNING) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new TimeoutException();
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            }
+
+            return report(s);
+        }
+
+        @SuppressWarnings("unchecked")
+        private V report(int s) throws ExecutionException {
+            if (s == NORMAL) {
+                return (V) outcome;
+            }
+            if (s == CANCELLED) {
+                throw new CancellationException();
+            }
+
+            throw new ExecutionException((Throwable) outcome);
+        }
+
+        @Override
+        public String toString() {
+            return "WheelFuture{" +
+                    "task=" + task +
+                    ", period=" + period +
+                    ", state=" + state +
+                    '}';
+        }
     }
 }
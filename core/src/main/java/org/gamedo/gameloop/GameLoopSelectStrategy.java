@@ -0,0 +1,26 @@
+package org.gamedo.gameloop;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.gameloop.interfaces.IGameLoopGroup;
+
+/**
+ * {@link IGameLoopGroup#selectNext()}的选择策略，可以通过{@link GameLoopConfig#getSelectStrategy()}为每个{@link IGameLoopGroup}
+ * 分别配置。除了{@link #ROUND_ROBIN}之外，其他策略都使用{@link IGameLoop#getPendingTaskCount()}衡量{@link IGameLoop}的繁忙程度，
+ * 该值直接从{@link IGameLoop}的任务队列中读取，不需要向{@link IGameLoop}提交任务
+ */
+public enum GameLoopSelectStrategy {
+    /**
+     * 严格轮询，所有调用方共享同一个计数器，适用于任务开销均匀的场景
+     */
+    ROUND_ROBIN,
+    /**
+     * 随机选择两个{@link IGameLoop}，返回其中待执行任务较少的一个，不需要共享的计数器，并且能够避开被长任务阻塞的{@link IGameLoop}，
+     * 适用于任务开销不均匀的io、worker等{@link IGameLoopGroup}
+     */
+    POWER_OF_TWO_CHOICES,
+    /**
+     * 遍历所有{@link IGameLoop}，返回待执行任务最少的一个（从随机位置开始遍历，相同时返回先遍历到的），选择的开销与{@link IGameLoop}
+     * 的数量成正比
+     */
+    LEAST_PENDING,
+}
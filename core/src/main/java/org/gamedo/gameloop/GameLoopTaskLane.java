@@ -0,0 +1,25 @@
+package org.gamedo.gameloop;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.util.GamedoConfiguration;
+
+/**
+ * {@link IGameLoop}的任务通道，参考：{@link IGameLoop#execute(Runnable, GameLoopTaskLane)}、
+ * {@link IGameLoop#submit(org.gamedo.util.function.EntityFunction, GameLoopTaskLane)}
+ */
+public enum GameLoopTaskLane {
+    /**
+     * 紧急通道，例如玩家的输入：在{@link IGameLoop}执行下一个普通任务之前优先执行，每次最多执行
+     * {@link GamedoConfiguration#getLaneUrgentBatch()}个，因此其延迟只取决于当前正在执行的任务
+     */
+    URGENT,
+    /**
+     * 普通通道，与{@link IGameLoop#execute(Runnable)}等函数提交的任务相同，按照先进先出的顺序执行
+     */
+    NORMAL,
+    /**
+     * 后台通道，例如持久化的回调：每当普通任务队列轮转一圈，最多执行{@link GamedoConfiguration#getLaneBackgroundBatch()}个，
+     * 大量的后台任务不会推迟普通任务和紧急任务
+     */
+    BACKGROUND,
+}
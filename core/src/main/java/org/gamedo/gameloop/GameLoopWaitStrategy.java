@@ -0,0 +1,24 @@
+package org.gamedo.gameloop;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+/**
+ * {@link IGameLoop}线程在没有可执行任务时的等待策略，参考：{@link GameLoopConfig#getWaitStrategy()}。自旋期间不计入
+ * {@link IGameLoop#getBusyNanoTime()}，因此不会影响利用率的统计
+ */
+public enum GameLoopWaitStrategy {
+    /**
+     * 立即阻塞在任务队列上，直到有新的任务或者定时任务到期，不占用cpu，唤醒延迟取决于操作系统的调度（通常为数十微秒）
+     */
+    PARK,
+    /**
+     * 先自旋等待{@link GameLoopConfig#getWaitSpinMicros()}微秒，期间到达的任务不需要唤醒线程，超时后再阻塞，适用于任务密集但偶有空闲的
+     * {@link IGameLoop}
+     */
+    SPIN,
+    /**
+     * 一直自旋等待，永不阻塞，唤醒延迟最低，但会一直占满一个cpu核心，只适用于独占cpu（参考：{@link GameLoopConfig#getCpuAffinity()}）
+     * 的专用服务器
+     */
+    BUSY_SPIN,
+}
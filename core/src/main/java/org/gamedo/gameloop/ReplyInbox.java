@@ -0,0 +1,91 @@
+package org.gamedo.gameloop;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.logging.Markers;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * {@link GameLoop}的回复收件箱，用于{@link GameLoopPromise#onCaller(java.util.function.BiConsumer)}：其他{@link IGameLoop}产生的
+ * 回复先被压入无锁的栈中，只有栈由空变为非空的线程才会向本{@link GameLoop}投递一次处理任务，处理任务在{@link GameLoop}线程内按照
+ * 到达的顺序批量执行所有回复，因此同一时间大量到达的回复只需要一次线程池的投递
+ */
+@Log4j2
+final class ReplyInbox implements Runnable {
+    private static final AtomicReferenceFieldUpdater<ReplyInbox, Node> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(ReplyInbox.class, Node.class, "head");
+
+    private final GameLoop gameLoop;
+    private volatile Node head;
+
+    ReplyInbox(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
+    }
+
+    /**
+     * 投递一个回复，本函数是线程安全的
+     *
+     * @param reply 要在{@link GameLoop}线程内执行的回复
+     */
+    void offer(Runnable reply) {
+        final Node node = new Node(reply);
+        Node old;
+        do {
+            old = head;
+            node.next = old;
+        } while (!HEAD.compareAndSet(this, old, node));
+
+        if (old != null) {
+            return;
+        }
+
+        try {
+            gameLoop.executeInternal(this);
+        } catch (RejectedExecutionException e) {
+            final Node dropped = HEAD.getAndSet(this, null);
+            log.warn(Markers.GameLoop, "the reply is rejected by the gameLoop, drop replies, gameLoop:{}, count:{}",
+                    gameLoop.getId(),
+                    count(dropped));
+        }
+    }
+
+    @Override
+    public void run() {
+        //栈是后进先出的，反转之后按照到达的顺序执行
+        Node node = HEAD.getAndSet(this, null);
+        Node reversed = null;
+        while (node != null) {
+            final Node next = node.next;
+            node.next = reversed;
+            reversed = node;
+            node = next;
+        }
+
+        for (; reversed != null; reversed = reversed.next) {
+            try {
+                reversed.reply.run();
+            } catch (Throwable t) {
+                log.error(Markers.GameLoop, "exception caught in reply, gameLoop:" + gameLoop.getId(), t);
+            }
+        }
+    }
+
+    private static int count(Node node) {
+        int count = 0;
+        for (; node != null; node = node.next) {
+            count++;
+        }
+        return count;
+    }
+
+    private static final class Node {
+        private final Runnable reply;
+        private Node next;
+
+        private Node(Runnable reply) {
+            this.reply = reply;
+        }
+    }
+}
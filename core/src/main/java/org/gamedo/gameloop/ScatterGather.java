@@ -0,0 +1,214 @@
+package org.gamedo.gameloop;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.gameloop.interfaces.IGameLoopGroup;
+import org.gamedo.util.function.EntityFunction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+
+/**
+ * {@link IGameLoopGroup}的分发-汇总查询：把一个操作分发到一组{@link IGameLoop}上执行，每个{@link IGameLoop}把结果直接写入预先分配的
+ * 结果数组中自己的槽位，并对剩余计数减一，最后一个完成的{@link IGameLoop}负责汇总（或者把汇总交给调用方指定的{@link Executor}）。
+ * 和对每个{@link IGameLoop}分别调用{@link IGameLoop#submit(EntityFunction)}再通过{@link CompletableFuture#allOf(CompletableFuture[])}
+ * 等待相比，每次查询只需要一个{@link CompletableFuture}，也不需要为每个结果创建中间对象<p>
+ * 任意{@link IGameLoop}执行时抛出的异常都会被记录下来（只保留第一个），在所有{@link IGameLoop}都完成之后，返回的{@link CompletableFuture}
+ * 以该异常结束
+ *
+ * @param <R> 汇总后的结果类型
+ */
+final class ScatterGather<R> {
+    /**
+     * 被过滤掉的{@link IGameLoop}在结果数组中的占位
+     */
+    private static final Object SKIPPED = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ScatterGather> REMAINING =
+            AtomicIntegerFieldUpdater.newUpdater(ScatterGather.class, "remaining");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ScatterGather, Throwable> THROWABLE =
+            AtomicReferenceFieldUpdater.newUpdater(ScatterGather.class, Throwable.class, "throwable");
+
+    private final IGameLoop[] gameLoops;
+    private final Object[] results;
+    private final BiFunction<IGameLoop[], Object[], R> gatherer;
+    private final Executor executor;
+    private final CompletableFuture<R> future = new CompletableFuture<>();
+    private volatile int remaining;
+    private volatile Throwable throwable;
+
+    private ScatterGather(IGameLoop[] gameLoops, BiFunction<IGameLoop[], Object[], R> gatherer, Executor executor) {
+        this.gameLoops = gameLoops;
+        this.gatherer = gatherer;
+        this.executor = executor;
+        results = new Object[gameLoops.length];
+        remaining = gameLoops.length;
+    }
+
+    /**
+     * 在每个{@link IGameLoop}上执行chooser，并返回比较结果最小的前limit个{@link IGameLoop}，相等时保持原有的顺序
+     *
+     * @param gameLoops  参与查询的{@link IGameLoop}，不会被修改
+     * @param chooser    比较元素抽取器
+     * @param comparator 元素比较器
+     * @param limit      最大返回的{@link IGameLoop}的个数
+     * @param executor   执行汇总的{@link Executor}，为null时在最后一个完成的{@link IGameLoop}线程内汇总
+     * @param <C>        比较元素的类型
+     * @return 选择的结果
+     */
+    static <C> CompletableFuture<List<IGameLoop>> select(IGameLoop[] gameLoops,
+                                                         EntityFunction<IGameLoop, C> chooser,
+                                                         Comparator<C> comparator,
+                                                         int limit,
+                                                         Executor executor) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(Integer.toString(limit));
+        }
+
+        return new ScatterGather<List<IGameLoop>>(gameLoops,
+                (loops, keys) -> topK(loops, keys, comparator, limit),
+                executor)
+                .scatter(chooser::apply);
+    }
+
+    /**
+     * 在每个满足filter的{@link IGameLoop}上执行function，并按照{@link IGameLoop}的顺序返回结果
+     *
+     * @param gameLoops 参与查询的{@link IGameLoop}，不会被修改
+     * @param filter    过滤器
+     * @param function  要执行的操作
+     * @param executor  执行汇总的{@link Executor}，为null时在最后一个完成的{@link IGameLoop}线程内汇总
+     * @param <R>       返回值类型
+     * @return 返回值集合
+     */
+    static <R> CompletableFuture<List<R>> submit(IGameLoop[] gameLoops,
+                                                 EntityFunction<IGameLoop, Boolean> filter,
+                                                 EntityFunction<IGameLoop, R> function,
+                                                 Executor executor) {
+        return new ScatterGather<List<R>>(gameLoops, ScatterGather::collect, executor)
+                .scatter(gameLoop -> filter.apply(gameLoop) ? function.apply(gameLoop) : SKIPPED);
+    }
+
+    private CompletableFuture<R> scatter(EntityFunction<IGameLoop, Object> function) {
+        if (gameLoops.length == 0) {
+            gather();
+            return future;
+        }
+
+        for (int i = 0; i < gameLoops.length; i++) {
+            final int index = i;
+            final IGameLoop gameLoop = gameLoops[i];
+            final Runnable task = () -> {
+                try {
+                    results[index] = function.apply(gameLoop);
+                } catch (Throwable t) {
+                    THROWABLE.compareAndSet(this, null, t);
+                }
+                countDown();
+            };
+            try {
+                if (gameLoop.inThread()) {
+                    task.run();
+                } else if (gameLoop instanceof GameLoop) {
+                    //任务在执行之前被丢弃时同样需要计数，否则返回的CompletableFuture永远不会结束
+                    final GameLoop target = (GameLoop) gameLoop;
+                    target.execute(task, () -> {
+                        THROWABLE.compareAndSet(this, null, target.abandonedException());
+                        countDown();
+                    });
+                } else {
+                    gameLoop.execute(task);
+                }
+            } catch (Throwable t) {
+                THROWABLE.compareAndSet(this, null, t);
+                countDown();
+            }
+        }
+
+        return future;
+    }
+
+    private void countDown() {
+        //原子的减一操作保证了最后一个完成者能够看到其他线程写入结果数组的值
+        if (REMAINING.decrementAndGet(this) != 0) {
+            return;
+        }
+
+        if (executor == null) {
+            gather();
+            return;
+        }
+
+        try {
+            executor.execute(this::gather);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void gather() {
+        if (throwable != null) {
+            future.completeExceptionally(throwable);
+            return;
+        }
+
+        try {
+            future.complete(gatherer.apply(gameLoops, results));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> List<R> collect(IGameLoop[] gameLoops, Object[] results) {
+        final List<R> list = new ArrayList<>(results.length);
+        for (Object result : results) {
+            if (result != SKIPPED) {
+                list.add((R) result);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * 部分插入排序：只维护前k个元素的有序下标，k很小（通常是1）时接近线性，并且和稳定排序的结果一致
+     */
+    @SuppressWarnings("unchecked")
+    private static <C> List<IGameLoop> topK(IGameLoop[] gameLoops, Object[] keys, Comparator<C> comparator, int limit) {
+        final int k = Math.min(limit, gameLoops.length);
+        if (k == 0) {
+            return Collections.emptyList();
+        }
+
+        final int[] top = new int[k];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            final C key = (C) keys[i];
+            if (size == k && comparator.compare(key, (C) keys[top[k - 1]]) >= 0) {
+                continue;
+            }
+
+            int j = size < k ? size++ : k - 1;
+            while (j > 0 && comparator.compare(key, (C) keys[top[j - 1]]) < 0) {
+                top[j] = top[j - 1];
+                j--;
+            }
+            top[j] = i;
+        }
+
+        final List<IGameLoop> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(gameLoops[top[i]]);
+        }
+
+        return list;
+    }
+}
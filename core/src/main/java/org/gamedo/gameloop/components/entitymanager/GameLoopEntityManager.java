@@ -5,35 +5,65 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.extern.log4j.Log4j2;
+import org.gamedo.annotation.Cron;
 import org.gamedo.annotation.GamedoComponent;
+import org.gamedo.annotation.Subscribe;
+import org.gamedo.annotation.Tick;
 import org.gamedo.ecs.GameLoopComponent;
 import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPost;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPre;
 import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntityPost;
 import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntityPre;
 import org.gamedo.gameloop.components.eventbus.event.EventUnregisterEntityPost;
 import org.gamedo.gameloop.components.eventbus.event.EventUnregisterEntityPre;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
+import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManager;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.logging.Markers;
+import org.gamedo.util.AnnotatedMethodCache;
 import org.gamedo.util.GamedoConfiguration;
 import org.gamedo.util.Metric;
 import org.gamedo.util.Pair;
-import org.gamedo.util.function.GameLoopFunction;
 import org.gamedo.util.function.IGameLoopEventBusFunction;
 import org.gamedo.util.function.IGameLoopSchedulerFunction;
+import org.gamedo.util.function.IGameLoopSystemManagerFunction;
 import org.gamedo.util.function.IGameLoopTickManagerFunction;
 
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 @Log4j2
 @GamedoComponent
 public class GameLoopEntityManager extends GameLoopComponent implements IGameLoopEntityManager {
     private final Map<String, IEntity> entityMap = new HashMap<>(512);
+    /**
+     * 实体的类型 --> 该类型的所有实体，随着注册、反注册增量维护，用于按类型查询以及实体数量的统计
+     */
+    private final Map<Class<? extends IEntity>, Map<String, IEntity>> entityClazz2EntityMap = new HashMap<>(8);
     private final Map<String, Pair<AtomicLong, Gauge>> entityClazzMap = new HashMap<>(4);
+    /**
+     * 迁出中的实体id --> 迁出时从调度器上摘下的定时器，参考：{@link #releaseTimers(String)}
+     */
+    private final Map<String, List<IGameLoopTimer>> migratingTimerMap = new HashMap<>(4);
 
     public GameLoopEntityManager(IGameLoop owner) {
         super(owner);
@@ -50,13 +80,10 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
 
         log.debug(Markers.GameLoopEntityManager, "register begin, entityId:{}", () -> entityId);
 
-        final String gameLoopId = owner.getId();
         final Class<? extends IEntity> entityClazz = entity.getClass();
 
         //1 触发Pre事件
-        final EventRegisterEntityPre eventRegisterEntityPre = new EventRegisterEntityPre(entityId, gameLoopId);
-        final GameLoopFunction<Integer> eventPreFunction = IGameLoopEventBusFunction.post(eventRegisterEntityPre);
-        owner.submit(eventPreFunction);
+        postLifecycleEvent(EventRegisterEntityPre.class, EventRegisterEntityPre::new, entityId);
 
         //2 注册IEntity的事件监听
         owner.submit(IGameLoopEventBusFunction.register(entity));
@@ -83,12 +110,12 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
                 .forEach(component -> owner.submit(IGameLoopTickManagerFunction.register(component)));
 
         //5 加入管理
-        entityMap.put(entityId, entity);
+        addEntity(entity);
+        //5.1 加入所有匹配的系统
+        owner.submit(IGameLoopSystemManagerFunction.addEntity(entity));
 
         //6 触发Post事件
-        final EventRegisterEntityPost registerEntityPost = new EventRegisterEntityPost(entityId, gameLoopId);
-        final GameLoopFunction<Integer> eventPostFunction = IGameLoopEventBusFunction.post(registerEntityPost);
-        owner.submit(eventPostFunction);
+        postLifecycleEvent(EventRegisterEntityPost.class, EventRegisterEntityPost::new, entityId);
 
         log.debug(Markers.GameLoopEntityManager, "register finish, entityId:{}", () -> entityId);
 
@@ -97,6 +124,112 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
         return true;
     }
 
+    @Override
+    public int registerEntities(Collection<? extends IEntity> entities) {
+
+        final List<IEntity> entityList = new ArrayList<>(entities.size());
+        final Set<String> entityIdSet = new HashSet<>(entities.size());
+        for (IEntity entity : entities) {
+            final String entityId = entity.getId();
+            if (entityMap.containsKey(entityId) || !entityIdSet.add(entityId)) {
+                log.error(Markers.GameLoopEntityManager, "the entity has registered, entityId:{}", entityId);
+                continue;
+            }
+
+            entityList.add(entity);
+        }
+
+        if (entityList.isEmpty()) {
+            return 0;
+        }
+
+        log.debug(Markers.GameLoopEntityManager, "batch register begin, count:{}", () -> entityList.size());
+
+        final String gameLoopId = owner.getId();
+        //整批实体只查询一次组件，并直接调用，而不是每个实体、每个组件都通过owner.submit包装一次
+        final Optional<IGameLoopEventBus> eventBus = owner.getComponent(IGameLoopEventBus.class);
+        final Optional<IGameLoopScheduler> scheduler = owner.getComponent(IGameLoopScheduler.class);
+        final Optional<IGameLoopTickManager> tickManager = owner.getComponent(IGameLoopTickManager.class);
+        final Optional<IGameLoopSystemManager> systemManager = owner.getComponent(IGameLoopSystemManager.class);
+
+        //没有订阅者时，不需要创建id列表以及事件
+        List<String> entityIdList = null;
+
+        //1 触发聚合的Pre事件
+        if (eventBus.isPresent() && eventBus.get().hasSubscriber(EventRegisterEntitiesPre.class)) {
+            entityIdList = toEntityIdList(entityList);
+            eventBus.get().post(new EventRegisterEntitiesPre(entityIdList, gameLoopId));
+        }
+
+        //2 注册IEntity及其组件的事件监听
+        eventBus.ifPresent(bus -> entityList.forEach(entity -> registerAnnotated(entity, Subscribe.class, bus::register)));
+
+        //3 注册IEntity及其组件的@Cron方法
+        scheduler.ifPresent(cron -> entityList.forEach(entity -> registerAnnotated(entity, Cron.class, cron::register)));
+
+        //4 注册IEntity及其组件的@Tick方法
+        tickManager.ifPresent(tick -> entityList.forEach(entity -> registerAnnotated(entity, Tick.class, tick::register)));
+
+        //5 加入管理
+        final Set<Class<? extends IEntity>> entityClazzSet = new HashSet<>(4);
+        entityList.forEach(entity -> {
+            addEntity(entity);
+            entityClazzSet.add(entity.getClass());
+        });
+        //5.1 加入所有匹配的系统
+        systemManager.ifPresent(system -> entityList.forEach(system::addEntity));
+
+        //6 触发聚合的Post事件
+        //本批实体自身也可能订阅了Post事件，因此注册完成之后再检测
+        if (eventBus.isPresent() && eventBus.get().hasSubscriber(EventRegisterEntitiesPost.class)) {
+            entityIdList = entityIdList == null ? toEntityIdList(entityList) : entityIdList;
+            eventBus.get().post(new EventRegisterEntitiesPost(entityIdList, gameLoopId));
+        }
+
+        log.debug(Markers.GameLoopEntityManager, "batch register finish, count:{}", () -> entityList.size());
+
+        entityClazzSet.forEach(this::metricGauge);
+
+        return entityList.size();
+    }
+
+    private static List<String> toEntityIdList(List<IEntity> entityList) {
+        return Collections.unmodifiableList(entityList.stream()
+                .map(IEntity::getId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 投递一个生命周期事件，如果该事件没有任何订阅者，则既不创建事件也不投递
+     */
+    private <T extends IEvent> void postLifecycleEvent(Class<T> eventClazz,
+                                                       BiFunction<String, String, T> eventFactory,
+                                                       String entityId) {
+        final IGameLoopEventBus eventBus = owner.getComponent(IGameLoopEventBus.class).orElse(null);
+        if (eventBus == null || !eventBus.hasSubscriber(eventClazz)) {
+            return;
+        }
+
+        eventBus.post(eventFactory.apply(entityId, owner.getId()));
+    }
+
+    /**
+     * 将实体及其组件注册到某个组件上，只有在类的元数据（参考：{@link AnnotatedMethodCache}）中存在注解方法时才会真正注册
+     */
+    private static void registerAnnotated(IEntity entity,
+                                          Class<? extends Annotation> annotation,
+                                          ToIntFunction<Object> register) {
+        if (!AnnotatedMethodCache.getAnnotatedMethods(entity.getClass(), annotation).isEmpty()) {
+            register.applyAsInt(entity);
+        }
+
+        entity.getComponentMap().values()
+                .stream()
+                .distinct()
+                .filter(component -> !AnnotatedMethodCache.getAnnotatedMethods(component.getClass(), annotation).isEmpty())
+                .forEach(register::applyAsInt);
+    }
+
     @Override
     public Optional<IEntity> unregisterEntity(String entityId) {
 
@@ -105,13 +238,13 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
             return Optional.empty();
         }
 
-        final String gameLoopId = owner.getId();
         final Class<? extends IEntity> entityClazz = entity.getClass();
 
         //1 触发Pre事件
-        final EventUnregisterEntityPre eventUnregisterEntityPre = new EventUnregisterEntityPre(entityId, gameLoopId);
-        final GameLoopFunction<Integer> eventPreFunction = IGameLoopEventBusFunction.post(eventUnregisterEntityPre);
-        owner.submit(eventPreFunction);
+        postLifecycleEvent(EventUnregisterEntityPre.class, EventUnregisterEntityPre::new, entityId);
+
+        //1.1 从所有系统中移除
+        owner.submit(IGameLoopSystemManagerFunction.removeEntity(entity));
 
         //2 反注册组件的@Tick函数
         entity.getComponentMap().values()
@@ -128,6 +261,8 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
                 .forEach(component -> owner.submit(IGameLoopSchedulerFunction.unregister(component.getClass())));
         //3.1 反注册IEntity的@Cron函数
         owner.submit(IGameLoopSchedulerFunction.unregister(entity.getClass()));
+        //3.2 取消IEntity拥有的所有定时器
+        owner.submit(IGameLoopSchedulerFunction.cancelTimers(entityId));
 
         //4 反注册组件的事件监听
         entity.getComponentMap().values()
@@ -138,18 +273,79 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
         owner.submit(IGameLoopEventBusFunction.unregister(entity));
 
         //5 再然后移除管理
-        entityMap.remove(entityId);
+        removeEntity(entity);
 
         //6 触发post事件
-        final EventUnregisterEntityPost eventUnregisterEntityPost = new EventUnregisterEntityPost(entityId, gameLoopId);
-        final GameLoopFunction<Integer> eventPostFunction = IGameLoopEventBusFunction.post(eventUnregisterEntityPost);
-        owner.submit(eventPostFunction);
+        postLifecycleEvent(EventUnregisterEntityPost.class, EventUnregisterEntityPost::new, entityId);
 
         metricGauge(entityClazz);
 
         return Optional.of(entity);
     }
 
+    @Override
+    public Optional<IEntity> migrateOut(String entityId) {
+
+        if (!entityMap.containsKey(entityId)) {
+            return Optional.empty();
+        }
+
+        //反注册会取消实体的所有定时器，因此需要先摘下来，之后移交给目标IGameLoop
+        final List<IGameLoopTimer> timerList = IGameLoopSchedulerFunction.detachTimers(entityId).apply(owner);
+        if (!timerList.isEmpty()) {
+            migratingTimerMap.put(entityId, timerList);
+        }
+
+        final Optional<IEntity> optionalEntity = unregisterEntity(entityId);
+        optionalEntity.ifPresent(entity -> owner.getComponent(IGameLoopEventBus.class)
+                .ifPresent(eventBus -> eventBus.holdEvents(entityId, entityAndComponents(entity))));
+
+        log.debug(Markers.GameLoopEntityManager, "migrate out, entityId:{}, result:{}, timers:{}",
+                () -> entityId,
+                () -> optionalEntity.isPresent(),
+                () -> timerList.size());
+
+        return optionalEntity;
+    }
+
+    @Override
+    public List<IEvent> finishMigrateOut(String entityId) {
+        return owner.getComponent(IGameLoopEventBus.class)
+                .map(eventBus -> eventBus.releaseEvents(entityId))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<IGameLoopTimer> releaseTimers(String entityId) {
+        final List<IGameLoopTimer> timerList = migratingTimerMap.remove(entityId);
+        return timerList == null ? Collections.emptyList() : timerList;
+    }
+
+    @Override
+    public int deliverEvents(String entityId, List<? extends IEvent> events) {
+
+        final IEntity entity = entityMap.get(entityId);
+        final Optional<IGameLoopEventBus> eventBus = owner.getComponent(IGameLoopEventBus.class);
+        if (entity == null || eventBus.isEmpty() || events.isEmpty()) {
+            return 0;
+        }
+
+        final List<Object> objectList = entityAndComponents(entity);
+        return events.stream()
+                .mapToInt(event -> objectList.stream().mapToInt(object -> eventBus.get().post(object, event)).sum())
+                .sum();
+    }
+
+    private static List<Object> entityAndComponents(IEntity entity) {
+        final List<Object> objectList = new ArrayList<>(entity.getComponentMap().size() + 1);
+        objectList.add(entity);
+        entity.getComponentMap().values()
+                .stream()
+                .distinct()
+                .forEach(objectList::add);
+        return objectList;
+    }
+
     @Override
     public boolean hasEntity(String entityId) {
         return entityMap.containsKey(entityId);
@@ -160,11 +356,41 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
         return entityMap.size();
     }
 
+    @Override
+    public int getEntityCount(Class<? extends IEntity> entityClazz) {
+        final Map<String, IEntity> map = entityClazz2EntityMap.get(entityClazz);
+        return map == null ? 0 : map.size();
+    }
+
     @Override
     public Map<String, IEntity> getEntityMap() {
         return Collections.unmodifiableMap(entityMap);
     }
 
+    @Override
+    public <T extends IEntity> Map<String, T> getEntityMap(Class<T> entityClazz) {
+        //noinspection unchecked
+        return (Map<String, T>) (Map<String, ?>) Collections.unmodifiableMap(entityClazz2EntityMap.computeIfAbsent(entityClazz,
+                key -> new LinkedHashMap<>(64)));
+    }
+
+    private void addEntity(IEntity entity) {
+        entityMap.put(entity.getId(), entity);
+        entityClazz2EntityMap.computeIfAbsent(entity.getClass(), key -> new LinkedHashMap<>(64))
+                .put(entity.getId(), entity);
+        owner.owner().ifPresent(gameLoopGroup -> gameLoopGroup.getEntityDirectory().put(entity.getId(), owner));
+    }
+
+    private void removeEntity(IEntity entity) {
+        entityMap.remove(entity.getId());
+        //即使该类型已经没有实体了也保留，使得之前通过getEntityMap(Class)返回的视图依然有效
+        final Map<String, IEntity> map = entityClazz2EntityMap.get(entity.getClass());
+        if (map != null) {
+            map.remove(entity.getId());
+        }
+        owner.owner().ifPresent(gameLoopGroup -> gameLoopGroup.getEntityDirectory().remove(entity.getId(), owner));
+    }
+
     private void metricGauge(Class<? extends IEntity> entityClazz) {
         owner.getComponent(MeterRegistry.class)
                 .map(meterRegistry -> GamedoConfiguration.isMetricEntityEnable() ? meterRegistry : null)
@@ -185,11 +411,4 @@ public class GameLoopEntityManager extends GameLoopComponent implements IGameLoo
                     ).getK().set(entityCountNew);
                 });
     }
-
-    private long getEntityCount(Class<?> clazz) {
-        return entityMap.values()
-                .stream()
-                .filter(entity -> entity.getClass().equals(clazz))
-                .count();
-    }
 }
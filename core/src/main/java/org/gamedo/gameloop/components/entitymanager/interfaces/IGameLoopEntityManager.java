@@ -2,9 +2,19 @@ package org.gamedo.gameloop.components.entitymanager.interfaces;
 
 import org.gamedo.ecs.interfaces.IComponent;
 import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPost;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPre;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntityPost;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntityPre;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -21,6 +31,20 @@ public interface IGameLoopEntityManager extends IComponent<IGameLoop> {
      */
     boolean registerEntity(IEntity entity);
 
+    /**
+     * 批量注册实体到本{@link IGameLoopEntityManager 管理器}中，和逐个调用{@link #registerEntity(IEntity)}相比：
+     * <ul>
+     * <li> 每个类的注解方法只解析一次，之后同类的实体直接复用
+     * <li> 整批实体只投递一次聚合的{@link EventRegisterEntitiesPre}和{@link EventRegisterEntitiesPost}事件，不再投递单个实体的
+     * {@link EventRegisterEntityPre}和{@link EventRegisterEntityPost}事件
+     * </ul>
+     * 适用于一次性加载大量实体的场景，例如加载一个场景内的所有怪物
+     *
+     * @param entities 要注册的实体，已经存在（或者在本批次中重复）的实体会被忽略
+     * @return 注册成功的实体数量
+     */
+    int registerEntities(Collection<? extends IEntity> entities);
+
     /**
      * 从管理器中取消一个实体的注册，之后该实体不再归本管理管理
      * @param entityId 要进行反注册的实体Id
@@ -28,6 +52,44 @@ public interface IGameLoopEntityManager extends IComponent<IGameLoop> {
      */
     Optional<IEntity> unregisterEntity(String entityId);
 
+    /**
+     * 迁出一个实体，是实体在{@link IGameLoop}之间迁移的第一步：执行完整的反注册流程（参考：{@link #unregisterEntity(String)}），并且开
+     * 始在本{@link IGameLoop}的{@link IGameLoopEventBus}上为该实体及其组件暂存事件，直到调用{@link #finishMigrateOut(String)}。与反注册
+     * 不同的是，实体拥有的定时器不会被取消，而是被摘下并暂存，之后需要通过{@link #releaseTimers(String)}取出，并挂载到迁入的
+     * {@link IGameLoop}上（参考：{@link IGameLoopScheduler#attachTimers(List)}）
+     *
+     * @param entityId 要迁出的实体Id
+     * @return 如果实体不在管理器中，则返回{@link Optional#empty()}，否则返回迁出的实体
+     * @see org.gamedo.gameloop.interfaces.IGameLoopGroup#migrate(String, IGameLoop)
+     */
+    Optional<IEntity> migrateOut(String entityId);
+
+    /**
+     * 结束迁出，停止暂存事件
+     *
+     * @param entityId 迁出的实体Id
+     * @return 迁出期间暂存的所有事件，按照投递顺序排列
+     */
+    List<IEvent> finishMigrateOut(String entityId);
+
+    /**
+     * 取出迁出时摘下的定时器，取出之后本管理器不再持有这些定时器，调用者需要把它们挂载到实体最终所在的{@link IGameLoop}上，否则这些定时
+     * 器永远不会到期
+     *
+     * @param entityId 迁出的实体Id
+     * @return 迁出时摘下的所有定时器，如果没有，返回空列表
+     */
+    List<IGameLoopTimer> releaseTimers(String entityId);
+
+    /**
+     * 将事件逐个投递给本管理器中的某个实体及其所有组件，而不是投递给所有的订阅者，一般用于将迁出期间暂存的事件转交给迁入后的实体
+     *
+     * @param entityId 实体Id
+     * @param events   要投递的事件
+     * @return 正常消费事件的数量，如果实体不存在，返回0
+     */
+    int deliverEvents(String entityId, List<? extends IEvent> events);
+
     /**
      * 检测是否包含一个实体
      * @param entityId 要检测的实体的Id
@@ -41,9 +103,27 @@ public interface IGameLoopEntityManager extends IComponent<IGameLoop> {
      */
     int getEntityCount();
 
+    /**
+     * 返回某个类型的实体的数量，该数量是随着注册、反注册增量维护的，因此是O(1)的
+     *
+     * @param entityClazz 实体的类型，只匹配精确类型，不包括子类
+     * @return 该类型的实体的数量
+     */
+    int getEntityCount(Class<? extends IEntity> entityClazz);
+
     /**
      * 返回一个无法被修改的{@link Collections#unmodifiableMap(Map) Map}副本
      * @return key : value: 实体的Id : 实体本身
      */
     Map<String, IEntity> getEntityMap();
+
+    /**
+     * 返回某个类型的所有实体组成的无法被修改的{@link Collections#unmodifiableMap(Map) Map}视图，该视图会随着实体的注册、反注册实时变化，
+     * 因此可以被缓存下来重复使用，例如：遍历本{@link IGameLoop}上的所有怪物
+     *
+     * @param entityClazz 实体的类型，只匹配精确类型，不包括子类
+     * @param <T>         实体的类型
+     * @return key : value: 实体的Id : 实体本身，按照注册的先后顺序排列
+     */
+    <T extends IEntity> Map<String, T> getEntityMap(Class<T> entityClazz);
 }
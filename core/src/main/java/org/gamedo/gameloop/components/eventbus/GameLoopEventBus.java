@@ -7,11 +7,14 @@ import lombok.extern.log4j.Log4j2;
 import org.gamedo.annotation.GamedoComponent;
 import org.gamedo.annotation.Subscribe;
 import org.gamedo.ecs.GameLoopComponent;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEntityEvent;
 import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.logging.GamedoLogContext;
 import org.gamedo.logging.Markers;
+import org.gamedo.util.AnnotatedMethodCache;
 import org.gamedo.util.Metric;
 import org.gamedo.util.Pair;
 import org.gamedo.util.GamedoConfiguration;
@@ -29,6 +32,10 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
     private final Map<Class<? extends IEvent>, List<EventData>> eventClazzName2EventDataMap = new HashMap<>(128);
     private final Deque<Class<?>> eventPostStack = new LinkedList<>();
     private final Map<String, Pair<AtomicLong, Gauge>> eventClazzName2GaugeMap = new HashMap<>(128);
+    /**
+     * 暂存的标识 --> 为其暂存的事件
+     */
+    private final Map<String, HeldEvents> holderId2HeldEventsMap = new HashMap<>(4);
 
     public GameLoopEventBus(IGameLoop owner) {
         super(owner);
@@ -72,9 +79,7 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
     public int register(Object object) {
 
         final Class<?> clazz = object.getClass();
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz))
-                .filter(method -> method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(clazz, Subscribe.class);
 
         if (annotatedMethodSet.isEmpty()) {
             log.info(Markers.GameLoopEventBus, "none annotation {} method found, clazz:{}",
@@ -84,7 +89,6 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
         }
 
         final int count = (int) annotatedMethodSet.stream()
-                .filter(method -> method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic())
                 .filter(method -> register(object, method))
                 .count();
 
@@ -172,12 +176,9 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
     public int unregister(Object object) {
 
         final Class<?> objectClazz = object.getClass();
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(objectClazz))
-                .filter(method -> method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(objectClazz, Subscribe.class);
 
         return (int) annotatedMethodSet.stream()
-                .filter(method -> method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic())
                 .filter(method -> unregister(object, method))
                 .count();
     }
@@ -249,6 +250,18 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
     public int post(IEvent iEvent) {
 
         final Class<? extends IEvent> eventClazz = iEvent.getClass();
+        //投递之前先激活被钝化的目标实体，使其订阅者能够被注册
+        if (iEvent instanceof IEntityEvent) {
+            final String entityId = ((IEntityEvent) iEvent).getEntityId();
+            owner.getComponent(IGameLoopPassivationManager.class)
+                    .filter(passivationManager -> passivationManager.isPassivated(entityId))
+                    .ifPresent(passivationManager -> passivationManager.activate(entityId));
+        }
+
+        if (!holderId2HeldEventsMap.isEmpty()) {
+            holderId2HeldEventsMap.values().forEach(heldEvents -> heldEvents.hold(iEvent));
+        }
+
         final Optional<List<EventData>> optionalEventDataList = Optional.ofNullable(eventClazzName2EventDataMap.get(eventClazz));
         if (optionalEventDataList.isEmpty()) {
             return 0;
@@ -282,4 +295,83 @@ public class GameLoopEventBus extends GameLoopComponent implements IGameLoopEven
 
         return count;
     }
+
+    @Override
+    public boolean hasSubscriber(Class<? extends IEvent> eventClazz) {
+        final List<EventData> eventDataList = eventClazzName2EventDataMap.get(eventClazz);
+        if (eventDataList != null && !eventDataList.isEmpty()) {
+            return true;
+        }
+
+        if (holderId2HeldEventsMap.isEmpty()) {
+            return false;
+        }
+
+        return holderId2HeldEventsMap.values()
+                .stream()
+                .anyMatch(heldEvents -> heldEvents.eventClazzSet.contains(eventClazz));
+    }
+
+    @Override
+    public int post(Object object, IEvent iEvent) {
+
+        final Class<? extends IEvent> eventClazz = iEvent.getClass();
+        return (int) AnnotatedMethodCache.getAnnotatedMethods(object.getClass(), Subscribe.class)
+                .stream()
+                .filter(method -> method.getParameterCount() == 1 && method.getParameterTypes()[0] == eventClazz)
+                .filter(method -> safeInvoke(new EventData(object, method), iEvent))
+                .count();
+    }
+
+    @Override
+    public boolean holdEvents(String holderId, Collection<?> objects) {
+
+        if (holderId2HeldEventsMap.containsKey(holderId)) {
+            return false;
+        }
+
+        final Set<Class<?>> eventClazzSet = objects.stream()
+                .flatMap(object -> AnnotatedMethodCache.getAnnotatedMethods(object.getClass(), Subscribe.class).stream())
+                .filter(method -> method.getParameterCount() == 1)
+                .map(method -> method.getParameterTypes()[0])
+                .collect(Collectors.toSet());
+
+        holderId2HeldEventsMap.put(holderId, new HeldEvents(eventClazzSet));
+
+        log.debug(Markers.GameLoopEventBus, "hold events, holderId:{}, event clazz:{}",
+                () -> holderId,
+                () -> eventClazzSet.stream().map(Class::getSimpleName).collect(Collectors.toList()));
+
+        return true;
+    }
+
+    @Override
+    public List<IEvent> releaseEvents(String holderId) {
+
+        final HeldEvents heldEvents = holderId2HeldEventsMap.remove(holderId);
+        if (heldEvents == null) {
+            return Collections.emptyList();
+        }
+
+        log.debug(Markers.GameLoopEventBus, "release events, holderId:{}, count:{}",
+                () -> holderId,
+                () -> heldEvents.eventList.size());
+
+        return heldEvents.eventList;
+    }
+
+    private static final class HeldEvents {
+        private final Set<Class<?>> eventClazzSet;
+        private final List<IEvent> eventList = new ArrayList<>(4);
+
+        private HeldEvents(Set<Class<?>> eventClazzSet) {
+            this.eventClazzSet = eventClazzSet;
+        }
+
+        private void hold(IEvent iEvent) {
+            if (eventClazzSet.contains(iEvent.getClass())) {
+                eventList.add(iEvent);
+            }
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package org.gamedo.gameloop.components.eventbus.event;
+
+import lombok.Value;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+
+import java.util.List;
+
+@Value
+public class EventRegisterEntitiesPre implements IEvent {
+    List<String> entityIdList;
+    String gameLoopId;
+}
@@ -0,0 +1,16 @@
+package org.gamedo.gameloop.components.eventbus.interfaces;
+
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+
+/**
+ * 发送给某个特定{@link IEntity}的事件，和普通的{@link IEvent}一样广播给所有订阅者，区别在于：如果目标实体已经被钝化（参考：
+ * {@link IGameLoopPassivationManager}），那么{@link IGameLoopEventBus}在投递之前会先将其激活，使其能够收到本事件
+ */
+public interface IEntityEvent extends IEvent {
+
+    /**
+     * @return 目标实体的id
+     */
+    String getEntityId();
+}
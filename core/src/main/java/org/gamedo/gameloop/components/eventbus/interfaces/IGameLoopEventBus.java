@@ -4,6 +4,9 @@ import org.gamedo.annotation.Subscribe;
 import org.gamedo.ecs.interfaces.IComponent;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface IGameLoopEventBus extends IComponent<IGameLoop> {
 
     /**
@@ -29,4 +32,40 @@ public interface IGameLoopEventBus extends IComponent<IGameLoop> {
      * @return 正常消费该事件的数量（抛出异常的事件处理器不包含在内）
      */
     int post(IEvent iEvent);
+
+    /**
+     * 检测某种类型的事件当前是否有订阅者（包括正在为之暂存事件的实例，参考：{@link #holdEvents(String, Collection)}），投递没有订阅者的
+     * 事件不会产生任何效果，因此调用者可以据此跳过事件的创建以及投递
+     *
+     * @param eventClazz 事件的类型
+     * @return 如果有订阅者，返回true
+     */
+    boolean hasSubscriber(Class<? extends IEvent> eventClazz);
+
+    /**
+     * 只将事件投递给某个实例，也即只调用该实例中订阅了该事件的{@link Subscribe}方法，该实例不需要注册到本{@link IGameLoopEventBus}上
+     *
+     * @param object 要投递的实例
+     * @param iEvent 要投递的事件
+     * @return 正常消费该事件的数量（抛出异常的事件处理器不包含在内）
+     */
+    int post(Object object, IEvent iEvent);
+
+    /**
+     * 开始为一组实例暂存事件：之后投递到本{@link IGameLoopEventBus}上的事件，只要这组实例中有任何一个订阅了该事件，都会被暂存起来，直到
+     * 调用{@link #releaseEvents(String)}，一般用于实体在{@link IGameLoop}之间迁移期间，避免丢失事件
+     *
+     * @param holderId 暂存的标识，一般为实体的id
+     * @param objects  要暂存事件的实例，一般为实体及其所有组件
+     * @return 开始暂存返回true，如果该标识已经在暂存中，返回false
+     */
+    boolean holdEvents(String holderId, Collection<?> objects);
+
+    /**
+     * 停止暂存事件，并返回所有暂存的事件
+     *
+     * @param holderId 暂存的标识
+     * @return 按照投递顺序排列的暂存事件，如果没有暂存，返回空列表
+     */
+    List<IEvent> releaseEvents(String holderId);
 }
@@ -0,0 +1,139 @@
+package org.gamedo.gameloop.components.passivation;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.annotation.GamedoComponent;
+import org.gamedo.ecs.GameLoopComponent;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.passivation.interfaces.IEntityCodec;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.components.passivation.interfaces.IPassivationStore;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.logging.Markers;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Log4j2
+@GamedoComponent
+public class GameLoopPassivationManager extends GameLoopComponent implements IGameLoopPassivationManager {
+    private final IPassivationStore store;
+    private final Map<String, IEntityCodec> entityId2CodecMap = new HashMap<>(64);
+
+    public GameLoopPassivationManager(IGameLoop owner) {
+        this(owner, new OffHeapPassivationStore());
+    }
+
+    protected GameLoopPassivationManager(IGameLoop owner, IPassivationStore store) {
+        super(owner);
+        this.store = store;
+    }
+
+    @Override
+    public boolean passivate(String entityId, IEntityCodec codec) {
+
+        if (entityId2CodecMap.containsKey(entityId)) {
+            log.warn(Markers.GameLoopPassivationManager, "the entity has passivated, entityId:{}", entityId);
+            return false;
+        }
+
+        final Optional<IGameLoopEntityManager> entityManager = owner.getComponent(IGameLoopEntityManager.class);
+        final IEntity entity = entityManager.map(manager -> manager.getEntityMap().get(entityId)).orElse(null);
+        if (entity == null || entity instanceof IGameLoop) {
+            log.error(Markers.GameLoopPassivationManager, "the entity is not found or can't be passivated, entityId:{}",
+                    entityId);
+            return false;
+        }
+
+        //先序列化，失败时实体保持注册状态不变
+        final byte[] bytes;
+        try {
+            bytes = codec.encode(entity);
+        } catch (Throwable t) {
+            log.error(Markers.GameLoopPassivationManager, "encode failed, entityId:" + entityId, t);
+            return false;
+        }
+
+        entityManager.get().unregisterEntity(entityId);
+        store.put(entityId, bytes);
+        entityId2CodecMap.put(entityId, codec);
+        //被钝化的实体依然属于本IGameLoop，以便路由到此处将其激活
+        owner.owner().ifPresent(gameLoopGroup -> gameLoopGroup.getEntityDirectory().put(entityId, owner));
+
+        log.debug(Markers.GameLoopPassivationManager, "passivate, entityId:{}, bytes:{}",
+                () -> entityId,
+                () -> bytes.length);
+
+        return true;
+    }
+
+    @Override
+    public Optional<IEntity> activate(String entityId) {
+
+        final Optional<IGameLoopEntityManager> entityManager = owner.getComponent(IGameLoopEntityManager.class);
+        final IEntityCodec codec = entityId2CodecMap.get(entityId);
+        if (codec == null || entityManager.isEmpty()) {
+            return entityManager.map(manager -> manager.getEntityMap().get(entityId));
+        }
+
+        final ByteBuffer buffer = store.get(entityId).orElse(null);
+        if (buffer == null) {
+            log.error(Markers.GameLoopPassivationManager, "the state of the entity is missing, entityId:{}", entityId);
+            return Optional.empty();
+        }
+
+        final IEntity entity;
+        try {
+            entity = codec.decode(entityId, buffer);
+        } catch (Throwable t) {
+            log.error(Markers.GameLoopPassivationManager, "decode failed, entityId:" + entityId, t);
+            return Optional.empty();
+        }
+
+        //先移除钝化状态，防止注册过程中投递的IEntityEvent递归地激活本实体
+        entityId2CodecMap.remove(entityId);
+        if (!entityManager.get().registerEntity(entity)) {
+            entityId2CodecMap.put(entityId, codec);
+            log.error(Markers.GameLoopPassivationManager, "register failed, entityId:{}", entityId);
+            return Optional.empty();
+        }
+
+        store.remove(entityId);
+
+        log.debug(Markers.GameLoopPassivationManager, "activate, entityId:{}", () -> entityId);
+
+        return Optional.of(entity);
+    }
+
+    @Override
+    public boolean discard(String entityId) {
+
+        if (entityId2CodecMap.remove(entityId) == null) {
+            return false;
+        }
+
+        store.remove(entityId);
+        owner.owner().ifPresent(gameLoopGroup -> gameLoopGroup.getEntityDirectory().remove(entityId, owner));
+
+        log.debug(Markers.GameLoopPassivationManager, "discard, entityId:{}", () -> entityId);
+
+        return true;
+    }
+
+    @Override
+    public boolean isPassivated(String entityId) {
+        return entityId2CodecMap.containsKey(entityId);
+    }
+
+    @Override
+    public int getPassivatedCount() {
+        return entityId2CodecMap.size();
+    }
+
+    @Override
+    public long getPassivatedByteSize() {
+        return store.getByteSize();
+    }
+}
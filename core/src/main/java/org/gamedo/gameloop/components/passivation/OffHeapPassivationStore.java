@@ -0,0 +1,222 @@
+package org.gamedo.gameloop.components.passivation;
+
+import org.gamedo.gameloop.components.passivation.interfaces.IPassivationStore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 基于堆外内存的{@link IPassivationStore}，状态的字节不计入堆内存，也不会被gc扫描。为了避免每个实体一次
+ * {@link ByteBuffer#allocateDirect(int)}（每次分配都伴随Cleaner的注册以及-XX:MaxDirectMemorySize的额度检查），所有状态都存放在
+ * 少数几块固定大小的堆外内存块（slab）中，堆内只保留实体id所对应的（slab，偏移，长度）：
+ * <ul>
+ * <li> 分配时从空闲列表中选择最小的、足够大的空闲区间（best fit），剩余部分重新放回空闲列表，没有足够大的空闲区间时再分配一块新的slab
+ * <li> 释放时与同一个slab中相邻的空闲区间合并，避免碎片化
+ * <li> 超过slab大小的状态单独分配一块堆外内存，删除后在其被回收时释放
+ * </ul>
+ * slab一旦分配就不再释放，而是留给之后的钝化复用，因此堆外内存的占用取决于钝化状态的峰值，总量同样受到jvm参数：
+ * -XX:MaxDirectMemorySize的限制
+ */
+public class OffHeapPassivationStore implements IPassivationStore {
+    /**
+     * 默认的slab大小：1MiB
+     */
+    public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+    /**
+     * 分配的粒度，每个状态占用的空间都向上对齐到该值，以减少无法复用的零碎区间
+     */
+    private static final int ALIGNMENT = 8;
+    private static final Comparator<Extent> EXTENT_COMPARATOR = Comparator.<Extent>comparingInt(extent -> extent.length)
+            .thenComparingInt(extent -> extent.slab)
+            .thenComparingInt(extent -> extent.offset);
+
+    private final int slabSize;
+    private final List<ByteBuffer> slabList = new ArrayList<>(4);
+    /**
+     * 所有slab的空闲区间，按照长度排序，用于best fit
+     */
+    private final NavigableSet<Extent> freeSet = new TreeSet<>(EXTENT_COMPARATOR);
+    /**
+     * 每个slab的空闲区间，按照偏移排序，用于释放时合并相邻的区间
+     */
+    private final List<TreeMap<Integer, Extent>> slabFreeMapList = new ArrayList<>(4);
+    private final Map<String, Entry> entityId2EntryMap = new HashMap<>(64);
+    private long byteSize;
+
+    public OffHeapPassivationStore() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param slabSize 每一块slab的字节数，必须大于0，状态的典型大小越大，该值也应该越大
+     */
+    public OffHeapPassivationStore(int slabSize) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("the slabSize must be positive, slabSize:" + slabSize);
+        }
+        this.slabSize = align(slabSize);
+    }
+
+    @Override
+    public void put(String entityId, byte[] bytes) {
+        remove(entityId);
+
+        final Entry entry;
+        if (bytes.length > slabSize) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            entry = new Entry(-1, 0, bytes.length, buffer);
+        } else {
+            final Extent extent = allocate(align(bytes.length));
+            final ByteBuffer slab = slabList.get(extent.slab).duplicate();
+            slab.position(extent.offset);
+            slab.put(bytes);
+            entry = new Entry(extent.slab, extent.offset, bytes.length, null);
+        }
+
+        entityId2EntryMap.put(entityId, entry);
+        byteSize += bytes.length;
+    }
+
+    @Override
+    public Optional<ByteBuffer> get(String entityId) {
+        final Entry entry = entityId2EntryMap.get(entityId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (entry.buffer != null) {
+            return Optional.of(entry.buffer.asReadOnlyBuffer());
+        }
+
+        final ByteBuffer view = slabList.get(entry.slab).duplicate();
+        view.limit(entry.offset + entry.length).position(entry.offset);
+        return Optional.of(view.slice().asReadOnlyBuffer());
+    }
+
+    @Override
+    public boolean remove(String entityId) {
+        final Entry entry = entityId2EntryMap.remove(entityId);
+        if (entry == null) {
+            return false;
+        }
+
+        if (entry.buffer == null) {
+            free(new Extent(entry.slab, entry.offset, align(entry.length)));
+        }
+        byteSize -= entry.length;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return entityId2EntryMap.size();
+    }
+
+    @Override
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    /**
+     * @return 已经分配的slab的数量，不包括超过slab大小而单独分配的堆外内存
+     */
+    public int getSlabCount() {
+        return slabList.size();
+    }
+
+    private Extent allocate(int length) {
+        Extent extent = freeSet.ceiling(new Extent(Integer.MIN_VALUE, Integer.MIN_VALUE, length));
+        if (extent == null) {
+            final int slab = slabList.size();
+            slabList.add(ByteBuffer.allocateDirect(slabSize));
+            slabFreeMapList.add(new TreeMap<>());
+            extent = new Extent(slab, 0, slabSize);
+        } else {
+            freeSet.remove(extent);
+            slabFreeMapList.get(extent.slab).remove(extent.offset);
+        }
+
+        if (extent.length > length) {
+            addFree(new Extent(extent.slab, extent.offset + length, extent.length - length));
+        }
+
+        return new Extent(extent.slab, extent.offset, length);
+    }
+
+    private void free(Extent extent) {
+        final TreeMap<Integer, Extent> freeMap = slabFreeMapList.get(extent.slab);
+        int offset = extent.offset;
+        int length = extent.length;
+
+        final Map.Entry<Integer, Extent> prevEntry = freeMap.lowerEntry(offset);
+        if (prevEntry != null && prevEntry.getValue().offset + prevEntry.getValue().length == offset) {
+            final Extent prev = prevEntry.getValue();
+            removeFree(prev);
+            offset = prev.offset;
+            length += prev.length;
+        }
+
+        final Extent next = freeMap.get(extent.offset + extent.length);
+        if (next != null) {
+            removeFree(next);
+            length += next.length;
+        }
+
+        addFree(new Extent(extent.slab, offset, length));
+    }
+
+    private void addFree(Extent extent) {
+        freeSet.add(extent);
+        slabFreeMapList.get(extent.slab).put(extent.offset, extent);
+    }
+
+    private void removeFree(Extent extent) {
+        freeSet.remove(extent);
+        slabFreeMapList.get(extent.slab).remove(extent.offset);
+    }
+
+    private static int align(int length) {
+        return Math.max(ALIGNMENT, (length + ALIGNMENT - 1) & -ALIGNMENT);
+    }
+
+    /**
+     * slab中的一段连续区间
+     */
+    private static final class Extent {
+        private final int slab;
+        private final int offset;
+        private final int length;
+
+        private Extent(int slab, int offset, int length) {
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 一个实体的状态所在的位置，超过slab大小的状态单独存放在buffer中，此时slab为-1
+     */
+    private static final class Entry {
+        private final int slab;
+        private final int offset;
+        private final int length;
+        private final ByteBuffer buffer;
+
+        private Entry(int slab, int offset, int length, ByteBuffer buffer) {
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+            this.buffer = buffer;
+        }
+    }
+}
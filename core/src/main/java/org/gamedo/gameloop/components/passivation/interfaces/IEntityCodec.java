@@ -0,0 +1,28 @@
+package org.gamedo.gameloop.components.passivation.interfaces;
+
+import org.gamedo.ecs.interfaces.IEntity;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 实体的编解码器，负责将钝化的实体状态序列化为紧凑的字节，以及在激活时重建实体（包括其所有组件）
+ */
+public interface IEntityCodec {
+
+    /**
+     * 序列化实体的状态，在实体所在的{@link org.gamedo.gameloop.interfaces.IGameLoop}线程内调用
+     *
+     * @param entity 要钝化的实体
+     * @return 序列化后的字节
+     */
+    byte[] encode(IEntity entity);
+
+    /**
+     * 重建实体，在实体所在的{@link org.gamedo.gameloop.interfaces.IGameLoop}线程内调用
+     *
+     * @param entityId 实体的id
+     * @param buffer   {@link #encode(IEntity)}序列化后的字节，只读，且只在本函数内有效
+     * @return 重建后的实体
+     */
+    IEntity decode(String entityId, ByteBuffer buffer);
+}
@@ -0,0 +1,68 @@
+package org.gamedo.gameloop.components.passivation.interfaces;
+
+import org.gamedo.ecs.interfaces.IComponent;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEntityEvent;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+import java.util.Optional;
+
+/**
+ * {@link IGameLoop}的实体钝化组件：长期空闲的实体（例如离线玩家的家园、休眠的npc）即使没有任何行为，也会一直占用堆内存，并参与事件、
+ * cron以及心跳的分发。钝化会将实体从{@link IGameLoopEntityManager}中反注册（与{@link IGameLoopEntityManager#unregisterEntity(String)}
+ * 的流程完全相同），然后通过{@link IEntityCodec}将其状态序列化到{@link IPassivationStore}中，因此堆内存只与活跃实体的数量相关。被钝化的
+ * 实体在以下情况下会被重新激活：
+ * <ul>
+ * <li> 主动调用{@link #activate(String)}，例如在访问实体之前
+ * <li> 投递一个以该实体为目标的{@link IEntityEvent}
+ * <li> 通过{@link org.gamedo.gameloop.interfaces.IGameLoopGroup#submitOwner}向该实体提交操作
+ * </ul>
+ * 被钝化的实体依然会保留在{@link org.gamedo.gameloop.EntityDirectory}中，因此仍然可以通过
+ * {@link org.gamedo.gameloop.interfaces.IGameLoopGroup#submitOwner}路由到其所在的{@link IGameLoop}上。注意：实体所拥有的定时器会在
+ * 钝化时被取消
+ */
+public interface IGameLoopPassivationManager extends IComponent<IGameLoop> {
+
+    /**
+     * 钝化一个已经注册的实体，如果序列化失败，实体保持注册状态不变
+     *
+     * @param entityId 实体的id
+     * @param codec    实体的编解码器，激活时使用同一个编解码器重建实体
+     * @return 钝化成功返回true，如果实体不存在、已经被钝化、是{@link IGameLoop}本身或者序列化失败，返回false
+     */
+    boolean passivate(String entityId, IEntityCodec codec);
+
+    /**
+     * 激活一个被钝化的实体：重建实体并重新注册到{@link IGameLoopEntityManager}中
+     *
+     * @param entityId 实体的id
+     * @return 激活后的实体，如果实体本来就处于注册状态，则直接返回该实体；如果实体既没有注册也没有被钝化，或者重建、注册失败，返回
+     * Optional.empty()
+     */
+    Optional<IEntity> activate(String entityId);
+
+    /**
+     * 丢弃一个被钝化的实体的状态，之后该实体无法再被激活
+     *
+     * @param entityId 实体的id
+     * @return 如果该实体处于钝化状态，返回true
+     */
+    boolean discard(String entityId);
+
+    /**
+     * @param entityId 实体的id
+     * @return 如果该实体处于钝化状态，返回true
+     */
+    boolean isPassivated(String entityId);
+
+    /**
+     * @return 处于钝化状态的实体的数量
+     */
+    int getPassivatedCount();
+
+    /**
+     * @return 所有钝化实体的状态占用的总字节数
+     */
+    long getPassivatedByteSize();
+}
@@ -0,0 +1,45 @@
+package org.gamedo.gameloop.components.passivation.interfaces;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * 钝化实体的状态存储，可以基于堆外内存、内存映射文件等实现，只在{@link org.gamedo.gameloop.interfaces.IGameLoop}线程内访问，因此不需要
+ * 是线程安全的
+ */
+public interface IPassivationStore {
+
+    /**
+     * 存储实体的状态，如果已经存在，则覆盖
+     *
+     * @param entityId 实体的id
+     * @param bytes    序列化后的状态
+     */
+    void put(String entityId, byte[] bytes);
+
+    /**
+     * 读取实体的状态
+     *
+     * @param entityId 实体的id
+     * @return 只读的状态，在下一次修改本存储之前有效，如果不存在，返回Optional.empty()
+     */
+    Optional<ByteBuffer> get(String entityId);
+
+    /**
+     * 删除并释放实体的状态
+     *
+     * @param entityId 实体的id
+     * @return 如果存在并成功删除，返回true
+     */
+    boolean remove(String entityId);
+
+    /**
+     * @return 存储的实体的数量
+     */
+    int size();
+
+    /**
+     * @return 存储的所有状态的总字节数
+     */
+    long getByteSize();
+}
@@ -0,0 +1,25 @@
+package org.gamedo.gameloop.components.scheduling;
+
+import lombok.Value;
+
+import java.time.ZoneId;
+
+/**
+ * cron调度的唯一标识：同一个cron表达式在不同的时区下，触发时间是不同的，因此需要分别调度
+ */
+@Value
+class CronKey {
+    /**
+     * cron表达式
+     */
+    String cron;
+    /**
+     * 计算触发时间所使用的时区
+     */
+    ZoneId zone;
+
+    @Override
+    public String toString() {
+        return cron + '[' + zone.getId() + ']';
+    }
+}
@@ -0,0 +1,77 @@
+package org.gamedo.gameloop.components.scheduling;
+
+import org.gamedo.annotation.Cron;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 卸载型cron函数（{@link Cron#offload()}为true）的返回值，一次cron调用被拆分为以下三个阶段，本实例携带其中的后两个阶段（计算与应用）：
+ * <ul>
+ * <li> 快照阶段：也即cron函数本身，在{@link IGameLoop}线程内执行，负责将计算所需的数据拷贝成一份不可变的快照，并返回本实例
+ * <li> 计算阶段：{@link CronOffload#getComputer()}，在独立的有界线程池内执行，因此禁止访问任何被{@link IGameLoop}管理的对象，只能访
+ * 问快照数据
+ * <li> 应用阶段：{@link CronOffload#getApplier()}，计算完毕后，通过{@link IGameLoop#submit}重新回到{@link IGameLoop}线程内执行，
+ * 负责将计算结果应用到线程内的对象上
+ * </ul>
+ * 例如：
+ * <pre>
+ *     &#064;Cron(value = "0 *&#47;5 * * * *", offload = true)
+ *     private CronOffload&lt;List&lt;Rank&gt;&gt; rank(Long currentTime, Long lastTriggerTime)
+ *     {
+ *         final List&lt;Score&gt; snapshot = List.copyOf(scoreList);
+ *         return CronOffload.of(() -&gt; computeRank(snapshot), rankList -&gt; this.rankList = rankList);
+ *     }
+ * </pre>
+ *
+ * @param <R> 计算阶段的返回值类型
+ */
+public final class CronOffload<R> {
+
+    private static final CronOffload<?> NONE = new CronOffload<>(null, null);
+
+    private final Supplier<R> computer;
+    private final Consumer<? super R> applier;
+
+    private CronOffload(Supplier<R> computer, Consumer<? super R> applier) {
+        this.computer = computer;
+        this.applier = applier;
+    }
+
+    /**
+     * 定义一次卸载执行
+     *
+     * @param computer 计算阶段，在cron卸载线程池内执行
+     * @param applier  应用阶段，在{@link IGameLoop}线程内执行
+     * @param <R>      计算结果的类型
+     * @return 卸载执行的定义
+     */
+    public static <R> CronOffload<R> of(Supplier<R> computer, Consumer<? super R> applier) {
+        return new CronOffload<>(Objects.requireNonNull(computer), Objects.requireNonNull(applier));
+    }
+
+    /**
+     * 本次cron调用不需要卸载执行，例如快照阶段发现没有需要处理的数据
+     *
+     * @param <R> 计算结果的类型
+     * @return 一个空的卸载执行定义
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> CronOffload<R> none() {
+        return (CronOffload<R>) NONE;
+    }
+
+    public boolean isNone() {
+        return this == NONE;
+    }
+
+    public Supplier<R> getComputer() {
+        return computer;
+    }
+
+    public Consumer<? super R> getApplier() {
+        return applier;
+    }
+}
@@ -6,21 +6,44 @@ import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.extern.log4j.Log4j2;
 import org.gamedo.annotation.Cron;
 import org.gamedo.annotation.GamedoComponent;
+import org.gamedo.concurrent.NamedThreadFactory;
+import org.gamedo.concurrent.TimerWheel;
 import org.gamedo.ecs.GameLoopComponent;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.logging.GamedoLogContext;
 import org.gamedo.logging.Markers;
 import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.AnnotatedMethodCache;
 import org.gamedo.util.Metric;
 import org.gamedo.util.Pair;
+import org.gamedo.util.ZoneIdCache;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.scheduling.support.SimpleTriggerContext;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
-import java.util.*;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -29,15 +52,39 @@ import java.util.stream.Collectors;
 @GamedoComponent
 public class GameLoopScheduler extends GameLoopComponent implements IGameLoopScheduler {
 
-    private final Map<String, Pair<AtomicLong, Gauge>> cron2GaugeMap = new HashMap<>(4);
+    private final Map<CronKey, Pair<AtomicLong, Gauge>> cron2GaugeMap = new HashMap<>(4);
     /**
-     * cron表达式 --> 该表达式对应的所有运行时数据
+     * cron表达式及其时区 --> 该表达式对应的所有运行时数据
      */
-    private final Map<String, SchedulingRunnable> cronToscheduleDataMap = new HashMap<>(32);
+    private final Map<CronKey, SchedulingRunnable> cronToscheduleDataMap = new HashMap<>(32);
+    /**
+     * 正在卸载执行中（已经完成快照，但是尚未应用计算结果）的卸载型cron函数 --> 本次卸载的代数，反注册时移除，应用计算结果时只接受代数
+     * 一致的结果，防止反注册后重新注册的函数接受了上一次注册时发起的卸载结果
+     */
+    private final Map<ScheduleInvokeData, Long> offloadingMap = new HashMap<>(4);
+    private long offloadGeneration;
+    /**
+     * 定时器所使用的时间轮，由一个自适应的驱动任务推进：驱动任务只在最近的定时器到期时才被唤醒
+     */
+    private final TimerWheel timerWheel = new TimerWheel(GamedoConfiguration.getTimerTickMillis(),
+            TimeUnit.MILLISECONDS,
+            GamedoConfiguration.getTimerWheelSize(),
+            System.nanoTime());
+    /**
+     * 定时器拥有者的id --> 该拥有者所有定时器组成的双向链表的头节点
+     */
+    private final Map<String, GameLoopTimer> ownerId2TimerMap = new HashMap<>(512);
+    /**
+     * cron定时器所使用的cron表达式的缓存
+     */
+    private final Map<String, CronExpression> cronExpressionMap = new HashMap<>(8);
+    private ScheduledFuture<?> timerDriverFuture;
+    private long timerDriverNanoTime;
+    private boolean timerDriving;
     /**
      * 收到{@link TaskScheduler}
      */
-    private final Function<String, Runnable> runnableFunction = cron -> {
+    private final Function<CronKey, Runnable> runnableFunction = cron -> {
         //注意：该Runnable最终就在owner线程中执行！！
         return () -> {
             if (owner.isShutdown()) {
@@ -57,6 +104,19 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
         super(owner);
     }
 
+    /**
+     * 实现延迟加载，当且仅当第一次有卸载型cron函数触发时，卸载线程池才会被初始化，并且由jvm的class lock确保线程安全，该线程池由所有的
+     * {@link IGameLoop}共享
+     */
+    private static final class HolderOffloadExecutor {
+        private static final ExecutorService executor = new ThreadPoolExecutor(GamedoConfiguration.getCronOffloadThreadCount(),
+                GamedoConfiguration.getCronOffloadThreadCount(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(GamedoConfiguration.getCronOffloadQueueCapacity()),
+                new NamedThreadFactory("cron-offload", true));
+    }
+
     public boolean safeInvoke(SchedulingRunnable schedulingRunnable, ScheduleInvokeData scheduleInvokeData) {
         final Method method = scheduleInvokeData.getMethod();
         final Object object = scheduleInvokeData.getObject();
@@ -69,6 +129,7 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
                             .tag("class", object.getClass().getName())
                             .tag("method", method.getName())
                             .tag("cron", schedulingRunnable.getTrigger().getExpression())
+                            .tag("zone", schedulingRunnable.getCronKey().getZone().getId())
                             .description("the @" + Cron.class.getSimpleName() + " method timing")
                             .register(meterRegistry);
                 })
@@ -81,7 +142,10 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
                 final Long lastExecutionTime = Optional.ofNullable(triggerContext.lastActualExecutionTime())
                         .map(date -> date.getTime())
                         .orElse(Long.valueOf(-1));
-                method.invoke(object, currentTimeMillis, lastExecutionTime);
+                final Object result = method.invoke(object, currentTimeMillis, lastExecutionTime);
+                if (scheduleInvokeData.isOffload()) {
+                    offload(schedulingRunnable, scheduleInvokeData, (CronOffload<?>) result);
+                }
             } catch (Exception e) {
                 final Class<?> clazz = object.getClass();
                 log.error(Markers.GameLoopScheduler, "exception caught. class:" + clazz.getSimpleName() +
@@ -97,9 +161,7 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
     public int register(Object object) {
 
         final Class<?> clazz = object.getClass();
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz))
-                .filter(method -> method.isAnnotationPresent(Cron.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(clazz, Cron.class);
 
         if (annotatedMethodSet.isEmpty()) {
             log.info(Markers.GameLoopScheduler, "none annotation {} method found, clazz:{}",
@@ -128,12 +190,28 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
 
         final Cron annotation = method.getAnnotation(Cron.class);
         final String cron = annotation.value();
+        final String zone = annotation.zone();
+        if (zone.isEmpty()) {
+            return register(object, method, cron);
+        }
 
-        return register(object, method, cron);
+        try {
+            return register(object, method, cron, ZoneIdCache.of(zone));
+        } catch (DateTimeException e) {
+            log.error(Markers.GameLoopScheduler, "invalid zone:" + zone +
+                    ", clazz:" + object.getClass().getName() +
+                    ", method:" + method.getName(), e);
+            return false;
+        }
     }
 
     @Override
     public boolean register(Object object, Method method, String cron) {
+        return register(object, method, cron, owner.getComponent(ZoneId.class).orElseGet(ZoneId::systemDefault));
+    }
+
+    @Override
+    public boolean register(Object object, Method method, String cron, ZoneId zone) {
 
         final Class<?> clazz = object.getClass();
         final String clazzName = clazz.getName();
@@ -158,7 +236,18 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
             return false;
         }
 
-        if (Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz)).noneMatch(method1 -> method1.equals(method))) {
+        final boolean offload = method.isAnnotationPresent(Cron.class) && method.getAnnotation(Cron.class).offload();
+        if (offload && !CronOffload.class.isAssignableFrom(method.getReturnType())) {
+            log.error(Markers.GameLoopScheduler, "offload schedule method should return {}, clazz:{}, method:{}, " +
+                            "cron:{}",
+                    CronOffload.class.getSimpleName(),
+                    clazzName,
+                    methodName,
+                    cron);
+            return false;
+        }
+
+        if (!AnnotatedMethodCache.isDeclaredMethod(clazz, method)) {
             log.error(Markers.GameLoopScheduler, "the method:{} is not belong to clazz:{}, cron:{}",
                     methodName,
                     clazzName,
@@ -166,11 +255,12 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
             return false;
         }
 
-        SchedulingRunnable runnable = cronToscheduleDataMap.get(cron);
+        final CronKey cronKey = new CronKey(cron, zone);
+        SchedulingRunnable runnable = cronToscheduleDataMap.get(cronKey);
         boolean isNewRunnable = false;
         if (runnable == null) {
             try {
-                runnable = new SchedulingRunnable(this, cron, runnableFunction.apply(cron));
+                runnable = new SchedulingRunnable(this, cronKey, runnableFunction.apply(cronKey));
                 isNewRunnable = true;
             } catch (IllegalArgumentException e) {
                 log.error(Markers.GameLoopScheduler, "invalid cron expression:" + cron +
@@ -181,7 +271,7 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
         }
 
         final Set<ScheduleInvokeData> scheduleInvokeDataSet = runnable.getScheduleInvokeDataSet();
-        final ScheduleInvokeData scheduleInvokeData = new ScheduleInvokeData(object, method);
+        final ScheduleInvokeData scheduleInvokeData = new ScheduleInvokeData(object, method, offload);
 
         if (scheduleInvokeDataSet.contains(scheduleInvokeData)) {
             log.warn(Markers.GameLoopScheduler, "duplicate methods registered, clazz:{}, method:{}",
@@ -194,16 +284,19 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
         scheduleInvokeDataSet.add(scheduleInvokeData);
         if (isNewRunnable) {
             if (runnable.schedule()) {
-                cronToscheduleDataMap.put(cron, runnable);
+                cronToscheduleDataMap.put(cronKey, runnable);
 
-                log.debug(Markers.GameLoopScheduler, "register success, clazz:{}, method:{}, cron:{}",
+                log.debug(Markers.GameLoopScheduler, "register success, clazz:{}, method:{}, cron:{}, zone:{}",
                         () -> clazz.getSimpleName(),
                         () -> methodName,
-                        () -> cron);
+                        () -> cron,
+                        () -> zone);
+            } else {
+                runnable.removeMeters();
             }
         }
 
-        metricGauge(cron);
+        metricGauge(cronKey);
 
         return true;
     }
@@ -211,9 +304,7 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
     @Override
     public int unregister(Class<?> clazz) {
 
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz))
-                .filter(method -> method.isAnnotationPresent(Cron.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(clazz, Cron.class);
 
         if (annotatedMethodSet.isEmpty()) {
             log.info(Markers.GameLoopScheduler, "none annotation {} method found, clazz:{}",
@@ -228,6 +319,8 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
     @Override
     public boolean unregister(Class<?> clazz, Method method) {
 
+        offloadingMap.keySet().removeIf(scheduleInvokeData -> scheduleInvokeData.getMethod().equals(method));
+
         final List<SchedulingRunnable> schedulingRunnableList = cronToscheduleDataMap.values()
                 .stream()
                 .filter(schedulingRunnable -> schedulingRunnable.containsMethod(method))
@@ -236,19 +329,19 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
 
         cronToscheduleDataMap.values().removeIf(runnable -> {
             final boolean empty = runnable.getScheduleInvokeDataSet().isEmpty();
-            final CronTrigger trigger = runnable.getTrigger();
             if (empty) {
                 //可能有调度正在等待中，直接取消掉吧
                 final boolean cancel = runnable.getFuture().cancel(false);
+                runnable.removeMeters();
                 log.debug(Markers.GameLoopScheduler, "stop schedule {}, cancel:{}",
-                        () -> trigger.getExpression(),
+                        () -> runnable.getCronKey(),
                         () -> cancel);
             }
 
             return empty;
         });
 
-        schedulingRunnableList.forEach(schedulingRunnable -> metricGauge(schedulingRunnable.getTrigger().getExpression()));
+        schedulingRunnableList.forEach(schedulingRunnable -> metricGauge(schedulingRunnable.getCronKey()));
 
         return !schedulingRunnableList.isEmpty();
     }
@@ -270,13 +363,253 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
             log.error(Markers.GameLoopScheduler, "There are remaining {} in the map:{}",
                     SchedulingRunnable.class.getSimpleName(),
                     cronToscheduleDataMap.values());
+            cronToscheduleDataMap.values().forEach(SchedulingRunnable::removeMeters);
             cronToscheduleDataMap.clear();
         }
 
         return sum;
     }
 
-    private int schedule(String cron) {
+    @Override
+    public IGameLoopTimer scheduleTimer(String ownerId, Runnable task, long delay, TimeUnit timeUnit) {
+        final long deadlineNanoTime = deadlineNanoTime(delay, timeUnit);
+        return newTimer(new GameLoopTimer(this, ownerId, Objects.requireNonNull(task), deadlineNanoTime, 0, null, null, null));
+    }
+
+    @Override
+    public IGameLoopTimer scheduleTimerAtFixedRate(String ownerId,
+                                                   Runnable task,
+                                                   long initialDelay,
+                                                   long period,
+                                                   TimeUnit timeUnit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be greater than 0: " + period);
+        }
+
+        final long deadlineNanoTime = deadlineNanoTime(initialDelay, timeUnit);
+        final long periodNanos = timeUnit.toNanos(period);
+        return newTimer(new GameLoopTimer(this, ownerId, Objects.requireNonNull(task), deadlineNanoTime, periodNanos,
+                null, null, null));
+    }
+
+    @Override
+    public IGameLoopTimer scheduleCronTimer(String ownerId, Runnable task, String cron, ZoneId zone) {
+        final CronExpression cronExpression = cronExpressionMap.computeIfAbsent(cron, CronExpression::parse);
+        final ZoneId zoneId = zone != null ? zone : owner.getComponent(ZoneId.class).orElseGet(ZoneId::systemDefault);
+        final ZonedDateTime cronTime = GameLoopTimer.nextCronTime(cronExpression, zoneId, null);
+        if (cronTime == null) {
+            throw new IllegalArgumentException("the cron expression will never be triggered: " + cron);
+        }
+
+        return newTimer(new GameLoopTimer(this, ownerId, Objects.requireNonNull(task), GameLoopTimer.toNanoTime(cronTime), 0,
+                cronExpression, zoneId, cronTime));
+    }
+
+    @Override
+    public int cancelTimers(String ownerId) {
+        GameLoopTimer timer = ownerId2TimerMap.remove(ownerId);
+        int count = 0;
+        while (timer != null) {
+            final GameLoopTimer next = timer.ownerNext;
+            timer.ownerPrev = null;
+            timer.ownerNext = null;
+            if (timer.markCancelled()) {
+                timerWheel.remove(timer);
+                count++;
+            }
+            timer = next;
+        }
+
+        if (count > 0) {
+            final int finalCount = count;
+            log.debug(Markers.GameLoopScheduler, "cancel timers, ownerId:{}, count:{}", () -> ownerId, () -> finalCount);
+        }
+
+        return count;
+    }
+
+    @Override
+    public List<IGameLoopTimer> detachTimers(String ownerId) {
+        GameLoopTimer timer = ownerId2TimerMap.remove(ownerId);
+        final List<IGameLoopTimer> timerList = new ArrayList<>();
+        while (timer != null) {
+            final GameLoopTimer next = timer.ownerNext;
+            timer.ownerPrev = null;
+            timer.ownerNext = null;
+            if (timerWheel.remove(timer)) {
+                //其他线程刚刚取消的定时器也不需要移交了
+                if (!timer.isDone()) {
+                    timerList.add(timer);
+                }
+            } else if (timer.markCancelled()) {
+                //不在时间轮中说明正在执行自身的任务（例如在任务内发起了迁移），执行完毕后会被重新加入本时间轮，无法移交
+                log.warn(Markers.GameLoopScheduler, "the timer is running, cancel it instead of detaching, ownerId:{}, timer:{}",
+                        ownerId,
+                        timer);
+            }
+            timer = next;
+        }
+
+        log.debug(Markers.GameLoopScheduler, "detach timers, ownerId:{}, count:{}", () -> ownerId, () -> timerList.size());
+        return timerList;
+    }
+
+    @Override
+    public int attachTimers(List<? extends IGameLoopTimer> timers) {
+        if (owner.isShutdown()) {
+            timers.forEach(IGameLoopTimer::cancel);
+            log.warn(Markers.GameLoopScheduler, "the IGameLoop {} has shutdown, cancel {} attaching timers",
+                    owner.getId(),
+                    timers.size());
+            return 0;
+        }
+
+        int count = 0;
+        for (IGameLoopTimer iGameLoopTimer : timers) {
+            if (!(iGameLoopTimer instanceof GameLoopTimer)) {
+                log.error(Markers.GameLoopScheduler, "unsupported timer, cancel it, timer:{}", iGameLoopTimer);
+                iGameLoopTimer.cancel();
+                continue;
+            }
+
+            final GameLoopTimer timer = (GameLoopTimer) iGameLoopTimer;
+            if (timer.isDone()) {
+                continue;
+            }
+
+            //先写入调度器再检查状态：在此之前发起的取消操作被投递到了原来的调度器，需要在这里自行摘除
+            timer.attach(this);
+            linkOwner(timer);
+            addTimer(timer);
+            if (timer.isDone()) {
+                removeTimer(timer);
+                continue;
+            }
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public int getTimerCount() {
+        return timerWheel.size();
+    }
+
+    private static long deadlineNanoTime(long delay, TimeUnit timeUnit) {
+        //防止溢出，参考：ScheduledThreadPoolExecutor.triggerTime
+        final long delayNanos = Math.min(Math.max(0, timeUnit.toNanos(delay)), Long.MAX_VALUE >> 1);
+        return System.nanoTime() + delayNanos;
+    }
+
+    private IGameLoopTimer newTimer(GameLoopTimer timer) {
+        if (owner.isShutdown()) {
+            throw new RejectedExecutionException("the IGameLoop " + owner.getId() + " has shutdown");
+        }
+
+        linkOwner(timer);
+        addTimer(timer);
+        return timer;
+    }
+
+    private void linkOwner(GameLoopTimer timer) {
+        final String ownerId = timer.getOwnerId();
+        if (ownerId != null) {
+            final GameLoopTimer head = ownerId2TimerMap.put(ownerId, timer);
+            timer.ownerNext = head;
+            if (head != null) {
+                head.ownerPrev = timer;
+            }
+        }
+    }
+
+    void addTimer(GameLoopTimer timer) {
+        timerWheel.add(timer, timer.getDeadlineNanoTime());
+
+        //推进时间轮的过程中添加的定时器，会在推进结束后统一计算下一次唤醒的时间
+        if (!timerDriving && (timerDriverFuture == null || timer.getExpireNanoTime() - timerDriverNanoTime < 0)) {
+            armTimerDriver(timer.getExpireNanoTime());
+        }
+    }
+
+    /**
+     * 把已经取消的定时器从时间轮以及ownerId的链表中摘除，可以重复调用
+     */
+    void removeTimer(GameLoopTimer timer) {
+        //不需要重新计算驱动任务的唤醒时间，驱动任务提前唤醒后会自动计算下一次唤醒的时间
+        timerWheel.remove(timer);
+        onTimerFinish(timer);
+    }
+
+    void onTimerFinish(GameLoopTimer timer) {
+        final String ownerId = timer.getOwnerId();
+        if (ownerId == null) {
+            return;
+        }
+
+        final GameLoopTimer prev = timer.ownerPrev;
+        final GameLoopTimer next = timer.ownerNext;
+        if (prev != null) {
+            prev.ownerNext = next;
+        } else if (ownerId2TimerMap.get(ownerId) == timer) {
+            if (next == null) {
+                ownerId2TimerMap.remove(ownerId);
+            } else {
+                ownerId2TimerMap.put(ownerId, next);
+            }
+        }
+        if (next != null) {
+            next.ownerPrev = prev;
+        }
+
+        timer.ownerPrev = null;
+        timer.ownerNext = null;
+    }
+
+    private void armTimerDriver(long expireNanoTime) {
+        if (timerDriverFuture != null) {
+            timerDriverFuture.cancel(false);
+            timerDriverFuture = null;
+        }
+
+        try {
+            final long delay = Math.max(0, expireNanoTime - System.nanoTime());
+            timerDriverFuture = owner.schedule(this::driveTimers, delay, TimeUnit.NANOSECONDS);
+            timerDriverNanoTime = expireNanoTime;
+        } catch (RejectedExecutionException e) {
+            log.warn(Markers.GameLoopScheduler, "the IGameLoop {} has shutdown, stop driving timers, pending:{}",
+                    owner.getId(),
+                    timerWheel.size());
+        }
+    }
+
+    private void driveTimers() {
+        timerDriverFuture = null;
+        if (owner.isShutdown()) {
+            final int count = timerWheel.clear(timeout -> {
+                final GameLoopTimer timer = (GameLoopTimer) timeout;
+                timer.markCancelled();
+                onTimerFinish(timer);
+            });
+            log.warn(Markers.GameLoopScheduler, "the IGameLoop {} has shutdown, cancel {} timers", owner.getId(), count);
+            return;
+        }
+
+        timerDriving = true;
+        try {
+            timerWheel.advance(System.nanoTime());
+        } catch (RuntimeException e) {
+            log.error(Markers.GameLoopScheduler, "exception caught when drive timers", e);
+        } finally {
+            timerDriving = false;
+            final long nextExpireNanoTime = timerWheel.nextExpireNanoTime();
+            if (nextExpireNanoTime != Long.MAX_VALUE) {
+                armTimerDriver(nextExpireNanoTime);
+            }
+        }
+    }
+
+    private int schedule(CronKey cron) {
 
         if (!cronToscheduleDataMap.containsKey(cron)) {
             return 0;
@@ -285,11 +618,102 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
         final SchedulingRunnable runnable = cronToscheduleDataMap.get(cron);
         return runnable.getScheduleInvokeDataSet()
                 .stream()
+                .filter(this::checkOffloading)
                 .mapToInt(scheduleInvokeData -> safeInvoke(runnable, scheduleInvokeData) ? 1 : 0)
                 .sum();
     }
 
-    private void metricGauge(String cron) {
+    private boolean checkOffloading(ScheduleInvokeData scheduleInvokeData) {
+        if (!offloadingMap.containsKey(scheduleInvokeData)) {
+            return true;
+        }
+
+        log.warn(Markers.GameLoopScheduler, "the last offload execution has not finished, skip this trigger, clazz:{}, " +
+                        "method:{}",
+                scheduleInvokeData.getObject().getClass().getName(),
+                scheduleInvokeData.getMethod().getName());
+        return false;
+    }
+
+    private <R> void offload(SchedulingRunnable schedulingRunnable,
+                             ScheduleInvokeData scheduleInvokeData,
+                             CronOffload<R> cronOffload) {
+        if (cronOffload == null || cronOffload.isNone()) {
+            return;
+        }
+
+        final CronKey cron = schedulingRunnable.getCronKey();
+        final Method method = scheduleInvokeData.getMethod();
+        final long generation = ++offloadGeneration;
+        offloadingMap.put(scheduleInvokeData, generation);
+        try {
+            CompletableFuture.supplyAsync(cronOffload.getComputer(), HolderOffloadExecutor.executor)
+                    .whenComplete((r, t) -> {
+                        try {
+                            //注意：此处在卸载线程池中执行，需要回到owner线程内应用计算结果
+                            owner.submit(gameLoop -> apply(cron, scheduleInvokeData, generation, cronOffload, r, t));
+                        } catch (RejectedExecutionException e) {
+                            log.warn(Markers.GameLoopScheduler, "the IGameLoop {} has shutdown, drop the offload " +
+                                    "result, method:{}, cron:{}", owner.getId(), method.getName(), cron);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            offloadingMap.remove(scheduleInvokeData, generation);
+            log.error(Markers.GameLoopScheduler, "the offload executor is full, drop this trigger, clazz:" +
+                    scheduleInvokeData.getObject().getClass().getName() +
+                    ", method:" + method.getName() +
+                    ", cron:" + cron, e);
+        }
+    }
+
+    private <R> boolean apply(CronKey cron,
+                              ScheduleInvokeData scheduleInvokeData,
+                              long generation,
+                              CronOffload<R> cronOffload,
+                              R result,
+                              Throwable throwable) {
+        final Object object = scheduleInvokeData.getObject();
+        final Method method = scheduleInvokeData.getMethod();
+        //反注册时已经移除，或者重新注册后又发起了新的卸载，本次的结果都已经过期了
+        if (!offloadingMap.remove(scheduleInvokeData, generation)) {
+            log.debug(Markers.GameLoopScheduler, "the offload result is stale, drop it, clazz:{}, method:{}, cron:{}",
+                    () -> object.getClass().getName(),
+                    () -> method.getName(),
+                    () -> cron);
+            return false;
+        }
+
+        if (throwable != null) {
+            log.error(Markers.GameLoopScheduler, "exception caught when offload computing, clazz:" +
+                    object.getClass().getName() +
+                    ", method:" + method.getName() +
+                    ", cron:" + cron, throwable);
+            return false;
+        }
+
+        final SchedulingRunnable schedulingRunnable = cronToscheduleDataMap.get(cron);
+        if (schedulingRunnable == null || !schedulingRunnable.getScheduleInvokeDataSet().contains(scheduleInvokeData)) {
+            log.debug(Markers.GameLoopScheduler, "the method has been unregistered, drop the offload result, " +
+                            "clazz:{}, method:{}, cron:{}",
+                    () -> object.getClass().getName(),
+                    () -> method.getName(),
+                    () -> cron);
+            return false;
+        }
+
+        try (final GamedoLogContext.CloseableEntityId ignored = GamedoLogContext.pushEntityIdAuto(object)) {
+            cronOffload.getApplier().accept(result);
+            return true;
+        } catch (Exception e) {
+            log.error(Markers.GameLoopScheduler, "exception caught when offload applying, clazz:" +
+                    object.getClass().getName() +
+                    ", method:" + method.getName() +
+                    ", cron:" + cron, e);
+            return false;
+        }
+    }
+
+    private void metricGauge(CronKey cron) {
         owner.getComponent(MeterRegistry.class)
                 .map(meterRegistry -> GamedoConfiguration.isMetricCronEnable() ? meterRegistry : null)
                 .ifPresent(meterRegistry -> {
@@ -298,10 +722,10 @@ public class GameLoopScheduler extends GameLoopComponent implements IGameLoopSch
                     cron2GaugeMap.computeIfAbsent(cron, key -> {
 
                         final Tags tags = Metric.tags(owner);
-                        final Tag tag = Tag.of("cron", cron);
+                        final Tags cronTags = Tags.of("cron", cron.getCron(), "zone", cron.getZone().getId());
                         final AtomicLong count = new AtomicLong(countNew);
                         return Pair.of(count, Gauge.builder(Metric.MeterIdCronRegisterGauge, count, AtomicLong::longValue)
-                                .tags(tags.and(tag))
+                                .tags(tags.and(cronTags))
                                 .baseUnit(BaseUnits.OBJECTS)
                                 .description("the instance count of a specific @" + Cron.class.getSimpleName())
                                 .register(meterRegistry)
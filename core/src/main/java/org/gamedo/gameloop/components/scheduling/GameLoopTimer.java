@@ -0,0 +1,215 @@
+package org.gamedo.gameloop.components.scheduling;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.concurrent.TimerWheel;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
+import org.gamedo.logging.GamedoLogContext;
+import org.gamedo.logging.Markers;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+@Log4j2
+class GameLoopTimer extends TimerWheel.Timeout implements IGameLoopTimer {
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_DONE = 1;
+    private static final int STATE_CANCELLED = 2;
+    private static final AtomicIntegerFieldUpdater<GameLoopTimer> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(GameLoopTimer.class, "state");
+
+    /**
+     * 定时器当前所在的调度器，移交给其他IGameLoop时会被修改，参考：{@link GameLoopScheduler#attachTimers(java.util.List)}
+     */
+    private volatile GameLoopScheduler scheduler;
+    private final String ownerId;
+    private final Runnable task;
+    /**
+     * 周期性定时器的周期，一次性定时器和cron定时器为0
+     */
+    private final long periodNanos;
+    private final CronExpression cronExpression;
+    private final ZoneId zone;
+    /**
+     * cron定时器计划的触发时间（墙上时钟），用于计算下一次的触发时间，其他定时器为null
+     */
+    private ZonedDateTime cronTime;
+    private volatile int state = STATE_PENDING;
+    private long deadlineNanoTime;
+    /**
+     * 同一个ownerId的所有定时器组成的双向链表，用于按照ownerId批量取消
+     */
+    GameLoopTimer ownerPrev;
+    GameLoopTimer ownerNext;
+
+    GameLoopTimer(GameLoopScheduler scheduler,
+                  String ownerId,
+                  Runnable task,
+                  long deadlineNanoTime,
+                  long periodNanos,
+                  CronExpression cronExpression,
+                  ZoneId zone,
+                  ZonedDateTime cronTime) {
+        this.scheduler = scheduler;
+        this.ownerId = ownerId;
+        this.task = task;
+        this.deadlineNanoTime = deadlineNanoTime;
+        this.periodNanos = periodNanos;
+        this.cronExpression = cronExpression;
+        this.zone = zone;
+        this.cronTime = cronTime;
+    }
+
+    /**
+     * 计算cron表达式下一次的触发时间。时间轮基于{@link System#nanoTime()}，可能在墙上时钟到达计划的触发时间之前稍早到期，如果以当前
+     * 时间为基准，会在同一秒内再次触发，因此以上一次计划的触发时间与当前时间中较晚的一个为基准，参考：Spring的ReschedulingRunnable
+     *
+     * @param cronExpression cron表达式
+     * @param zone           时区
+     * @param lastCronTime   上一次计划的触发时间，第一次计算时为null
+     * @return 下一次触发的时间，如果没有下一次触发时间，返回null
+     */
+    static ZonedDateTime nextCronTime(CronExpression cronExpression, ZoneId zone, ZonedDateTime lastCronTime) {
+        final ZonedDateTime now = ZonedDateTime.now(zone);
+        return cronExpression.next(lastCronTime != null && lastCronTime.isAfter(now) ? lastCronTime : now);
+    }
+
+    /**
+     * 把墙上时钟的时间转换为{@link System#nanoTime()}的时间
+     *
+     * @param time 墙上时钟的时间
+     * @return 对应的{@link System#nanoTime()}
+     */
+    static long toNanoTime(ZonedDateTime time) {
+        final long nanoTime = System.nanoTime();
+        final long currentTimeMillis = System.currentTimeMillis();
+        return nanoTime + TimeUnit.MILLISECONDS.toNanos(time.toInstant().toEpochMilli() - currentTimeMillis);
+    }
+
+    long getDeadlineNanoTime() {
+        return deadlineNanoTime;
+    }
+
+    /**
+     * 在新的调度器线程内调用，之后的取消操作都会被投递到新的调度器
+     */
+    void attach(GameLoopScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * 在调用线程内通过CAS把状态从等待中改为已取消，成功之后定时器不会再执行，{@link GameLoopScheduler}线程只负责把它从时间轮以及
+     * ownerId的链表中摘除；如果{@link GameLoopScheduler}所属的IGameLoop已经关闭，摘除操作会被忽略（关闭时会清理所有的定时器）。
+     * 定时器正在移交时，摘除操作可能被投递到原来的调度器，此时由新的调度器在挂载之后自行摘除
+     *
+     * @return CAS成功返回true，定时器已经执行完毕或者已经被取消时返回false
+     */
+    @Override
+    public boolean cancel() {
+        if (!markCancelled()) {
+            return false;
+        }
+
+        //先CAS再读取调度器，与GameLoopScheduler.attachTimers中先写入调度器再检查状态的顺序相反，保证不会遗漏摘除
+        final GameLoopScheduler scheduler = this.scheduler;
+        if (scheduler.getOwner().inThread()) {
+            scheduler.removeTimer(this);
+            return true;
+        }
+
+        try {
+            scheduler.getOwner().execute(() -> scheduler.removeTimer(this));
+        } catch (RejectedExecutionException e) {
+            log.debug(Markers.GameLoopScheduler, "the IGameLoop {} has shutdown, skip unlinking the cancelled timer, ownerId:{}",
+                    () -> scheduler.getOwner().getId(),
+                    () -> ownerId);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return state == STATE_CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state != STATE_PENDING;
+    }
+
+    boolean markCancelled() {
+        return STATE.compareAndSet(this, STATE_PENDING, STATE_CANCELLED);
+    }
+
+    @Override
+    protected void expire() {
+        final boolean periodic = periodNanos > 0 || cronExpression != null;
+        if (!periodic) {
+            //其他线程可能刚刚取消了该定时器，此时摘除操作已经在排队了
+            if (!STATE.compareAndSet(this, STATE_PENDING, STATE_DONE)) {
+                return;
+            }
+            scheduler.onTimerFinish(this);
+        } else if (state != STATE_PENDING) {
+            return;
+        }
+
+        //海量定时器的场景下，避免每次到期都分配CloseableEntityId
+        if (ownerId != null) {
+            GamedoLogContext.pushEntityId(ownerId);
+        }
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.error(Markers.GameLoopScheduler, "exception caught when run timer, ownerId:" + ownerId +
+                    ", task:" + task, t);
+        } finally {
+            if (ownerId != null) {
+                GamedoLogContext.popEntityId();
+            }
+        }
+
+        //任务内部可能已经取消了自身
+        if (!periodic || state != STATE_PENDING) {
+            return;
+        }
+
+        if (cronExpression != null) {
+            cronTime = nextCronTime(cronExpression, zone, cronTime);
+            if (cronTime == null) {
+                log.error(Markers.GameLoopScheduler, "next trigger time is null, stop timer, ownerId:{}, cron:{}",
+                        ownerId,
+                        cronExpression);
+                if (STATE.compareAndSet(this, STATE_PENDING, STATE_DONE)) {
+                    scheduler.onTimerFinish(this);
+                }
+                return;
+            }
+            deadlineNanoTime = toNanoTime(cronTime);
+        } else {
+            deadlineNanoTime += periodNanos;
+        }
+
+        scheduler.addTimer(this);
+    }
+
+    @Override
+    public String toString() {
+        return "GameLoopTimer{" +
+                "ownerId=" + ownerId +
+                ", task=" + task +
+                ", periodNanos=" + periodNanos +
+                ", cron=" + cronExpression +
+                ", zone=" + zone +
+                ", state=" + state +
+                '}';
+    }
+}
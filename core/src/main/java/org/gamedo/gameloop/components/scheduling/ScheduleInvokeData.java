@@ -6,8 +6,12 @@ import lombok.Value;
 import java.lang.reflect.Method;
 
 @Value
-@EqualsAndHashCode
+@EqualsAndHashCode(of = {"object", "method"})
 class ScheduleInvokeData {
     Object object;
     Method method;
+    /**
+     * 是否为卸载型cron函数
+     */
+    boolean offload;
 }
@@ -1,16 +1,23 @@
 package org.gamedo.gameloop.components.scheduling;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.logging.Markers;
+import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.Metric;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.scheduling.support.SimpleTriggerContext;
 
 import java.lang.reflect.Method;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -25,18 +32,59 @@ class SchedulingRunnable implements Runnable {
     private final Runnable runnable;
     private final IGameLoop gameLoop;
     @ToString.Include
+    private final CronKey cronKey;
     private final CronTrigger trigger;
     private final SimpleTriggerContext triggerContext;
     private final Set<ScheduleInvokeData> scheduleInvokeDataSet = new HashSet<>(128);
+    /**
+     * 实际触发时间相对于计划触发时间的延迟
+     */
+    private final Timer skewTimer;
+    /**
+     * 延迟超过{@link GamedoConfiguration#getCronMisfireThresholdMillis()}的触发次数
+     */
+    private final Counter misfireCounter;
+    /**
+     * 注册了{@link #skewTimer}与{@link #misfireCounter}的{@link MeterRegistry}，本实例被丢弃时需要从中移除
+     */
+    private final Optional<MeterRegistry> meterRegistry;
     private Date scheduledExecutionTime;
     private CompletableFuture<Void> future;
 
-    SchedulingRunnable(GameLoopScheduler gameLoopScheduler, String cron, Runnable runnable) {
+    SchedulingRunnable(GameLoopScheduler gameLoopScheduler, CronKey cronKey, Runnable runnable) {
         this.gameLoopScheduler = gameLoopScheduler;
         this.runnable = runnable;
+        this.cronKey = cronKey;
         gameLoop = gameLoopScheduler.getOwner();
-        trigger = new CronTrigger(cron);
+        //时区在注册时已经解析并缓存（参考：ZoneIdCache），这里直接复用同一个ZoneId实例，每次计算下次触发时间时不再需要解析时区
+        trigger = new CronTrigger(cronKey.getCron(), cronKey.getZone());
         triggerContext = new SimpleTriggerContext();
+
+        meterRegistry = gameLoop.getComponent(MeterRegistry.class)
+                .filter(registry -> GamedoConfiguration.isMetricCronEnable());
+        final Tags tags = Metric.tags(gameLoop).and("cron", cronKey.getCron(), "zone", cronKey.getZone().getId());
+        skewTimer = meterRegistry.map(registry -> Timer.builder(Metric.MeterIdCronSkewTimer)
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .description("the delay between the scheduled and the actual execution time of a cron expression")
+                        .register(registry))
+                .orElse(Metric.NOOP_TIMER);
+        misfireCounter = meterRegistry.map(registry -> Counter.builder(Metric.MeterIdCronMisfireCounter)
+                        .tags(tags)
+                        .description("the count of executions whose delay exceeded the misfire threshold")
+                        .register(registry))
+                .orElse(Metric.NOOP_COUTER);
+    }
+
+    /**
+     * 本实例的最后一个注册者反注册时调用：从{@link MeterRegistry}中移除该cron表达式的延迟与错过触发的指标，否则注册、反注册不同的
+     * cron表达式会导致指标只增不减
+     */
+    void removeMeters() {
+        meterRegistry.ifPresent(registry -> {
+            registry.remove(skewTimer);
+            registry.remove(misfireCounter);
+        });
     }
 
     boolean containsMethod(Method method) {
@@ -65,7 +113,7 @@ class SchedulingRunnable implements Runnable {
 
             log.debug(Markers.GameLoopScheduler, "schedule next delay:{}, cron:{}",
                     () -> delay,
-                    () -> trigger.getExpression());
+                    () -> cronKey);
 
             return true;
         } else {
@@ -74,7 +122,7 @@ class SchedulingRunnable implements Runnable {
             //还是打印一个error日志
             log.error(Markers.GameLoopScheduler,
                     "next trigger time is null, stop schedule, cron:{}",
-                    trigger.getExpression());
+                    cronKey);
             return false;
         }
     }
@@ -83,10 +131,11 @@ class SchedulingRunnable implements Runnable {
     public void run() {
         final Date actualExecutionTime = new Date(triggerContext.getClock().millis());
         final String threadName = Thread.currentThread().getName();
+        recordSkew(actualExecutionTime);
         try {
             runnable.run();
         } catch (Throwable e) {
-            log.error(Markers.GameLoopScheduler, "exception caught when run, cron:" + trigger.getExpression() +
+            log.error(Markers.GameLoopScheduler, "exception caught when run, cron:" + cronKey +
                             ", thread:" + threadName, e);
         } finally {
             Date completionTime = new Date(triggerContext.getClock().millis());
@@ -99,4 +148,21 @@ class SchedulingRunnable implements Runnable {
             }
         }
     }
+
+    private void recordSkew(Date actualExecutionTime) {
+        if (scheduledExecutionTime == null) {
+            return;
+        }
+
+        final long skew = Math.max(0, actualExecutionTime.getTime() - scheduledExecutionTime.getTime());
+        skewTimer.record(skew, TimeUnit.MILLISECONDS);
+        if (skew > GamedoConfiguration.getCronMisfireThresholdMillis()) {
+            misfireCounter.increment();
+            log.warn(Markers.GameLoopScheduler, "cron misfire, cron:{}, scheduled:{}, skew:{}ms, registered:{}",
+                    cronKey,
+                    scheduledExecutionTime.getTime(),
+                    skew,
+                    scheduleInvokeDataSet.size());
+        }
+    }
 }
@@ -5,9 +5,17 @@ import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.annotation.Cron;
 
 import java.lang.reflect.Method;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * {@link IGameLoop}的cron调度器组件，提供该{@link IGameLoop}线程内的cron调度的注册、反注册的管理功能
+ * {@link IGameLoop}的cron调度器组件，提供该{@link IGameLoop}线程内的cron调度的注册、反注册的管理功能<p>
+ * 除此之外，还提供了统一的定时器功能（一次性、固定频率以及cron定时器），定时器由本组件内部的时间轮管理，创建和取消都是O(1)的，并且每个定
+ * 时器只需要一个{@link IGameLoopTimer}句柄对象，适用于buff过期等需要频繁创建、取消海量定时器的场景，此外定时器可以指定拥有者（通常为
+ * 某个IEntity的id），之后可以通过{@link #cancelTimers(String)}批量取消，当IEntity从{@link IGameLoop}反注册时，其拥有的所有定时器
+ * 也会被自动取消；而当IEntity在{@link IGameLoop}之间迁移时，其定时器会通过{@link #detachTimers(String)}、
+ * {@link #attachTimers(List)}移交给目标{@link IGameLoop}，剩余的延迟保持不变
  *
  * @see Cron
  */
@@ -42,6 +50,17 @@ public interface IGameLoopScheduler extends IComponent<IGameLoop> {
      */
     boolean register(Object object, Method method, String cron);
 
+    /**
+     * 将某个没有标注{@link Cron}的方法以指定的时区注册到调度注册器中，同一个cron表达式在不同的时区下会被分别调度
+     *
+     * @param object 要注册的类的实体
+     * @param method 要注册的方法
+     * @param cron   触发调度的cron表达式，配置方式可以参考：{@link Cron#value()}
+     * @param zone   计算触发时间时所使用的时区，参考：{@link Cron#zone()}
+     * @return 注册成功返回true，如果method已经被标注注解或者已经注册过，返回false
+     */
+    boolean register(Object object, Method method, String cron, ZoneId zone);
+
     /**
      * 取消某个类在调度注册器里的调度
      *
@@ -65,4 +84,74 @@ public interface IGameLoopScheduler extends IComponent<IGameLoop> {
      * @return 反注册成功的方法的总数量
      */
     int unregisterAll();
+
+    /**
+     * 创建一个一次性定时器，task会在{@link IGameLoop}线程内执行
+     *
+     * @param ownerId  定时器的拥有者，可以为null，参考：{@link #cancelTimers(String)}
+     * @param task     到期时要执行的任务
+     * @param delay    延迟时间
+     * @param timeUnit 延迟时间的单位
+     * @return 定时器的句柄
+     * @throws java.util.concurrent.RejectedExecutionException 如果{@link IGameLoop}已经被关闭
+     */
+    IGameLoopTimer scheduleTimer(String ownerId, Runnable task, long delay, TimeUnit timeUnit);
+
+    /**
+     * 创建一个固定频率的定时器，语义和{@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate}相同
+     *
+     * @param ownerId      定时器的拥有者，可以为null，参考：{@link #cancelTimers(String)}
+     * @param task         每次到期时要执行的任务
+     * @param initialDelay 首次执行的延迟时间
+     * @param period       执行周期，必须大于0
+     * @param timeUnit     时间单位
+     * @return 定时器的句柄
+     * @throws java.util.concurrent.RejectedExecutionException 如果{@link IGameLoop}已经被关闭
+     */
+    IGameLoopTimer scheduleTimerAtFixedRate(String ownerId, Runnable task, long initialDelay, long period, TimeUnit timeUnit);
+
+    /**
+     * 创建一个cron定时器，和{@link #register(Object, Method, String, ZoneId)}相比，cron定时器不需要反射调用，并且可以单独取消
+     *
+     * @param ownerId 定时器的拥有者，可以为null，参考：{@link #cancelTimers(String)}
+     * @param task    每次触发时要执行的任务
+     * @param cron    cron表达式，配置方式可以参考：{@link Cron#value()}
+     * @param zone    计算触发时间时所使用的时区，如果为null，则使用{@link IGameLoop}的默认时区
+     * @return 定时器的句柄
+     * @throws IllegalArgumentException                        如果cron表达式非法
+     * @throws java.util.concurrent.RejectedExecutionException 如果{@link IGameLoop}已经被关闭
+     */
+    IGameLoopTimer scheduleCronTimer(String ownerId, Runnable task, String cron, ZoneId zone);
+
+    /**
+     * 取消某个拥有者的所有定时器
+     *
+     * @param ownerId 定时器的拥有者
+     * @return 被取消的定时器的数量
+     */
+    int cancelTimers(String ownerId);
+
+    /**
+     * 摘下某个拥有者的所有定时器，用于把定时器移交给另一个{@link IGameLoop}（参考：{@link #attachTimers(List)}）。被摘下的定时器
+     * 保持等待中的状态，但在被重新挂载之前不会到期，其句柄依然可以被取消。如果在某个定时器自身的任务内调用，该定时器无法被摘下，会被取消
+     *
+     * @param ownerId 定时器的拥有者
+     * @return 被摘下的定时器
+     */
+    List<IGameLoopTimer> detachTimers(String ownerId);
+
+    /**
+     * 挂载从其他{@link IGameLoop}上摘下（参考：{@link #detachTimers(String)}）的定时器，定时器的到期时间保持不变，因此剩余的延迟不会
+     * 因为移交而改变，已经过期的定时器会在下一个tick到期；摘下期间已经被取消的定时器会被忽略。如果{@link IGameLoop}已经被关闭，所有
+     * 定时器都会被取消
+     *
+     * @param timers 要挂载的定时器
+     * @return 成功挂载的定时器的数量
+     */
+    int attachTimers(List<? extends IGameLoopTimer> timers);
+
+    /**
+     * @return 尚未到期的定时器的数量
+     */
+    int getTimerCount();
 }
@@ -0,0 +1,32 @@
+package org.gamedo.gameloop.components.scheduling.interfaces;
+
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+/**
+ * 通过{@link IGameLoopScheduler}创建的定时器的句柄，可以用于取消定时器
+ */
+public interface IGameLoopTimer {
+
+    /**
+     * @return 定时器的拥有者（通常为某个IEntity的id），如果创建时没有指定，返回null
+     */
+    String getOwnerId();
+
+    /**
+     * 取消定时器，取消之后定时任务不会再被执行。如果在{@link IGameLoop}线程内调用，定时器会被立即从时间轮中移除，否则取消操作会被投递
+     * 到{@link IGameLoop}线程内执行
+     *
+     * @return 如果定时器尚未到期（对于周期性定时器，尚未被取消）返回true，如果已经到期或者已经被取消，返回false
+     */
+    boolean cancel();
+
+    /**
+     * @return 如果定时器已经被取消，返回true
+     */
+    boolean isCancelled();
+
+    /**
+     * @return 如果定时器已经结束（一次性定时器已经执行或者任意定时器被取消），返回true
+     */
+    boolean isDone();
+}
@@ -0,0 +1,142 @@
+package org.gamedo.gameloop.components.systemmanager;
+
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.ComponentMask;
+import org.gamedo.ecs.ComponentType;
+import org.gamedo.gameloop.components.systemmanager.interfaces.ISystem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 某个{@link ISystem}所匹配的所有实体，以及这些实体的组件按照组件类型分列存储的稠密数组：第i个实体的某类型组件就是该类型那一列的第i
+ * 个元素，因此系统批量处理时只需要顺序遍历数组，而不需要逐个实体查询组件。实体移除时使用最后一个实体填补空位，因此实体的顺序是不固定的<p>
+ * 本类不是线程安全的，只能在{@link org.gamedo.gameloop.interfaces.IGameLoop}线程内访问
+ */
+public final class EntityColumns {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ComponentType<?>[] componentTypes;
+    /**
+     * {@link ComponentType#getId()} --> 该组件类型所在列的下标，不属于本组合的组件类型为-1
+     */
+    private final int[] columnIndexes;
+    private final Map<String, Integer> entityId2IndexMap = new HashMap<>(INITIAL_CAPACITY);
+    private ArchetypeEntity[] entities = new ArchetypeEntity[INITIAL_CAPACITY];
+    private final Object[][] columns;
+    private int size;
+
+    EntityColumns(ComponentMask componentMask) {
+        final List<ComponentType<?>> componentTypeList = componentMask.getComponentTypeList();
+        componentTypes = componentTypeList.toArray(new ComponentType<?>[0]);
+        columns = new Object[componentTypes.length][INITIAL_CAPACITY];
+
+        final int maxId = componentTypeList.stream().mapToInt(ComponentType::getId).max().orElse(-1);
+        columnIndexes = new int[maxId + 1];
+        Arrays.fill(columnIndexes, -1);
+        for (int i = 0; i < componentTypes.length; i++) {
+            columnIndexes[componentTypes[i].getId()] = i;
+        }
+    }
+
+    /**
+     * @return 实体的数量，也即每一列中有效元素的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index 实体的下标，范围：[0, {@link #size()})
+     * @return 该下标的实体
+     */
+    public ArchetypeEntity getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * 返回某个组件类型的整列数据，用于在热点循环中避免每次访问都查询列的下标。注意：
+     * <ul>
+     * <li> 数组的长度可能大于{@link #size()}，只有[0, {@link #size()})范围内的元素是有效的
+     * <li> 实体增加导致扩容后会返回新的数组，因此不要跨越心跳缓存该数组
+     * <li> 数组只能读取，禁止修改
+     * </ul>
+     *
+     * @param componentType 组件类型，必须属于{@link ISystem#getComponentMask()}
+     * @return 该组件类型的整列数据
+     * @throws IllegalArgumentException 如果组件类型不属于本组合
+     */
+    public Object[] column(ComponentType<?> componentType) {
+        final int id = componentType.getId();
+        final int columnIndex = id < columnIndexes.length ? columnIndexes[id] : -1;
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException("the component type is not a member of the columns:" + componentType);
+        }
+
+        return columns[columnIndex];
+    }
+
+    /**
+     * 返回某个实体的某类型组件
+     *
+     * @param componentType 组件类型，必须属于{@link ISystem#getComponentMask()}
+     * @param index         实体的下标，范围：[0, {@link #size()})
+     * @param <T>           组件的类型
+     * @return 组件
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ComponentType<T> componentType, int index) {
+        return (T) column(componentType)[index];
+    }
+
+    boolean contains(String entityId) {
+        return entityId2IndexMap.containsKey(entityId);
+    }
+
+    boolean add(ArchetypeEntity entity) {
+        if (entityId2IndexMap.putIfAbsent(entity.getId(), size) != null) {
+            return false;
+        }
+
+        if (size == entities.length) {
+            final int capacity = size << 1;
+            entities = Arrays.copyOf(entities, capacity);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+
+        entities[size] = entity;
+        for (int i = 0; i < componentTypes.length; i++) {
+            columns[i][size] = entity.component(componentTypes[i]);
+        }
+        size++;
+
+        return true;
+    }
+
+    boolean remove(String entityId) {
+        final Integer index = entityId2IndexMap.remove(entityId);
+        if (index == null) {
+            return false;
+        }
+
+        final int last = --size;
+        if (index != last) {
+            entities[index] = entities[last];
+            for (Object[] column : columns) {
+                column[index] = column[last];
+            }
+            entityId2IndexMap.put(entities[index].getId(), index);
+        }
+
+        entities[last] = null;
+        for (Object[] column : columns) {
+            column[last] = null;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package org.gamedo.gameloop.components.systemmanager;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.annotation.GamedoComponent;
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.GameLoopComponent;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.ISystem;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.logging.Markers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Log4j2
+@GamedoComponent
+public class GameLoopSystemManager extends GameLoopComponent implements IGameLoopSystemManager {
+
+    private final Map<ISystem, SystemRunnable> systemMap = new LinkedHashMap<>(8);
+    /**
+     * 系统心跳期间发生的实体增加、删除，延迟到心跳结束之后再生效，避免破坏正在遍历的{@link EntityColumns}
+     */
+    private final List<Runnable> pendingList = new ArrayList<>(8);
+    private int updateDepth;
+
+    public GameLoopSystemManager(IGameLoop owner) {
+        super(owner);
+    }
+
+    @Override
+    public boolean register(ISystem system, long tick, TimeUnit timeUnit) {
+
+        if (owner.isShutdown()) {
+            log.warn(Markers.GameLoopSystemManager, "the GameLoop has been shut down, register failed, clazz:{}",
+                    system.getClass().getName());
+            return false;
+        }
+
+        if (tick <= 0) {
+            log.error(Markers.GameLoopSystemManager, "invalid param:tick, register failed, clazz:{}, tick:{}, " +
+                            "timeUnit:{}",
+                    system.getClass().getName(),
+                    tick,
+                    timeUnit);
+            return false;
+        }
+
+        if (systemMap.containsKey(system)) {
+            log.error(Markers.GameLoopSystemManager, "the system has registered, clazz:{}",
+                    system.getClass().getName());
+            return false;
+        }
+
+        final SystemRunnable systemRunnable = new SystemRunnable(this, system, tick, timeUnit);
+        owner.getComponent(IGameLoopEntityManager.class)
+                .ifPresent(entityManager -> entityManager.getEntityMap()
+                        .values()
+                        .forEach(entity -> add(systemRunnable, entity)));
+
+        systemMap.put(system, systemRunnable);
+        systemRunnable.schedule();
+
+        log.debug(Markers.GameLoopSystemManager, "register system success, clazz:{}, mask:{}, tick:{}, timeUnit:{}, " +
+                        "entitySize:{}",
+                () -> system.getClass().getName(),
+                () -> system.getComponentMask(),
+                () -> tick,
+                () -> timeUnit,
+                () -> systemRunnable.columns.size());
+
+        return true;
+    }
+
+    @Override
+    public boolean unregister(ISystem system) {
+
+        final SystemRunnable systemRunnable = systemMap.remove(system);
+        if (systemRunnable == null) {
+            return false;
+        }
+
+        systemRunnable.future.cancel(false);
+
+        log.debug(Markers.GameLoopSystemManager, "unregister system, clazz:{}", () -> system.getClass().getName());
+
+        return true;
+    }
+
+    @Override
+    public int addEntity(IEntity entity) {
+        if (!(entity instanceof ArchetypeEntity) || systemMap.isEmpty()) {
+            return 0;
+        }
+
+        if (updateDepth > 0) {
+            pendingList.add(() -> addEntity(entity));
+            return (int) systemMap.keySet().stream()
+                    .filter(system -> ((ArchetypeEntity) entity).matches(system.getComponentMask()))
+                    .count();
+        }
+
+        int count = 0;
+        for (SystemRunnable systemRunnable : systemMap.values()) {
+            if (add(systemRunnable, entity)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int removeEntity(IEntity entity) {
+        if (!(entity instanceof ArchetypeEntity) || systemMap.isEmpty()) {
+            return 0;
+        }
+
+        if (updateDepth > 0) {
+            pendingList.add(() -> removeEntity(entity));
+            return (int) systemMap.values().stream()
+                    .filter(systemRunnable -> systemRunnable.columns.contains(entity.getId()))
+                    .count();
+        }
+
+        int count = 0;
+        for (SystemRunnable systemRunnable : systemMap.values()) {
+            if (systemRunnable.columns.remove(entity.getId())) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int refreshEntity(IEntity entity) {
+        removeEntity(entity);
+        return addEntity(entity);
+    }
+
+    @Override
+    public int getSystemCount() {
+        return systemMap.size();
+    }
+
+    void beginUpdate() {
+        updateDepth++;
+    }
+
+    void endUpdate() {
+        if (--updateDepth > 0 || pendingList.isEmpty()) {
+            return;
+        }
+
+        final List<Runnable> list = new ArrayList<>(pendingList);
+        pendingList.clear();
+        list.forEach(Runnable::run);
+    }
+
+    private static boolean add(SystemRunnable systemRunnable, IEntity entity) {
+        if (!(entity instanceof ArchetypeEntity)) {
+            return false;
+        }
+
+        final ArchetypeEntity archetypeEntity = (ArchetypeEntity) entity;
+        return archetypeEntity.matches(systemRunnable.system.getComponentMask()) &&
+                systemRunnable.columns.add(archetypeEntity);
+    }
+}
@@ -0,0 +1,74 @@
+package org.gamedo.gameloop.components.systemmanager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.gameloop.components.systemmanager.interfaces.ISystem;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.logging.Markers;
+import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.Metric;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Log4j2
+class SystemRunnable implements Runnable {
+    final GameLoopSystemManager systemManager;
+    final ISystem system;
+    final EntityColumns columns;
+    final long tick;
+    final TimeUnit timeUnit;
+    private final Timer timer;
+    private long lastMilliSecond = -1;
+    ScheduledFuture<?> future;
+
+    SystemRunnable(GameLoopSystemManager systemManager, ISystem system, long tick, TimeUnit timeUnit) {
+        this.systemManager = systemManager;
+        this.system = system;
+        this.tick = tick;
+        this.timeUnit = timeUnit;
+        columns = new EntityColumns(system.getComponentMask());
+
+        final IGameLoop gameLoop = systemManager.getOwner();
+        timer = gameLoop.getComponent(MeterRegistry.class)
+                .map(meterRegistry -> GamedoConfiguration.isMetricTickEnable() ? meterRegistry : null)
+                .map(meterRegistry -> Timer.builder(Metric.MeterIdSystemTimer)
+                        .tags(Metric.tags(gameLoop))
+                        .tag("class", system.getClass().getName())
+                        .tag("tick", tick + " " + timeUnit)
+                        .description("the " + ISystem.class.getSimpleName() + " update timing")
+                        .register(meterRegistry))
+                .orElse(Metric.NOOP_TIMER);
+    }
+
+    void schedule() {
+        future = systemManager.getOwner().scheduleAtFixedRate(this, 0, tick, timeUnit);
+    }
+
+    @Override
+    public void run() {
+        final long currentTimeMillis = System.currentTimeMillis();
+        systemManager.beginUpdate();
+        try {
+            timer.record(() -> system.update(columns, currentTimeMillis, lastMilliSecond));
+        } catch (Exception e) {
+            log.error(Markers.GameLoopSystemManager, "exception caught, clazz:" + system.getClass().getName() +
+                    ", tick:" + tick +
+                    ", timeUnit:" + timeUnit, e);
+        } finally {
+            lastMilliSecond = currentTimeMillis;
+            systemManager.endUpdate();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SystemRunnable{" +
+                "system=" + system.getClass().getSimpleName() +
+                ", tick=" + tick +
+                ", timeUnit=" + timeUnit +
+                ", entitySize=" + columns.size() +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package org.gamedo.gameloop.components.systemmanager.interfaces;
+
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.interfaces.IComponent;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IGameLoop}的系统管理组件，负责{@link ISystem}的注册、心跳调度，以及维护每个系统所匹配的实体。实体的增加和删除由
+ * {@link IGameLoopEntityManager}在注册、反注册实体时自动通知，只有{@link ArchetypeEntity}才会参与匹配
+ */
+public interface IGameLoopSystemManager extends IComponent<IGameLoop> {
+
+    /**
+     * 注册一个系统，{@link IGameLoopEntityManager}中已经存在的实体会立即参与匹配
+     *
+     * @param system   要注册的系统
+     * @param tick     心跳间隔
+     * @param timeUnit 心跳间隔的时间单位
+     * @return 注册成功返回true，如果该系统已经注册过，返回false
+     */
+    boolean register(ISystem system, long tick, TimeUnit timeUnit);
+
+    /**
+     * 反注册一个系统，之后该系统不再心跳
+     *
+     * @param system 要反注册的系统
+     * @return 反注册成功返回true，如果该系统没有注册过，返回false
+     */
+    boolean unregister(ISystem system);
+
+    /**
+     * 将实体加入到所有与之匹配的系统中，一般由{@link IGameLoopEntityManager}在注册实体时调用
+     *
+     * @param entity 要加入的实体
+     * @return 匹配的系统的数量
+     */
+    int addEntity(IEntity entity);
+
+    /**
+     * 将实体从所有系统中移除，一般由{@link IGameLoopEntityManager}在反注册实体时调用
+     *
+     * @param entity 要移除的实体
+     * @return 被移除的系统的数量
+     */
+    int removeEntity(IEntity entity);
+
+    /**
+     * 实体注册之后又增加了组件时，需要调用本函数重新匹配
+     *
+     * @param entity 要重新匹配的实体
+     * @return 重新匹配之后，与之匹配的系统的数量
+     */
+    int refreshEntity(IEntity entity);
+
+    /**
+     * @return 已经注册的系统的数量
+     */
+    int getSystemCount();
+}
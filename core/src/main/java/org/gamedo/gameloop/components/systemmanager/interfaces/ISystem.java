@@ -0,0 +1,47 @@
+package org.gamedo.gameloop.components.systemmanager.interfaces;
+
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.ComponentMask;
+import org.gamedo.gameloop.components.systemmanager.EntityColumns;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+/**
+ * ECS中的系统（System），与{@link org.gamedo.annotation.Tick}逐个实体反射调用心跳函数不同，系统声明自己所需要的组件组合，每次心
+ * 跳时批量处理本{@link IGameLoop}上所有拥有这些组件的{@link ArchetypeEntity}，例如：
+ * <pre>
+ *     public class MoveSystem implements ISystem {
+ *         private static final ComponentType&lt;Position&gt; POSITION = ComponentRegistry.of(Position.class);
+ *         private static final ComponentType&lt;Velocity&gt; VELOCITY = ComponentRegistry.of(Velocity.class);
+ *         private static final ComponentMask MASK = ComponentMask.of(POSITION, VELOCITY);
+ *
+ *         public ComponentMask getComponentMask() {
+ *             return MASK;
+ *         }
+ *
+ *         public void update(EntityColumns columns, long currentMilliSecond, long lastMilliSecond) {
+ *             final Object[] positions = columns.column(POSITION);
+ *             final Object[] velocities = columns.column(VELOCITY);
+ *             for (int i = 0, size = columns.size(); i &lt; size; i++) {
+ *                 ((Position) positions[i]).move((Velocity) velocities[i], currentMilliSecond - lastMilliSecond);
+ *             }
+ *         }
+ *     }
+ * </pre>
+ * 系统需要通过{@link IGameLoopSystemManager#register(ISystem, long, java.util.concurrent.TimeUnit)}注册到{@link IGameLoop}上
+ */
+public interface ISystem {
+
+    /**
+     * @return 本系统所需要的组件组合，只有拥有其中所有组件的{@link ArchetypeEntity}才会被本系统处理，注册后不可改变
+     */
+    ComponentMask getComponentMask();
+
+    /**
+     * 心跳函数，在{@link IGameLoop}线程内执行
+     *
+     * @param columns            所有匹配的实体以及按组件类型分列存储的组件，本次调用中注册、反注册的实体会在调用结束后才生效
+     * @param currentMilliSecond 本次心跳的时间
+     * @param lastMilliSecond    上一次心跳的时间，第一次心跳时为-1
+     */
+    void update(EntityColumns columns, long currentMilliSecond, long lastMilliSecond);
+}
@@ -13,6 +13,7 @@ import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManage
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.gamedo.logging.Markers;
 import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.AnnotatedMethodCache;
 import org.gamedo.util.Metric;
 import org.gamedo.util.Pair;
 import org.springframework.util.ReflectionUtils;
@@ -21,7 +22,6 @@ import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 @Log4j2
 @GamedoComponent
@@ -39,9 +39,7 @@ public class GameLoopTickManager extends GameLoopComponent implements IGameLoopT
     public int register(Object object) {
 
         final Class<?> clazz = object.getClass();
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz))
-                .filter(method -> method.isAnnotationPresent(Tick.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(clazz, Tick.class);
 
         if (annotatedMethodSet.isEmpty()) {
             log.info(Markers.GameLoopTickManager, "none annotation {} method found, clazz:{}",
@@ -142,7 +140,7 @@ public class GameLoopTickManager extends GameLoopComponent implements IGameLoopT
             return false;
         }
 
-        if (Arrays.stream(ReflectionUtils.getAllDeclaredMethods(clazz)).noneMatch(method1 -> method1.equals(method))) {
+        if (!AnnotatedMethodCache.isDeclaredMethod(clazz, method)) {
             log.error(Markers.GameLoopTickManager, "the method {} is not belong to clazz:{}, delay:{}, " +
                             "tick:{}, timeUnit:{}, scheduleWithFixedDelay:{}",
                     method.getName(),
@@ -193,9 +191,7 @@ public class GameLoopTickManager extends GameLoopComponent implements IGameLoopT
     @Override
     public int unregister(Object object) {
 
-        final Set<Method> annotatedMethodSet = Arrays.stream(ReflectionUtils.getAllDeclaredMethods(object.getClass()))
-                .filter(method -> method.isAnnotationPresent(Tick.class) && !method.isSynthetic())
-                .collect(Collectors.toSet());
+        final Set<Method> annotatedMethodSet = AnnotatedMethodCache.getAnnotatedMethods(object.getClass(), Tick.class);
 
         if (annotatedMethodSet.isEmpty()) {
             log.info(Markers.GameLoopTickManager, "none annotation {} method found, clazz:{}",
@@ -11,10 +11,16 @@ import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.exception.GameLoopException;
 import org.gamedo.gameloop.GameLoop;
 import org.gamedo.gameloop.GameLoopConfig;
+import org.gamedo.gameloop.GameLoopGroupRebalancer;
+import org.gamedo.gameloop.GameLoopPromise;
+import org.gamedo.gameloop.GameLoopSelectStrategy;
+import org.gamedo.gameloop.GameLoopTaskLane;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
 import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
 import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManager;
 import org.gamedo.util.function.IGameLoopEntityManagerFunction;
 import org.gamedo.util.function.IGameLoopEventBusFunction;
@@ -60,6 +66,8 @@ import java.util.function.BiConsumer;
  * <li> {@link IGameLoopEventBus} 提供线程内的事件动态订阅、发布、处理机制
  * <li> {@link IGameLoopScheduler} 提供线程内的cron动态管理机制
  * <li> {@link IGameLoopTickManager} 提供线程内的逻辑心跳的动态管理机制
+ * <li> {@link IGameLoopSystemManager} 提供线程内按组件组合批量处理实体的系统（System）管理机制
+ * <li> {@link IGameLoopPassivationManager} 提供线程内空闲实体的钝化、激活机制
  * </ul>
  * <p>当某个{@link IEntity}实例被安全发布到{@link IGameLoop}上时，本实例及其所有组件都具备了事件订阅、cron延迟运行、逻辑心跳的能力，详情可
  * 以参考{@link org.gamedo.annotation}包内关于{@link Subscribe}、{@link Cron}以及{@link Tick}的注释。这些组件的使用方式可以参考
@@ -126,6 +134,22 @@ public interface IGameLoop extends ScheduledExecutorService, IEntity {
      */
     Optional<IGameLoopGroup> owner();
 
+    /**
+     * 返回本{@link IGameLoop}自创建以来执行任务所花费的累计时间，本函数是线程安全的。在两个时间点分别采样，忙碌时间的差值除以时间
+     * 间隔就是这段时间内的线程利用率，可以用于衡量{@link IGameLoop}的负载，参考：{@link GameLoopGroupRebalancer}
+     *
+     * @return 累计的忙碌时间（纳秒）
+     */
+    long getBusyNanoTime();
+
+    /**
+     * 返回已经提交但尚未开始执行的任务数量，直接读取任务队列的长度，不需要向本{@link IGameLoop}提交任务，本函数是线程安全的，但在
+     * 其他线程内读取时只是一个近似值，可以用于衡量{@link IGameLoop}的排队程度，参考：{@link GameLoopSelectStrategy}
+     *
+     * @return 待执行的任务数量
+     */
+    int getPendingTaskCount();
+
     /**
      * 提交一个操作到该{@link IGameLoop}，本函数是线程安全的，如果提交操作的线程就是{@link IGameLoop}本线程，则任务立即执行，可以通过
      * {@link CompletableFuture#getNow(Object)}立刻获得返回结果，否则就提交到{@link IGameLoop}上异步执行，对于该接口的使用场景，
@@ -145,4 +169,62 @@ public interface IGameLoop extends ScheduledExecutorService, IEntity {
      * @return 操作返回结果
      */
     <R> CompletableFuture<R> submit(EntityFunction<IGameLoop, R> function);
+
+    /**
+     * {@link #submit(EntityFunction)}的无返回值版本：提交一个操作到该{@link IGameLoop}，不关心其返回结果，本函数是线程安全的。如果
+     * 提交操作的线程就是{@link IGameLoop}本线程，则立即执行，否则提交到{@link IGameLoop}上异步执行，和{@link #submit(EntityFunction)}
+     * 相比，不会为每次提交分配{@link CompletableFuture}，适用于投递事件、通知等高频且不需要结果的场景。执行时抛出的异常只会被记录日志，
+     * 如果{@link IGameLoop}已经关闭，则抛出{@link java.util.concurrent.RejectedExecutionException}
+     *
+     * @param function 要提交的function，其返回值被忽略
+     */
+    void execute(EntityFunction<IGameLoop, ?> function);
+
+    /**
+     * 把任务提交到指定的{@link GameLoopTaskLane}，即使在本{@link IGameLoop}线程内调用，任务也会被排队而不是立即执行，本函数是线程安全的。
+     * 例如把玩家的输入提交到{@link GameLoopTaskLane#URGENT}，把持久化的回调提交到{@link GameLoopTaskLane#BACKGROUND}，这样大量的
+     * 持久化回调不会推迟玩家输入的响应
+     *
+     * @param command 要执行的任务
+     * @param lane    任务通道
+     */
+    void execute(Runnable command, GameLoopTaskLane lane);
+
+    /**
+     * {@link #execute(EntityFunction)}的指定通道版本，如果提交操作的线程就是{@link IGameLoop}本线程，则立即执行，否则提交到指定的
+     * {@link GameLoopTaskLane}上异步执行，参考：{@link #execute(Runnable, GameLoopTaskLane)}
+     *
+     * @param function 要提交的function，其返回值被忽略
+     * @param lane     任务通道
+     */
+    void execute(EntityFunction<IGameLoop, ?> function, GameLoopTaskLane lane);
+
+    /**
+     * {@link #submit(EntityFunction)}的指定通道版本，如果提交操作的线程就是{@link IGameLoop}本线程，则立即执行，否则提交到指定的
+     * {@link GameLoopTaskLane}上异步执行，参考：{@link #execute(Runnable, GameLoopTaskLane)}
+     *
+     * @param function 要提交的function
+     * @param lane     任务通道
+     * @param <R>      提交后的返回值类型
+     * @return 操作返回结果
+     */
+    <R> CompletableFuture<R> submit(EntityFunction<IGameLoop, R> function, GameLoopTaskLane lane);
+
+    /**
+     * 和{@link #submit(EntityFunction)}的语义相同，但是返回一个更轻量的{@link GameLoopPromise}：跨线程提交时，提交的任务本身就是
+     * 返回的结果对象，并且通过{@link GameLoopPromise#whenComplete(BiConsumer)}注册的回调总是在本{@link IGameLoop}线程内执行
+     * （本{@link IGameLoop}已经关闭、回调无法投递时除外），不会像{@link CompletableFuture}那样在不确定的线程上执行回调；当其他{@link IGameLoop}调用本函数时，还可以通过
+     * {@link GameLoopPromise#onCaller(BiConsumer)}让回调自动回到调用方的线程内执行，例如：
+     * <pre>
+     *     otherGameLoop.promise(IGameLoopEntityManagerFunction.getEntityCount())
+     *             .onCaller((count, throwable) -&#62; {
+     *                 //此处在调用方的IGameLoop线程内，可以安全地访问调用方的状态
+     *             });
+     * </pre>
+     *
+     * @param function 要提交的function
+     * @param <R>      提交后的返回值类型
+     * @return 操作返回结果
+     */
+    <R> GameLoopPromise<R> promise(EntityFunction<IGameLoop, R> function);
 }
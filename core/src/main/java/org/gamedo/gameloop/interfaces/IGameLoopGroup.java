@@ -1,5 +1,8 @@
 package org.gamedo.gameloop.interfaces;
 
+import org.gamedo.gameloop.EntityDirectory;
+import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
 import org.gamedo.util.function.EntityFunction;
 import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.util.function.IGameLoopEventBusFunction;
@@ -9,6 +12,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -57,6 +61,58 @@ public interface IGameLoopGroup extends ExecutorService {
      */
     IGameLoop[] selectAll();
 
+    /**
+     * 返回本{@link IGameLoopGroup}的实体目录，参考：{@link EntityDirectory}
+     *
+     * @return 实体目录
+     */
+    EntityDirectory getEntityDirectory();
+
+    /**
+     * 查询某个{@link IEntity}所在的{@link IGameLoop}，本函数是线程安全的，是一次无锁的读操作，也即：
+     * <pre>
+     *     gameLoopGroup.getEntityDirectory().owner(entityId);
+     * </pre>
+     * 和{@code select(IGameLoopEntityManagerFunction.hasEntity(entityId), ...)}相比，不需要向所有{@link IGameLoop}提交任务并等待
+     *
+     * @param entityId 实体的id
+     * @return 如果该实体没有注册在本{@link IGameLoopGroup}的任何{@link IGameLoop}上，返回Optional.empty()
+     */
+    Optional<IGameLoop> owner(String entityId);
+
+    /**
+     * 提交一个操作到某个{@link IEntity}所在的{@link IGameLoop}线程，例如：交易、私聊等跨实体的交互，需要注意的是：在操作真正执行之前，
+     * 实体可能已经被反注册或者迁移，因此操作内部仍然需要检查实体是否存在。如果实体正在通过{@link #migrate(String, IGameLoop)}迁移，
+     * 操作会等到迁移结束（无论成功与否）之后再提交到实体所在的{@link IGameLoop}。如果实体处于钝化状态，会在操作执行之前先将其激活（参考：
+     * {@link org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager#activate(String)}），例如：
+     * <pre>
+     *     gameLoopGroup.submitOwner(entityId, gameLoop -&#62; gameLoop.getComponent(IGameLoopEntityManager.class)
+     *                 .map(entityManager -&#62; entityManager.getEntityMap().get(entityId))
+     *                 .map(entity -&#62; ...));
+     * </pre>
+     *
+     * @param entityId 实体的id
+     * @param function 要提交的function
+     * @param <R>      提交后的返回值类型
+     * @return 操作返回结果，如果实体不存在，返回的CompletableFuture会以{@link org.gamedo.exception.GameLoopException}异常结束
+     */
+    <R> CompletableFuture<R> submitOwner(String entityId, EntityFunction<IGameLoop, R> function);
+
+    /**
+     * 根据亲和性的key（一般是{@link IEntity}的id）选择一个固定的{@link IGameLoop}，时间复杂度为O(1)，本函数是线程安全的：
+     * <ul>
+     * <li> 在{@link IGameLoop}的集合不变的情况下，相同的key总是返回相同的{@link IGameLoop}，因此如果实体在注册时就通过本函数选择
+     * {@link IGameLoop}，之后投递给该实体的消息都可以直接路由到其所在的{@link IGameLoop}，而不需要向所有{@link IGameLoop}广播查询
+     * <li> 通过{@link #register(IGameLoop)}增加{@link IGameLoop}后，只有大约1/n的key会被重新映射到新增的{@link IGameLoop}上，其余key
+     * 的映射保持不变
+     * </ul>
+     * 注意：通过{@link #migrate(String, IGameLoop)}迁移的实体不再满足亲和性，路由到的{@link IGameLoop}上可能已经没有该实体了
+     *
+     * @param key 亲和性的key
+     * @return 该key所映射的IGameLoop
+     */
+    IGameLoop selectAffinity(String key);
+
     /**
      * 轮询选择下一个{@link IGameLoop}线程
      *
@@ -97,6 +153,23 @@ public interface IGameLoopGroup extends ExecutorService {
                                                                                 Comparator<C> comparator,
                                                                                 int limit);
 
+    /**
+     * 和{@link #select(EntityFunction, Comparator, int)}相同，但是可以指定执行汇总（选出前limit个{@link IGameLoop}）的{@link Executor}，
+     * 例如在调用方自己的{@link IGameLoop}上汇总，避免占用被查询的{@link IGameLoop}线程。查询时每个{@link IGameLoop}把比较元素写入预先
+     * 分配的结果数组，最后一个完成的{@link IGameLoop}触发汇总，汇总只做前limit个的部分选择，而不是完整的排序
+     *
+     * @param <C>        比较元素的类型
+     * @param chooser    比较元素抽取器
+     * @param comparator 元素比较器
+     * @param limit      最大返回的{@link IGameLoop}的个数
+     * @param executor   执行汇总的{@link Executor}，为null时在最后一个完成chooser的{@link IGameLoop}线程内汇总
+     * @return 返回有效的IGameLoop集合，假如任意线程在执行chooser时抛出了异常，那么该返回CompletableFuture会抛出异常
+     */
+    <C extends Comparable<? super C>> CompletableFuture<List<IGameLoop>> select(EntityFunction<IGameLoop, C> chooser,
+                                                                                Comparator<C> comparator,
+                                                                                int limit,
+                                                                                Executor executor);
+
     /**
      * 提交一个操作到轮询的当前{@link IGameLoop}线程
      * @param function 要提交的function
@@ -106,6 +179,19 @@ public interface IGameLoopGroup extends ExecutorService {
      */
     <R> CompletableFuture<R> submit(EntityFunction<IGameLoop, R> function);
 
+    /**
+     * 提交一个操作到亲和性的key所映射的{@link IGameLoop}线程，也即：
+     * <pre>
+     *     gameLoopGroup.selectAffinity(key).submit(function);
+     * </pre>
+     *
+     * @param key      亲和性的key，参考：{@link #selectAffinity(String)}
+     * @param function 要提交的function
+     * @param <R>      提交后的返回值类型
+     * @return 操作返回结果
+     */
+    <R> CompletableFuture<R> submit(String key, EntityFunction<IGameLoop, R> function);
+
     /**
      * 向{@link IGameLoopGroup}提交一个function操作，该操作仅在满足filter条件的gameLoop上被执行，该函数可以产生两种特例化变体：
      * <ul>
@@ -125,6 +211,19 @@ public interface IGameLoopGroup extends ExecutorService {
      */
     <R> CompletableFuture<List<R>> submit(EntityFunction<IGameLoop, Boolean> filter, EntityFunction<IGameLoop, R> function);
 
+    /**
+     * 和{@link #submit(EntityFunction, EntityFunction)}相同，但是可以指定执行汇总（收集结果列表）的{@link Executor}
+     *
+     * @param filter   过滤器
+     * @param function 要执行的操作
+     * @param executor 执行汇总的{@link Executor}，为null时在最后一个完成操作的{@link IGameLoop}线程内汇总
+     * @param <R>      返回值类型
+     * @return 返回值集合，假如任意线程在submit时抛出了异常，那么该返回CompletableFuture会抛出异常
+     */
+    <R> CompletableFuture<List<R>> submit(EntityFunction<IGameLoop, Boolean> filter,
+                                          EntityFunction<IGameLoop, R> function,
+                                          Executor executor);
+
     /**
      * 提交一个操作到被本{@link IGameLoopGroup}管理的所有的{@link IGameLoop}上，该方法是
      * {@link IGameLoopGroup#submit(EntityFunction, EntityFunction)}的一个特例，也即：
@@ -143,4 +242,25 @@ public interface IGameLoopGroup extends ExecutorService {
      * @return 返回值集合，假如任意线程在submit时抛出了异常，那么该返回CompletableFuture会抛出异常
      */
     <R> CompletableFuture<List<R>> submitAll(EntityFunction<IGameLoop, R> function);
+
+    /**
+     * 将一个{@link IEntity}从其当前所在的{@link IGameLoop}迁移到另一个{@link IGameLoop}上，例如玩家跨越了场景的边界，或者需要对负载
+     * 过高的{@link IGameLoop}进行再平衡，整个迁移过程为：
+     * <ul>
+     * <li> 在源{@link IGameLoop}线程内摘下实体所拥有的定时器（参考：{@link IGameLoopScheduler#scheduleTimer}），执行完整的反注册流程，
+     * 并开始为该实体暂存之后投递到源{@link IGameLoop}上的事件（参考：{@link IGameLoopEntityManager#migrateOut(String)}）
+     * <li> 在目标{@link IGameLoop}线程内执行完整的注册流程，实体的交接通过{@link CompletableFuture}的完成与提交来保证内存可见性，迁移期间
+     * 任何线程都不会同时访问该实体
+     * <li> 在源{@link IGameLoop}线程内停止暂存，之后再到目标{@link IGameLoop}线程内将暂存的事件逐个转交给实体及其组件，并挂载摘下的
+     * 定时器，定时器的到期时间保持不变，已有的{@link org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer}句柄依然有效
+     * </ul>
+     * 如果目标{@link IGameLoop}注册失败（例如已经存在相同id的实体），实体会被重新注册回源{@link IGameLoop}，暂存的事件与定时器也会转交回去。
+     * 迁移期间实体不在实体目录中，对该实体的{@link #submitOwner(String, EntityFunction)}会等待迁移结束；同一个实体同一时间只能有一个迁移，
+     * 迁移尚未结束时再次迁移会直接返回false
+     *
+     * @param entityId   要迁移的实体的id
+     * @param targetLoop 目标{@link IGameLoop}，必须被本{@link IGameLoopGroup}管理
+     * @return 迁移成功时返回true，如果实体不存在、目标不属于本{@link IGameLoopGroup}或者注册失败，返回false
+     */
+    CompletableFuture<Boolean> migrate(String entityId, IGameLoop targetLoop);
 }
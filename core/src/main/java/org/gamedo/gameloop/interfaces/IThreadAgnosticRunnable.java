@@ -0,0 +1,14 @@
+package org.gamedo.gameloop.interfaces;
+
+import org.gamedo.gameloop.GameLoopOverflowPolicy;
+
+/**
+ * 不依赖于{@link IGameLoop}线程的任务：不访问任何实体、组件的状态，在任意线程内执行都是安全的。只有实现了本接口的任务才会在任务队列
+ * 已满时被{@link GameLoopOverflowPolicy#CALLER_RUNS}放到提交线程内执行，其他任务仍然必须在{@link IGameLoop}线程内执行，例如：
+ * <pre>
+ *     gameLoop.execute((IThreadAgnosticRunnable) () -&#62; log.info("statistics:{}", statistics.snapshot()));
+ * </pre>
+ */
+@FunctionalInterface
+public interface IThreadAgnosticRunnable extends Runnable {
+}
@@ -71,6 +71,8 @@ public final class Markers
     public static final Marker GameLoopEventBus = of("gamedo.eventBus", GameLoop);
     public static final Marker GameLoopTickManager = of("gamedo.tickManager", GameLoop);
     public static final Marker GameLoopScheduler = of("gamedo.scheduler", GameLoop);
+    public static final Marker GameLoopSystemManager = of("gamedo.systemManager", GameLoop);
+    public static final Marker GameLoopPassivationManager = of("gamedo.passivationManager", GameLoop);
 
     private Markers() {
     }
@@ -0,0 +1,67 @@
+package org.gamedo.util;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类的反射元数据缓存，每个类的所有方法（包括父类）只在第一次使用时通过{@link ReflectionUtils#getAllDeclaredMethods(Class)}扫描一次，
+ * 之后同一个类的所有实例都直接复用扫描结果，避免海量实体注册、反注册时的重复反射扫描<p>
+ * 缓存挂载在{@link ClassValue}上，没有淘汰机制，并且缓存的{@link Method}强引用了其所属的类，因此不能保证这些类及其类加载器能够被回收，
+ * 不适用于需要卸载类加载器（例如热更新）的场景
+ */
+public final class AnnotatedMethodCache {
+
+    private static final ClassValue<Set<Method>> DECLARED_METHOD_CACHE = new ClassValue<Set<Method>>() {
+        @Override
+        protected Set<Method> computeValue(Class<?> type) {
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ReflectionUtils.getAllDeclaredMethods(type))));
+        }
+    };
+
+    private static final ClassValue<Map<Class<? extends Annotation>, Set<Method>>> ANNOTATED_METHOD_CACHE =
+            new ClassValue<Map<Class<? extends Annotation>, Set<Method>>>() {
+                @Override
+                protected Map<Class<? extends Annotation>, Set<Method>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>(4);
+                }
+            };
+
+    private AnnotatedMethodCache() {
+    }
+
+    /**
+     * 返回某个类（包括父类）中所有被指定注解标注的非合成方法，返回的方法都已经{@link ReflectionUtils#makeAccessible(Method) 设置为可访问}
+     *
+     * @param clazz      要查询的类
+     * @param annotation 注解的类型
+     * @return 不可修改的方法集合，如果没有，返回空集合
+     */
+    public static Set<Method> getAnnotatedMethods(Class<?> clazz, Class<? extends Annotation> annotation) {
+        return ANNOTATED_METHOD_CACHE.get(clazz).computeIfAbsent(annotation, key -> {
+            final Set<Method> methodSet = new LinkedHashSet<>(4);
+            for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
+                if (method.isAnnotationPresent(key) && !method.isSynthetic()) {
+                    ReflectionUtils.makeAccessible(method);
+                    methodSet.add(method);
+                }
+            }
+
+            return methodSet.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(methodSet);
+        });
+    }
+
+    /**
+     * 检测某个方法是否属于某个类（包括父类）
+     *
+     * @param clazz  要检测的类
+     * @param method 要检测的方法
+     * @return 如果属于，返回true
+     */
+    public static boolean isDeclaredMethod(Class<?> clazz, Method method) {
+        return DECLARED_METHOD_CACHE.get(clazz).contains(method);
+    }
+}
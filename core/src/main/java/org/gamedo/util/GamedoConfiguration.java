@@ -4,6 +4,37 @@ public final class GamedoConfiguration {
     public static final int MAX_EVENT_POST_DEPTH_DEFAULT = 20;
     public static final String MAX_EVENT_POST_DEPTH_KEY = "gamedo.gameloop.max-event-post-depth";
 
+    public static final int CRON_OFFLOAD_THREAD_COUNT_DEFAULT = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final String CRON_OFFLOAD_THREAD_COUNT_KEY = "gamedo.gameloop.cron-offload-thread-count";
+    public static final int CRON_OFFLOAD_QUEUE_CAPACITY_DEFAULT = 1024;
+    public static final String CRON_OFFLOAD_QUEUE_CAPACITY_KEY = "gamedo.gameloop.cron-offload-queue-capacity";
+    public static final long CRON_MISFIRE_THRESHOLD_MILLIS_DEFAULT = 1000;
+    public static final String CRON_MISFIRE_THRESHOLD_MILLIS_KEY = "gamedo.gameloop.cron-misfire-threshold-millis";
+
+    public static final int TIMER_TICK_MILLIS_DEFAULT = 1;
+    public static final String TIMER_TICK_MILLIS_KEY = "gamedo.gameloop.timer-tick-millis";
+    public static final int TIMER_WHEEL_SIZE_DEFAULT = 4096;
+    public static final String TIMER_WHEEL_SIZE_KEY = "gamedo.gameloop.timer-wheel-size";
+
+    public static final long REBALANCE_PERIOD_MILLIS_DEFAULT = 10_000;
+    public static final String REBALANCE_PERIOD_MILLIS_KEY = "gamedo.gameloop.rebalance-period-millis";
+    public static final double REBALANCE_HIGH_WATERMARK_DEFAULT = 0.2;
+    public static final String REBALANCE_HIGH_WATERMARK_KEY = "gamedo.gameloop.rebalance-high-watermark";
+    public static final double REBALANCE_LOW_WATERMARK_DEFAULT = 0.1;
+    public static final String REBALANCE_LOW_WATERMARK_KEY = "gamedo.gameloop.rebalance-low-watermark";
+    public static final int REBALANCE_MAX_MIGRATION_PER_ROUND_DEFAULT = 16;
+    public static final String REBALANCE_MAX_MIGRATION_PER_ROUND_KEY = "gamedo.gameloop.rebalance-max-migration-per-round";
+    public static final long REBALANCE_ENTITY_COOLDOWN_MILLIS_DEFAULT = 60_000;
+    public static final String REBALANCE_ENTITY_COOLDOWN_MILLIS_KEY = "gamedo.gameloop.rebalance-entity-cooldown-millis";
+
+    public static final int INVOKE_CHUNK_SIZE_DEFAULT = 0;
+    public static final String INVOKE_CHUNK_SIZE_KEY = "gamedo.gameloop.invoke-chunk-size";
+
+    public static final int LANE_URGENT_BATCH_DEFAULT = 64;
+    public static final String LANE_URGENT_BATCH_KEY = "gamedo.gameloop.lane-urgent-batch";
+    public static final int LANE_BACKGROUND_BATCH_DEFAULT = 4;
+    public static final String LANE_BACKGROUND_BATCH_KEY = "gamedo.gameloop.lane-background-batch";
+
     public static final boolean METRIC_ENTITY_ENABLE_DEFAULT = true;
     public static final boolean METRIC_CRON_ENABLE_DEFAULT = true;
     public static final boolean METRIC_EVENT_ENABLE_DEFAULT = true;
@@ -21,6 +52,58 @@ public final class GamedoConfiguration {
         return Integer.getInteger(MAX_EVENT_POST_DEPTH_KEY, MAX_EVENT_POST_DEPTH_DEFAULT);
     }
 
+    public static int getCronOffloadThreadCount() {
+        return Integer.getInteger(CRON_OFFLOAD_THREAD_COUNT_KEY, CRON_OFFLOAD_THREAD_COUNT_DEFAULT);
+    }
+
+    public static int getCronOffloadQueueCapacity() {
+        return Integer.getInteger(CRON_OFFLOAD_QUEUE_CAPACITY_KEY, CRON_OFFLOAD_QUEUE_CAPACITY_DEFAULT);
+    }
+
+    public static long getCronMisfireThresholdMillis() {
+        return Long.getLong(CRON_MISFIRE_THRESHOLD_MILLIS_KEY, CRON_MISFIRE_THRESHOLD_MILLIS_DEFAULT);
+    }
+
+    public static int getTimerTickMillis() {
+        return Integer.getInteger(TIMER_TICK_MILLIS_KEY, TIMER_TICK_MILLIS_DEFAULT);
+    }
+
+    public static int getTimerWheelSize() {
+        return Integer.getInteger(TIMER_WHEEL_SIZE_KEY, TIMER_WHEEL_SIZE_DEFAULT);
+    }
+
+    public static long getRebalancePeriodMillis() {
+        return Long.getLong(REBALANCE_PERIOD_MILLIS_KEY, REBALANCE_PERIOD_MILLIS_DEFAULT);
+    }
+
+    public static double getRebalanceHighWatermark() {
+        return getDouble(REBALANCE_HIGH_WATERMARK_KEY, REBALANCE_HIGH_WATERMARK_DEFAULT);
+    }
+
+    public static double getRebalanceLowWatermark() {
+        return getDouble(REBALANCE_LOW_WATERMARK_KEY, REBALANCE_LOW_WATERMARK_DEFAULT);
+    }
+
+    public static int getRebalanceMaxMigrationPerRound() {
+        return Integer.getInteger(REBALANCE_MAX_MIGRATION_PER_ROUND_KEY, REBALANCE_MAX_MIGRATION_PER_ROUND_DEFAULT);
+    }
+
+    public static long getRebalanceEntityCooldownMillis() {
+        return Long.getLong(REBALANCE_ENTITY_COOLDOWN_MILLIS_KEY, REBALANCE_ENTITY_COOLDOWN_MILLIS_DEFAULT);
+    }
+
+    public static int getInvokeChunkSize() {
+        return Integer.getInteger(INVOKE_CHUNK_SIZE_KEY, INVOKE_CHUNK_SIZE_DEFAULT);
+    }
+
+    public static int getLaneUrgentBatch() {
+        return Integer.getInteger(LANE_URGENT_BATCH_KEY, LANE_URGENT_BATCH_DEFAULT);
+    }
+
+    public static int getLaneBackgroundBatch() {
+        return Integer.getInteger(LANE_BACKGROUND_BATCH_KEY, LANE_BACKGROUND_BATCH_DEFAULT);
+    }
+
     public static boolean isMetricEntityEnable() {
         return Boolean.getBoolean(GAMEDO_METRIC_ENTITY_ENABLE_KEY);
     }
@@ -36,4 +119,17 @@ public final class GamedoConfiguration {
     public static boolean isMetricTickEnable() {
         return Boolean.getBoolean(GAMEDO_METRIC_TICK_ENABLE_KEY);
     }
+
+    private static double getDouble(String key, double defaultValue) {
+        final String value = System.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
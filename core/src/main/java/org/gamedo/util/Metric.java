@@ -27,9 +27,16 @@ public final class Metric {
     public static final String MeterIdEventRegisterGauge = "gamedo.gameloop.event.register";
     public static final String MeterIdCronTimer = "gamedo.gameloop.cron";
     public static final String MeterIdCronRegisterGauge = "gamedo.gameloop.cron.register";
+    public static final String MeterIdCronSkewTimer = "gamedo.gameloop.cron.skew";
+    public static final String MeterIdCronMisfireCounter = "gamedo.gameloop.cron.misfire";
     public static final String MeterIdTickTimer = "gamedo.gameloop.tick";
     public static final String MeterIdTickRegisterGauge = "gamedo.gameloop.tick.register";
+    public static final String MeterIdSystemTimer = "gamedo.gameloop.system";
     public static final String MeterIdEntityGauge = "gamedo.gameloop.entity";
+    public static final String MeterIdDelayedTaskGauge = "gamedo.gameloop.delayed.task";
+    public static final String MeterIdPendingTaskGauge = "gamedo.gameloop.pending.task";
+    public static final String MeterIdRejectedTaskCounter = "gamedo.gameloop.rejected.task";
+    public static final String MeterIdDroppedTaskCounter = "gamedo.gameloop.dropped.task";
 
     private Metric() {
     }
@@ -0,0 +1,61 @@
+package org.gamedo.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ZoneId}缓存，时区字符串只在第一次使用时解析，并且：
+ * <ul>
+ * <li> 对于没有夏令时等偏移变化的时区，直接归一化为{@link ZoneOffset}，之后的时间换算不再需要查询{@link ZoneRules}
+ * <li> 对于存在偏移变化的时区，预先计算未来若干年的偏移转换（{@link ZoneRules}内部会对每一年的转换进行缓存），使得之后的触发时间计算不
+ * 必再临时计算转换规则
+ * </ul>
+ */
+public final class ZoneIdCache {
+    /**
+     * 预先计算偏移转换的年数
+     */
+    private static final int PRECOMPUTE_TRANSITION_YEARS = 2;
+    private static final Map<String, ZoneId> ZONE_ID_MAP = new ConcurrentHashMap<>(16);
+
+    private ZoneIdCache() {
+    }
+
+    /**
+     * 返回时区字符串对应的{@link ZoneId}
+     *
+     * @param zone 时区字符串，例如：Asia/Shanghai、UTC+8，如果为空字符串，则返回{@link ZoneId#systemDefault()}
+     * @return 解析后的时区
+     * @throws java.time.DateTimeException 如果时区字符串非法
+     */
+    public static ZoneId of(String zone) {
+        if (zone == null || zone.isEmpty()) {
+            return ZoneId.systemDefault();
+        }
+
+        return ZONE_ID_MAP.computeIfAbsent(zone, ZoneIdCache::resolve);
+    }
+
+    private static ZoneId resolve(String zone) {
+        final ZoneId zoneId = ZoneId.of(zone);
+        final ZoneRules rules = zoneId.getRules();
+        if (rules.isFixedOffset()) {
+            return rules.getOffset(Instant.EPOCH);
+        }
+
+        final Instant now = Instant.now();
+        final Instant end = now.plus(PRECOMPUTE_TRANSITION_YEARS * 366L, ChronoUnit.DAYS);
+        ZoneOffsetTransition transition = rules.nextTransition(now);
+        while (transition != null && transition.getInstant().isBefore(end)) {
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        return zoneId;
+    }
+}
@@ -2,8 +2,13 @@ package org.gamedo.util.function;
 
 import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @SuppressWarnings("unused")
@@ -20,6 +25,18 @@ public interface IGameLoopEntityManagerFunction {
                 .orElse(false);
     }
 
+    /**
+     * 定义一个行为：将一批{@link IEntity}注册到一个{@link IGameLoop}上
+     *
+     * @param entities 要注册的实体
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表注册成功的实体数量
+     */
+    static GameLoopFunction<Integer> registerEntities(final Collection<? extends IEntity> entities) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(iEntityMgr -> iEntityMgr.registerEntities(entities))
+                .orElse(0);
+    }
+
     /**
      * 定义一个行为：将某实体从{@link IGameLoop}上反注册
      *
@@ -53,4 +70,64 @@ public interface IGameLoopEntityManagerFunction {
                 .map(iEntityManager -> iEntityManager.getEntityCount())
                 .orElse(0);
     }
+
+    /**
+     * 定义一个行为：检测某个{@link IGameLoopEntityManager}管理的某个类型的实体的数量
+     *
+     * @param entityClazz 实体的类型
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表该类型的实体的数量
+     */
+    static GameLoopFunction<Integer> getEntityCount(final Class<? extends IEntity> entityClazz) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(iEntityManager -> iEntityManager.getEntityCount(entityClazz))
+                .orElse(0);
+    }
+
+    /**
+     * 定义一个行为：从{@link IGameLoop}上迁出一个实体
+     *
+     * @param entityId 要迁出的实体的Id
+     * @return 返回该行为的定义，参考：{@link IGameLoopEntityManager#migrateOut(String)}
+     */
+    static GameLoopFunction<Optional<IEntity>> migrateOut(final String entityId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .flatMap(iEntityMgr -> iEntityMgr.migrateOut(entityId));
+    }
+
+    /**
+     * 定义一个行为：结束实体的迁出
+     *
+     * @param entityId 迁出的实体的Id
+     * @return 返回该行为的定义，参考：{@link IGameLoopEntityManager#finishMigrateOut(String)}
+     */
+    static GameLoopFunction<List<IEvent>> finishMigrateOut(final String entityId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(iEntityMgr -> iEntityMgr.finishMigrateOut(entityId))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * 定义一个行为：取出实体迁出时摘下的定时器
+     *
+     * @param entityId 迁出的实体的Id
+     * @return 返回该行为的定义，参考：{@link IGameLoopEntityManager#releaseTimers(String)}
+     */
+    static GameLoopFunction<List<IGameLoopTimer>> releaseTimers(final String entityId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(iEntityMgr -> iEntityMgr.releaseTimers(entityId))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * 定义一个行为：将事件逐个投递给{@link IGameLoop}上的某个实体及其所有组件
+     *
+     * @param entityId 实体的Id
+     * @param events   要投递的事件
+     * @return 返回该行为的定义，参考：{@link IGameLoopEntityManager#deliverEvents(String, List)}
+     */
+    static GameLoopFunction<Integer> deliverEvents(final String entityId, final List<? extends IEvent> events) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .map(iEntityMgr -> iEntityMgr.deliverEvents(entityId, events))
+                .orElse(0);
+    }
 }
@@ -0,0 +1,49 @@
+package org.gamedo.util.function;
+
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.passivation.interfaces.IEntityCodec;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+import java.util.Optional;
+
+@SuppressWarnings("unused")
+public interface IGameLoopPassivationManagerFunction {
+
+    /**
+     * 定义一个行为：通过{@link IGameLoop}的{@link IGameLoopPassivationManager}组件钝化一个实体
+     *
+     * @param entityId 要钝化的实体的id
+     * @param codec    实体的编解码器
+     * @return 返回该行为的定义，其中GameLoopFunction中的Boolean代表钝化是否成功
+     */
+    static GameLoopFunction<Boolean> passivate(final String entityId, final IEntityCodec codec) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopPassivationManager.class)
+                .map(passivationManager -> passivationManager.passivate(entityId, codec))
+                .orElse(false);
+    }
+
+    /**
+     * 定义一个行为：通过{@link IGameLoop}的{@link IGameLoopPassivationManager}组件激活一个被钝化的实体，如果实体本来就处于注册状态，
+     * 则直接返回该实体，因此可以在访问实体之前调用
+     *
+     * @param entityId 要激活的实体的id
+     * @return 返回该行为的定义，其中GameLoopFunction中的Optional代表激活后的实体
+     */
+    static GameLoopFunction<Optional<IEntity>> activate(final String entityId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopPassivationManager.class)
+                .flatMap(passivationManager -> passivationManager.activate(entityId));
+    }
+
+    /**
+     * 定义一个行为：检测某个实体是否处于钝化状态
+     *
+     * @param entityId 实体的id
+     * @return 返回该行为的定义，其中GameLoopFunction中的Boolean代表是否处于钝化状态
+     */
+    static GameLoopFunction<Boolean> isPassivated(final String entityId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopPassivationManager.class)
+                .map(passivationManager -> passivationManager.isPassivated(entityId))
+                .orElse(false);
+    }
+}
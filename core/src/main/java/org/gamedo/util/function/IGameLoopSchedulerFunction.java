@@ -2,9 +2,13 @@ package org.gamedo.util.function;
 
 import org.gamedo.annotation.Cron;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 
 import java.lang.reflect.Method;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
 
 public interface IGameLoopSchedulerFunction {
 
@@ -36,6 +40,22 @@ public interface IGameLoopSchedulerFunction {
                 .orElse(false);
     }
 
+    /**
+     * 定义一个行为：向{@link IGameLoop}的{@link IGameLoopScheduler}组件注册cron调度，并指定object
+     * 的method方法以自定义的cron表达式及时区进行注册
+     *
+     * @param object 要注册的实体
+     * @param method 该实体的方法
+     * @param cron   要注册的cron表达式
+     * @param zone   计算触发时间时所使用的时区
+     * @return 返回该行为的定义，其中GameLoopFunction中的Boolean代表是否注册成功
+     */
+    static GameLoopFunction<Boolean> register(Object object, Method method, String cron, ZoneId zone) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(iScheduleRegister -> iScheduleRegister.register(object, method, cron, zone))
+                .orElse(false);
+    }
+
     /**
      * 定义一个行为：向{@link IGameLoop}的{@link IGameLoopScheduler}取消注册cron调度
      *
@@ -60,4 +80,44 @@ public interface IGameLoopSchedulerFunction {
                 .map(iScheduleRegister -> iScheduleRegister.unregister(clazz, method))
                 .orElse(false);
     }
+
+    /**
+     * 定义一个行为：取消{@link IGameLoop}的{@link IGameLoopScheduler}中某个拥有者的所有定时器
+     *
+     * @param ownerId 定时器的拥有者
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表被取消的定时器的数量
+     */
+    static GameLoopFunction<Integer> cancelTimers(String ownerId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(iScheduleRegister -> iScheduleRegister.cancelTimers(ownerId))
+                .orElse(0);
+    }
+
+    /**
+     * 定义一个行为：摘下{@link IGameLoop}的{@link IGameLoopScheduler}中某个拥有者的所有定时器
+     *
+     * @param ownerId 定时器的拥有者
+     * @return 返回该行为的定义，参考：{@link IGameLoopScheduler#detachTimers(String)}
+     */
+    static GameLoopFunction<List<IGameLoopTimer>> detachTimers(String ownerId) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(iScheduleRegister -> iScheduleRegister.detachTimers(ownerId))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * 定义一个行为：把其他{@link IGameLoop}上摘下的定时器挂载到{@link IGameLoop}的{@link IGameLoopScheduler}上
+     *
+     * @param timers 要挂载的定时器
+     * @return 返回该行为的定义，参考：{@link IGameLoopScheduler#attachTimers(List)}
+     */
+    static GameLoopFunction<Integer> attachTimers(List<? extends IGameLoopTimer> timers) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(iScheduleRegister -> iScheduleRegister.attachTimers(timers))
+                .orElseGet(() -> {
+                    //目标IGameLoop没有调度器，定时器只能被取消
+                    timers.forEach(IGameLoopTimer::cancel);
+                    return 0;
+                });
+    }
 }
@@ -0,0 +1,74 @@
+package org.gamedo.util.function;
+
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.ISystem;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("unused")
+public interface IGameLoopSystemManagerFunction {
+
+    /**
+     * 定义一个行为：向{@link IGameLoop}的{@link IGameLoopSystemManager}组件注册一个系统
+     *
+     * @param system   要注册的系统
+     * @param tick     心跳间隔
+     * @param timeUnit 心跳间隔的时间单位
+     * @return 返回该行为的定义，其中GameLoopFunction中的Boolean代表注册是否成功
+     */
+    static GameLoopFunction<Boolean> register(final ISystem system, final long tick, final TimeUnit timeUnit) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopSystemManager.class)
+                .map(systemManager -> systemManager.register(system, tick, timeUnit))
+                .orElse(false);
+    }
+
+    /**
+     * 定义一个行为：从{@link IGameLoop}的{@link IGameLoopSystemManager}组件反注册一个系统
+     *
+     * @param system 要反注册的系统
+     * @return 返回该行为的定义，其中GameLoopFunction中的Boolean代表反注册是否成功
+     */
+    static GameLoopFunction<Boolean> unregister(final ISystem system) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopSystemManager.class)
+                .map(systemManager -> systemManager.unregister(system))
+                .orElse(false);
+    }
+
+    /**
+     * 定义一个行为：将实体加入到所有与之匹配的系统中
+     *
+     * @param entity 要加入的实体
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表匹配的系统的数量
+     */
+    static GameLoopFunction<Integer> addEntity(final IEntity entity) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopSystemManager.class)
+                .map(systemManager -> systemManager.addEntity(entity))
+                .orElse(0);
+    }
+
+    /**
+     * 定义一个行为：将实体从所有系统中移除
+     *
+     * @param entity 要移除的实体
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表被移除的系统的数量
+     */
+    static GameLoopFunction<Integer> removeEntity(final IEntity entity) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopSystemManager.class)
+                .map(systemManager -> systemManager.removeEntity(entity))
+                .orElse(0);
+    }
+
+    /**
+     * 定义一个行为：实体增加了组件之后，重新匹配所有的系统
+     *
+     * @param entity 要重新匹配的实体
+     * @return 返回该行为的定义，其中GameLoopFunction中的Integer代表匹配的系统的数量
+     */
+    static GameLoopFunction<Integer> refreshEntity(final IEntity entity) {
+        return gameLoop -> gameLoop.getComponent(IGameLoopSystemManager.class)
+                .map(systemManager -> systemManager.refreshEntity(entity))
+                .orElse(0);
+    }
+}
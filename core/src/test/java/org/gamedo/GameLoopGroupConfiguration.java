@@ -11,6 +11,10 @@ import org.gamedo.gameloop.components.eventbus.event.EventGameLoopCreatePost;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
 import org.gamedo.gameloop.components.scheduling.GameLoopScheduler;
 import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.passivation.GameLoopPassivationManager;
+import org.gamedo.gameloop.components.passivation.interfaces.IGameLoopPassivationManager;
+import org.gamedo.gameloop.components.systemmanager.GameLoopSystemManager;
+import org.gamedo.gameloop.components.systemmanager.interfaces.IGameLoopSystemManager;
 import org.gamedo.gameloop.components.tickManager.GameLoopTickManager;
 import org.gamedo.gameloop.components.tickManager.interfaces.IGameLoopTickManager;
 import org.gamedo.gameloop.interfaces.IGameLoop;
@@ -65,6 +69,14 @@ public class GameLoopGroupConfiguration {
                         .allInterface(IGameLoopTickManager.class)
                         .implementation(GameLoopTickManager.class)
                         .build())
+                .componentRegister(GameLoopComponentRegister.builder()
+                        .allInterface(IGameLoopSystemManager.class)
+                        .implementation(GameLoopSystemManager.class)
+                        .build())
+                .componentRegister(GameLoopComponentRegister.builder()
+                        .allInterface(IGameLoopPassivationManager.class)
+                        .implementation(GameLoopPassivationManager.class)
+                        .build())
                 .build();
     }
 
@@ -84,7 +96,9 @@ public class GameLoopGroupConfiguration {
                 .mapToObj(i -> context.getBean(IGameLoop.class, config))
                 .toArray(IGameLoop[]::new);
 
-        final IGameLoopGroup gameLoopGroup = new GameLoopGroup(config.getGameLoopGroupId(), iGameLoops);
+        final GameLoopGroup gameLoopGroup = new GameLoopGroup(config.getGameLoopGroupId(), config.getSelectStrategy(),
+                iGameLoops);
+        gameLoopGroup.setWorkStealing(config.isWorkStealing());
 
         Arrays.stream(gameLoopGroup.selectAll())
                 .peek(gameLoop -> ((GameLoop) gameLoop).setOwner(gameLoopGroup))
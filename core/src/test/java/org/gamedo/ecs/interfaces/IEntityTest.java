@@ -1,5 +1,9 @@
 package org.gamedo.ecs.interfaces;
 
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.ComponentMask;
+import org.gamedo.ecs.ComponentRegistry;
+import org.gamedo.ecs.ComponentType;
 import org.gamedo.ecs.Entity;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,4 +76,27 @@ class IEntityTest {
         assertFalse(result2);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testArchetypeEntity() {
+        final ComponentType<String> stringType = ComponentRegistry.of(String.class);
+        final ComponentType<Integer> integerType = ComponentRegistry.of(Integer.class);
+        assertSame(stringType, ComponentRegistry.of(String.class));
+        assertNotEquals(stringType.getId(), integerType.getId());
+
+        final ArchetypeEntity archetypeEntity = new ArchetypeEntity(id, Map.of(Object.class, new Object()));
+        assertTrue(archetypeEntity.hasComponent(Object.class));
+        assertNull(archetypeEntity.component(stringType));
+        assertFalse(archetypeEntity.matches(ComponentMask.of(Object.class, String.class)));
+
+        final String value = "value";
+        assertTrue(archetypeEntity.addComponent(String.class, value));
+        assertFalse(archetypeEntity.addComponent(String.class, "other"));
+        assertSame(value, archetypeEntity.component(stringType));
+        assertEquals(Optional.of(value), archetypeEntity.getComponent(String.class));
+        assertEquals(2, archetypeEntity.getComponentMap().size());
+        assertTrue(archetypeEntity.matches(ComponentMask.of(Object.class, String.class)));
+        assertFalse(archetypeEntity.matches(ComponentMask.of(integerType)));
+        assertEquals(ComponentMask.of(stringType, integerType), ComponentMask.of(integerType, stringType));
+    }
+}
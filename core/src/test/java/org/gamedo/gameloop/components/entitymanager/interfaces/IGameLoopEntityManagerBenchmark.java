@@ -0,0 +1,82 @@
+package org.gamedo.gameloop.components.entitymanager.interfaces;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.annotation.Subscribe;
+import org.gamedo.ecs.Entity;
+import org.gamedo.ecs.EntityComponent;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.GameLoop;
+import org.gamedo.gameloop.components.entitymanager.GameLoopEntityManager;
+import org.gamedo.gameloop.components.eventbus.GameLoopEventBus;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPost;
+import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 逐个注册与批量注册的耗时对比，耗时只输出到日志中，类名不以Test结尾，因此不会在构建时执行，需要手动运行
+ */
+@Log4j2
+class IGameLoopEntityManagerBenchmark {
+    private static final int ENTITY_COUNT = 20000;
+    private static final int ROUND = 5;
+
+    @Test
+    void benchmarkRegisterEntities() {
+        for (int round = 0; round < ROUND; round++) {
+            final List<Entity> singleList = newEntityList("single-" + round + "-");
+            final IGameLoopEntityManager singleEntityMgr = new GameLoopEntityManager(newGameLoop("benchmark-single"));
+            final long singleBegin = System.nanoTime();
+            singleList.forEach(entity -> assertTrue(singleEntityMgr.registerEntity(entity)));
+            final long singleNanos = System.nanoTime() - singleBegin;
+
+            final List<Entity> batchList = newEntityList("batch-" + round + "-");
+            final IGameLoopEntityManager batchEntityMgr = new GameLoopEntityManager(newGameLoop("benchmark-batch"));
+            final long batchBegin = System.nanoTime();
+            assertEquals(ENTITY_COUNT, batchEntityMgr.registerEntities(batchList));
+            final long batchNanos = System.nanoTime() - batchBegin;
+
+            log.info("round:{}, register {} entities, single:{}ms, batch:{}ms",
+                    round,
+                    ENTITY_COUNT,
+                    TimeUnit.NANOSECONDS.toMillis(singleNanos),
+                    TimeUnit.NANOSECONDS.toMillis(batchNanos));
+        }
+    }
+
+    private static List<Entity> newEntityList(String idPrefix) {
+        return IntStream.range(0, ENTITY_COUNT)
+                .mapToObj(i -> {
+                    final Entity entity = new Entity(idPrefix + i);
+                    entity.addComponent(ListenerComponent.class, new ListenerComponent(entity));
+                    return entity;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static IGameLoop newGameLoop(String id) {
+        final IGameLoop gameLoop = Mockito.spy(new GameLoop(id));
+        Mockito.when(gameLoop.inThread()).thenReturn(true);
+        gameLoop.addComponent(IGameLoopEventBus.class, new GameLoopEventBus(gameLoop));
+        return gameLoop;
+    }
+
+    private static class ListenerComponent extends EntityComponent {
+        private ListenerComponent(IEntity owner) {
+            super(owner);
+        }
+
+        @Subscribe
+        private void eventRegisterEntitiesPost(EventRegisterEntitiesPost event) {
+        }
+    }
+}
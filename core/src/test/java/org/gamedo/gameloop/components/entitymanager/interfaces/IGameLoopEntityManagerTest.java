@@ -1,20 +1,37 @@
 package org.gamedo.gameloop.components.entitymanager.interfaces;
 
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.annotation.Subscribe;
 import org.gamedo.ecs.Entity;
+import org.gamedo.ecs.EntityComponent;
 import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.gameloop.GameLoop;
 import org.gamedo.gameloop.components.entitymanager.GameLoopEntityManager;
+import org.gamedo.gameloop.components.eventbus.GameLoopEventBus;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPost;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntitiesPre;
+import org.gamedo.gameloop.components.eventbus.event.EventRegisterEntityPost;
+import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
 import org.gamedo.gameloop.interfaces.IGameLoop;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@Log4j2
 class IGameLoopEntityManagerTest {
     private final IGameLoop gameLoop = Mockito.spy(new GameLoop("IGameLoopEntityManagerTest"));
     private IGameLoopEntityManager entityMgr;
@@ -74,4 +91,160 @@ class IGameLoopEntityManagerTest {
         entityMgr.unregisterEntity(entityId2);
         assertEquals(0, entityMap.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetEntityMapByClazz() {
+
+        final Map<String, MonsterEntity> monsterMap = entityMgr.getEntityMap(MonsterEntity.class);
+        assertEquals(0, monsterMap.size());
+
+        final MonsterEntity monster1 = new MonsterEntity(UUID.randomUUID().toString());
+        final MonsterEntity monster2 = new MonsterEntity(UUID.randomUUID().toString());
+        assertTrue(entityMgr.registerEntity(monster1));
+        assertTrue(entityMgr.registerEntities(Arrays.asList(monster2, new Entity(UUID.randomUUID().toString()))) > 0);
+
+        assertEquals(2, entityMgr.getEntityCount(MonsterEntity.class));
+        assertEquals(1, entityMgr.getEntityCount(Entity.class));
+        assertEquals(Arrays.asList(monster1, monster2), new ArrayList<>(monsterMap.values()));
+        assertThrows(UnsupportedOperationException.class, () -> monsterMap.remove(monster1.getId()));
+
+        entityMgr.unregisterEntity(monster1.getId());
+        assertEquals(1, entityMgr.getEntityCount(MonsterEntity.class));
+        assertEquals(Collections.singletonList(monster2), new ArrayList<>(monsterMap.values()));
+
+        entityMgr.unregisterEntity(monster2.getId());
+        assertEquals(0, entityMgr.getEntityCount(MonsterEntity.class));
+        assertTrue(monsterMap.isEmpty());
+    }
+
+    @Test
+    void testRegisterEntities() {
+
+        final IGameLoop gameLoop = newGameLoop("testRegisterEntities");
+        final IGameLoopEntityManager entityMgr = new GameLoopEntityManager(gameLoop);
+        final Entity registered = new Entity(UUID.randomUUID().toString());
+        assertTrue(entityMgr.registerEntity(registered));
+
+        final List<Entity> entityList = IntStream.range(0, 10)
+                .mapToObj(i -> newSubscribedEntity(UUID.randomUUID().toString()))
+                .collect(Collectors.toList());
+        final List<Entity> batchList = new ArrayList<>(entityList);
+        batchList.add(registered);
+        batchList.add(entityList.get(0));
+
+        assertEquals(entityList.size(), entityMgr.registerEntities(batchList));
+        assertEquals(entityList.size() + 1, entityMgr.getEntityCount());
+        entityList.forEach(entity -> {
+            assertTrue(entityMgr.hasEntity(entity.getId()));
+            final SubscribedComponent component = entity.getComponent(SubscribedComponent.class).get();
+            //每个实体都收到且只收到一次聚合的Post事件，事件中包含了本批次注册成功的所有实体
+            assertEquals(entityList.size(), component.getRegisteredCount());
+        });
+
+        assertEquals(0, entityMgr.registerEntities(entityList));
+    }
+
+    @Test
+    void testRegisterEntitiesLargeBatch() {
+
+        final int entityCount = 20000;
+        final IGameLoop gameLoop = newGameLoop("testRegisterEntitiesLargeBatch");
+        final IGameLoopEntityManager entityMgr = new GameLoopEntityManager(gameLoop);
+        final Entity listener = new Entity(UUID.randomUUID().toString());
+        final BatchListenerComponent listenerComponent = new BatchListenerComponent(listener);
+        listener.addComponent(BatchListenerComponent.class, listenerComponent);
+        assertTrue(entityMgr.registerEntity(listener));
+
+        final List<Entity> batchList = IntStream.range(0, entityCount)
+                .mapToObj(i -> newSubscribedEntity("batch-" + i))
+                .collect(Collectors.toList());
+        final List<String> entityIdList = batchList.stream().map(Entity::getId).collect(Collectors.toList());
+
+        assertEquals(entityCount, entityMgr.registerEntities(batchList));
+        assertEquals(entityCount + 1, entityMgr.getEntityCount());
+        assertTrue(entityIdList.stream().allMatch(entityMgr::hasEntity));
+
+        //整批只触发一次聚合的Pre、Post事件，事件中包含了本批次的所有实体
+        assertEquals(1, listenerComponent.preEventList.size());
+        assertEquals(1, listenerComponent.postEventList.size());
+        assertEquals(entityIdList, listenerComponent.preEventList.get(0).getEntityIdList());
+        assertEquals(entityIdList, listenerComponent.postEventList.get(0).getEntityIdList());
+        //本批实体自身订阅的Post事件也只收到一次
+        batchList.forEach(entity -> assertEquals(entityCount,
+                entity.getComponent(SubscribedComponent.class).get().getRegisteredCount()));
+    }
+
+    @Test
+    void testLifecycleEvent() {
+
+        final IGameLoop gameLoop = newGameLoop("testLifecycleEvent");
+        final IGameLoopEntityManager entityMgr = new GameLoopEntityManager(gameLoop);
+        final Entity listener = new Entity(UUID.randomUUID().toString());
+        final LifecycleComponent component = new LifecycleComponent(listener);
+        listener.addComponent(LifecycleComponent.class, component);
+        assertTrue(entityMgr.registerEntity(listener));
+
+        final List<String> entityIdList = IntStream.range(0, 3)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .peek(entityId -> assertTrue(entityMgr.registerEntity(new Entity(entityId))))
+                .collect(Collectors.toList());
+
+        //每次投递的都是一个新的、不可变的事件，订阅者可以放心地持有
+        final List<EventRegisterEntityPost> expectedList = new ArrayList<>();
+        expectedList.add(new EventRegisterEntityPost(listener.getId(), gameLoop.getId()));
+        entityIdList.forEach(entityId -> expectedList.add(new EventRegisterEntityPost(entityId, gameLoop.getId())));
+        assertEquals(expectedList, component.eventList);
+        final Set<EventRegisterEntityPost> eventSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        eventSet.addAll(component.eventList);
+        assertEquals(expectedList.size(), eventSet.size());
+    }
+
+    private static IGameLoop newGameLoop(String id) {
+        final IGameLoop gameLoop = Mockito.spy(new GameLoop(id));
+        Mockito.when(gameLoop.inThread()).thenReturn(true);
+        gameLoop.addComponent(IGameLoopEventBus.class, new GameLoopEventBus(gameLoop));
+        return gameLoop;
+    }
+
+    private static Entity newSubscribedEntity(String entityId) {
+        final Entity entity = new Entity(entityId);
+        entity.addComponent(SubscribedComponent.class, new SubscribedComponent(entity));
+        return entity;
+    }
+
+    private static class MonsterEntity extends Entity {
+        private MonsterEntity(String id) {
+            super(id);
+        }
+    }
+
+    private static class LifecycleComponent extends EntityComponent {
+        private final List<EventRegisterEntityPost> eventList = new ArrayList<>();
+
+        private LifecycleComponent(IEntity owner) {
+            super(owner);
+        }
+
+        @Subscribe
+        private void eventRegisterEntityPost(EventRegisterEntityPost event) {
+            eventList.add(event);
+        }
+    }
+
+    private static class SubscribedComponent extends EntityComponent {
+        private int registeredCount;
+
+        private SubscribedComponent(IEntity owner) {
+            super(owner);
+        }
+
+        @Subscribe
+        private void eventRegisterEntitiesPost(EventRegisterEntitiesPost event) {
+            registeredCount += event.getEntityIdList().size();
+        }
+
+        int getRegisteredCount() {
+            return registeredCount;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -102,6 +103,24 @@ class IGameLoopEventBusTest {
         Assertions.assertEquals(postValue, myComponent.getValue());
     }
 
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    @Test
+    void testHasSubscriber() {
+        final MyComponent myComponent = gameLoop.getComponent(MyComponent.class).get();
+        Assertions.assertFalse(iGameLoopEventBus.hasSubscriber(EventTest.class));
+
+        Assertions.assertEquals(1, iGameLoopEventBus.register(myComponent));
+        Assertions.assertTrue(iGameLoopEventBus.hasSubscriber(EventTest.class));
+
+        //正在为之暂存事件的实例也算作订阅者
+        Assertions.assertEquals(1, iGameLoopEventBus.unregister(myComponent));
+        Assertions.assertFalse(iGameLoopEventBus.hasSubscriber(EventTest.class));
+        Assertions.assertTrue(iGameLoopEventBus.holdEvents("holder", Collections.singletonList(myComponent)));
+        Assertions.assertTrue(iGameLoopEventBus.hasSubscriber(EventTest.class));
+        Assertions.assertEquals(0, iGameLoopEventBus.releaseEvents("holder").size());
+        Assertions.assertFalse(iGameLoopEventBus.hasSubscriber(EventTest.class));
+    }
+
     @Test
     void testCircularPost() {
         final CircularComponent component = new CircularComponent(gameLoop, iGameLoopEventBus);
@@ -0,0 +1,149 @@
+package org.gamedo.gameloop.components.passivation.interfaces;
+
+import lombok.Value;
+import org.gamedo.GameLoopGroupConfiguration;
+import org.gamedo.annotation.Subscribe;
+import org.gamedo.ecs.Entity;
+import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.components.passivation.OffHeapPassivationStore;
+import org.gamedo.gameloop.components.eventbus.interfaces.IEntityEvent;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.util.function.IGameLoopEntityManagerFunction;
+import org.gamedo.util.function.IGameLoopEventBusFunction;
+import org.gamedo.util.function.IGameLoopPassivationManagerFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(classes = GameLoopGroupConfiguration.class)
+class IGameLoopPassivationManagerTest {
+
+    private static final IEntityCodec CODEC = new IEntityCodec() {
+        @Override
+        public byte[] encode(IEntity entity) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(((EntityTest) entity).value).array();
+        }
+
+        @Override
+        public IEntity decode(String entityId, ByteBuffer buffer) {
+            final EntityTest entity = new EntityTest(entityId);
+            entity.value = buffer.getInt();
+            return entity;
+        }
+    };
+
+    private IGameLoop gameLoop;
+    private final ConfigurableApplicationContext context;
+
+    IGameLoopPassivationManagerTest(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    @BeforeEach
+    void setUp() {
+        gameLoop = context.getBean(IGameLoop.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gameLoop.shutdown();
+        Assertions.assertTrue(gameLoop.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPassivate() {
+
+        final String entityId = "passivation-1";
+        final EntityTest entity = new EntityTest(entityId);
+        entity.value = 100;
+        Assertions.assertTrue(gameLoop.submit(IGameLoopEntityManagerFunction.registerEntity(entity)).join());
+        Assertions.assertEquals(1, gameLoop.submit(IGameLoopEventBusFunction.post(new EventTest(entityId))).join());
+
+        Assertions.assertTrue(gameLoop.submit(IGameLoopPassivationManagerFunction.passivate(entityId, CODEC)).join());
+        Assertions.assertFalse(gameLoop.submit(IGameLoopPassivationManagerFunction.passivate(entityId, CODEC)).join());
+        Assertions.assertTrue(gameLoop.submit(IGameLoopPassivationManagerFunction.isPassivated(entityId)).join());
+        Assertions.assertFalse(gameLoop.submit(IGameLoopEntityManagerFunction.hasEntity(entityId)).join());
+        Assertions.assertEquals(Integer.BYTES, gameLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopPassivationManager.class)
+                .map(IGameLoopPassivationManager::getPassivatedByteSize)
+                .orElse(0L)).join());
+
+        //投递以该实体为目标的事件时，会先将其激活
+        Assertions.assertEquals(1, gameLoop.submit(IGameLoopEventBusFunction.post(new EventTest(entityId))).join());
+        Assertions.assertFalse(gameLoop.submit(IGameLoopPassivationManagerFunction.isPassivated(entityId)).join());
+        final Optional<IEntity> activated = gameLoop.submit(IGameLoopPassivationManagerFunction.activate(entityId)).join();
+        Assertions.assertTrue(activated.isPresent());
+        Assertions.assertNotSame(entity, activated.get());
+        Assertions.assertEquals(102, ((EntityTest) activated.get()).value);
+
+        //主动激活
+        Assertions.assertTrue(gameLoop.submit(IGameLoopPassivationManagerFunction.passivate(entityId, CODEC)).join());
+        final Optional<IEntity> activated2 = gameLoop.submit(IGameLoopPassivationManagerFunction.activate(entityId)).join();
+        Assertions.assertEquals(102, activated2.map(e -> ((EntityTest) e).value).orElse(-1));
+        Assertions.assertTrue(gameLoop.submit(IGameLoopEntityManagerFunction.hasEntity(entityId)).join());
+
+        Assertions.assertEquals(Optional.empty(), gameLoop.submit(IGameLoopPassivationManagerFunction.activate("none")).join());
+        Assertions.assertFalse(gameLoop.submit(IGameLoopPassivationManagerFunction.passivate(gameLoop.getId(), CODEC)).join());
+    }
+
+    @Test
+    void testOffHeapStore() {
+
+        final OffHeapPassivationStore store = new OffHeapPassivationStore(1024);
+        for (int i = 0; i < 100; i++) {
+            store.put("entity-" + i, ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+        }
+        Assertions.assertEquals(100, store.size());
+        Assertions.assertEquals(100 * Integer.BYTES, store.getByteSize());
+        final int slabCount = store.getSlabCount();
+        Assertions.assertTrue(slabCount > 0 && slabCount < 100);
+        Assertions.assertEquals(42, store.get("entity-42").map(ByteBuffer::getInt).orElse(-1));
+
+        //删除后释放的空间被合并、复用，不会再分配新的slab
+        for (int i = 0; i < 100; i += 2) {
+            Assertions.assertTrue(store.remove("entity-" + i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            store.put("entity-" + i, ByteBuffer.allocate(Integer.BYTES * 2).putInt(i).putInt(-i).array());
+        }
+        Assertions.assertEquals(slabCount, store.getSlabCount());
+        Assertions.assertEquals(42, store.get("entity-42").map(ByteBuffer::getInt).orElse(-1));
+        Assertions.assertEquals(43, store.get("entity-43").map(ByteBuffer::getInt).orElse(-1));
+        Assertions.assertEquals(Integer.BYTES * 2, store.get("entity-42").map(ByteBuffer::remaining).orElse(-1));
+
+        //超过slab大小的状态单独分配
+        store.put("large", new byte[4096]);
+        Assertions.assertEquals(slabCount, store.getSlabCount());
+        Assertions.assertEquals(4096, store.get("large").map(ByteBuffer::remaining).orElse(-1));
+        Assertions.assertTrue(store.remove("large"));
+        Assertions.assertFalse(store.remove("large"));
+        Assertions.assertEquals(Optional.empty(), store.get("large"));
+    }
+
+    @Value
+    private static class EventTest implements IEntityEvent {
+        String entityId;
+    }
+
+    @SuppressWarnings("unused")
+    private static class EntityTest extends Entity {
+        private int value;
+
+        private EntityTest(String id) {
+            super(id);
+        }
+
+        @Subscribe
+        private void onEventTest(EventTest event) {
+            if (event.getEntityId().equals(getId())) {
+                value++;
+            }
+        }
+    }
+}
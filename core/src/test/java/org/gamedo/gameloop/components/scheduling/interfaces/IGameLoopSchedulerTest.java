@@ -1,11 +1,20 @@
 package org.gamedo.gameloop.components.scheduling.interfaces;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.log4j.Log4j2;
 import org.gamedo.GameLoopGroupConfiguration;
 import org.gamedo.annotation.Cron;
 import org.gamedo.ecs.Entity;
 import org.gamedo.ecs.EntityComponent;
 import org.gamedo.ecs.interfaces.IEntity;
+import org.gamedo.gameloop.GameLoop;
+import org.gamedo.gameloop.GameLoopConfig;
+import org.gamedo.gameloop.GameLoops;
+import org.gamedo.gameloop.components.scheduling.CronOffload;
+import org.gamedo.util.GamedoConfiguration;
+import org.gamedo.util.Metric;
 import org.gamedo.util.function.IGameLoopEntityManagerFunction;
 import org.gamedo.util.function.IGameLoopSchedulerFunction;
 import org.gamedo.util.function.GameLoopFunction;
@@ -19,11 +28,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ConfigurableApplicationContext;
 
 import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -232,6 +246,219 @@ class IGameLoopSchedulerTest {
     }
 
 
+    @Test
+    void testOffload() {
+
+        final OffloadObject object = new OffloadObject();
+        final CompletableFuture<Integer> future = gameLoop.submit(IGameLoopSchedulerFunction.register(object));
+        final Integer result = Assertions.assertDoesNotThrow(() -> future.get());
+        Assertions.assertEquals(1, result);
+
+        final int sleepSecond = 5;
+        log.info("begin sleep {} seconds", sleepSecond);
+        Assertions.assertDoesNotThrow(() -> TimeUnit.SECONDS.sleep(sleepSecond));
+        log.info("finish sleep");
+
+        Assertions.assertTrue(Math.abs(sleepSecond - object.applied.get()) <= 1,
+                () -> "expected:" + sleepSecond + ", actual:" + object.applied.get());
+        Assertions.assertFalse(object.computeInGameLoop.get());
+        Assertions.assertTrue(object.applyInGameLoop.get());
+    }
+
+    @Test
+    void testZone() {
+
+        final ZonedObject object = new ZonedObject();
+        final CompletableFuture<Integer> future = gameLoop.submit(IGameLoopSchedulerFunction.register(object));
+        final Integer result = Assertions.assertDoesNotThrow(() -> future.get());
+        Assertions.assertEquals(1, result);
+
+        //选择一个和jvm默认时区相差3小时的时区，只有在按照该时区计算触发时间时，"* * H * * *"才会在当前小时内每秒触发
+        final ZoneOffset systemOffset = ZoneId.systemDefault().getRules().getOffset(Instant.now());
+        final ZoneId zone = ZoneOffset.ofTotalSeconds((systemOffset.getTotalSeconds() + 3 * 3600 + 18 * 3600) % (36 * 3600) - 18 * 3600);
+        final int hour = ZonedDateTime.now(zone).getHour();
+        final String cron = "* * " + hour + " * * *";
+        final Predicate<Method> predicate = method -> SCHEDULE_DYNAMIC_METHOD_NAME.equals(method.getName());
+        final Method method = ReflectionUtils.findMethods(object.getClass(), predicate).get(0);
+        final CompletableFuture<Boolean> future1 = gameLoop.submit(IGameLoopSchedulerFunction.register(object, method, cron, zone));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> future1.get()));
+
+        Assertions.assertDoesNotThrow(() -> TimeUnit.SECONDS.sleep(3));
+        Assertions.assertTrue(object.value.get() >= 2, () -> "actual:" + object.value.get());
+        Assertions.assertTrue(object.valueDynamic.get() >= 2, () -> "actual:" + object.valueDynamic.get());
+
+        final InvalidZonedObject invalidObject = new InvalidZonedObject();
+        final CompletableFuture<Integer> future2 = gameLoop.submit(IGameLoopSchedulerFunction.register(invalidObject));
+        Assertions.assertEquals(0, Assertions.assertDoesNotThrow(() -> future2.get()));
+    }
+
+    @Test
+    void testTimer() {
+
+        final int timerCount = 10000;
+        final AtomicInteger valueA = new AtomicInteger(0);
+        final AtomicInteger valueB = new AtomicInteger(0);
+        final AtomicInteger valueRate = new AtomicInteger(0);
+        final AtomicInteger valueCancelled = new AtomicInteger(0);
+        final long startNanoTime = System.nanoTime();
+        final CompletableFuture<Integer> future = gameLoop.submit(gameLoop -> {
+            final IGameLoopScheduler scheduler = gameLoop.getComponent(IGameLoopScheduler.class).get();
+            IntStream.range(0, timerCount).forEach(i -> {
+                final long delay = ThreadLocalRandom.current().nextLong(100, 500);
+                scheduler.scheduleTimer("a", valueA::incrementAndGet, delay, TimeUnit.MILLISECONDS);
+                scheduler.scheduleTimer("b", valueB::incrementAndGet, delay, TimeUnit.MILLISECONDS);
+            });
+
+            scheduler.scheduleTimerAtFixedRate(null, valueRate::incrementAndGet, 0, 100, TimeUnit.MILLISECONDS);
+            final IGameLoopTimer timer = scheduler.scheduleTimer(null, valueCancelled::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(timer.cancel());
+            Assertions.assertFalse(timer.cancel());
+            Assertions.assertTrue(timer.isCancelled());
+
+            return scheduler.getTimerCount();
+        });
+
+        Assertions.assertEquals(timerCount * 2 + 1, Assertions.assertDoesNotThrow(() -> future.get()));
+        final CompletableFuture<Integer> future1 = gameLoop.submit(IGameLoopSchedulerFunction.cancelTimers("b"));
+        Assertions.assertEquals(timerCount, Assertions.assertDoesNotThrow(() -> future1.get()));
+
+        //轮询直到全部到期，而不是固定地等待一段时间，避免在负载较高的机器上失败
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((valueA.get() < timerCount || valueRate.get() < 10) && System.nanoTime() < deadline) {
+            Assertions.assertDoesNotThrow(() -> TimeUnit.MILLISECONDS.sleep(20));
+        }
+        final int rate = valueRate.get();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+        Assertions.assertEquals(timerCount, valueA.get());
+        Assertions.assertEquals(0, valueB.get());
+        Assertions.assertEquals(0, valueCancelled.get());
+        //固定频率的定时器可能因为负载而推迟，但执行的次数不会超过经过的时间所允许的次数
+        Assertions.assertTrue(rate >= 10 && rate <= elapsedMillis / 100 + 2, () -> "rate:" + rate + ", elapsed:" + elapsedMillis);
+
+        final CompletableFuture<Integer> future2 = gameLoop.submit(IGameLoopSchedulerFunction.cancelTimers("a"));
+        Assertions.assertEquals(0, Assertions.assertDoesNotThrow(() -> future2.get()));
+
+        //在其他线程内取消：返回值就是CAS的结果，取消之后不会再执行
+        final List<IGameLoopTimer> timerList = Assertions.assertDoesNotThrow(() -> gameLoop.submit(gameLoop -> {
+            final IGameLoopScheduler scheduler = gameLoop.getComponent(IGameLoopScheduler.class).get();
+            return IntStream.range(0, 2)
+                    .mapToObj(i -> scheduler.scheduleTimer("c", valueCancelled::incrementAndGet, 100, TimeUnit.MILLISECONDS))
+                    .collect(Collectors.toList());
+        }).get());
+        Assertions.assertTrue(timerList.get(0).cancel());
+        Assertions.assertFalse(timerList.get(0).cancel());
+        Assertions.assertTrue(timerList.get(0).isCancelled());
+        Assertions.assertEquals(1, Assertions.assertDoesNotThrow(() -> gameLoop.submit(gameLoop -> gameLoop
+                .getComponent(IGameLoopScheduler.class).get()
+                .getTimerCount()).get()));
+
+        //IGameLoop关闭之后取消也不会抛出异常
+        gameLoop.shutdown();
+        Assertions.assertDoesNotThrow(() -> gameLoop.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(timerList.get(1).cancel());
+        Assertions.assertDoesNotThrow(() -> TimeUnit.MILLISECONDS.sleep(200));
+        Assertions.assertEquals(0, valueCancelled.get());
+    }
+
+    @Test
+    void testSkewMetric() throws InterruptedException {
+        final String metricCronEnable = System.getProperty(GamedoConfiguration.GAMEDO_METRIC_CRON_ENABLE_KEY);
+        final String misfireThreshold = System.getProperty(GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_KEY);
+        System.setProperty(GamedoConfiguration.GAMEDO_METRIC_CRON_ENABLE_KEY, "true");
+        System.setProperty(GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_KEY, "50");
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final IGameLoop metricGameLoop = new GameLoop(context.getBean(GameLoopConfig.class), meterRegistry);
+        try {
+            final ScheduledObject object = new ScheduledObject();
+            final CompletableFuture<Integer> future = metricGameLoop.submit(IGameLoopSchedulerFunction.register(object));
+            Assertions.assertEquals(1, Assertions.assertDoesNotThrow(() -> future.get()));
+
+            //阻塞IGameLoop线程超过1秒，期间一定会跨过一个秒级的触发点，该次触发至少被推迟100毫秒
+            metricGameLoop.submit(gameLoop -> {
+                Assertions.assertDoesNotThrow(() -> TimeUnit.MILLISECONDS.sleep(1100));
+                return true;
+            });
+
+            final Timer skewTimer = meterRegistry.find(Metric.MeterIdCronSkewTimer)
+                    .tag("cron", CRON_SECONDLY_EXPRESSION)
+                    .timer();
+            final Counter misfireCounter = meterRegistry.find(Metric.MeterIdCronMisfireCounter)
+                    .tag("cron", CRON_SECONDLY_EXPRESSION)
+                    .counter();
+            Assertions.assertNotNull(skewTimer);
+            Assertions.assertNotNull(misfireCounter);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (misfireCounter.count() < 1 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+            Assertions.assertTrue(skewTimer.count() > 0);
+            Assertions.assertTrue(skewTimer.max(TimeUnit.MILLISECONDS) >= 50);
+            Assertions.assertTrue(misfireCounter.count() >= 1);
+
+            //最后一个注册者反注册后，指标也被移除
+            final CompletableFuture<Integer> unregisterFuture = metricGameLoop.submit(IGameLoopSchedulerFunction.unregister(ScheduledObject.class));
+            Assertions.assertEquals(1, Assertions.assertDoesNotThrow(() -> unregisterFuture.get()));
+            Assertions.assertNull(meterRegistry.find(Metric.MeterIdCronSkewTimer).tag("cron", CRON_SECONDLY_EXPRESSION).timer());
+            Assertions.assertNull(meterRegistry.find(Metric.MeterIdCronMisfireCounter).tag("cron", CRON_SECONDLY_EXPRESSION).counter());
+        } finally {
+            metricGameLoop.shutdown();
+            Assertions.assertTrue(metricGameLoop.awaitTermination(10, TimeUnit.SECONDS));
+            if (metricCronEnable == null) {
+                System.clearProperty(GamedoConfiguration.GAMEDO_METRIC_CRON_ENABLE_KEY);
+            } else {
+                System.setProperty(GamedoConfiguration.GAMEDO_METRIC_CRON_ENABLE_KEY, metricCronEnable);
+            }
+            if (misfireThreshold == null) {
+                System.clearProperty(GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_KEY);
+            } else {
+                System.setProperty(GamedoConfiguration.CRON_MISFIRE_THRESHOLD_MILLIS_KEY, misfireThreshold);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class ZonedObject {
+        final AtomicInteger value = new AtomicInteger(0);
+        final AtomicInteger valueDynamic = new AtomicInteger(0);
+
+        @Cron(value = CRON_SECONDLY_EXPRESSION, zone = "America/New_York")
+        private void scheduleSecondly(Long currentTime, Long lastTriggerTime) {
+            value.incrementAndGet();
+        }
+
+        private void scheduleDynamic(Long currentTime, Long lastTriggerTime) {
+            valueDynamic.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class InvalidZonedObject {
+        @Cron(value = CRON_SECONDLY_EXPRESSION, zone = "Invalid/Zone")
+        private void scheduleSecondly(Long currentTime, Long lastTriggerTime) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class OffloadObject {
+        final AtomicInteger applied = new AtomicInteger(0);
+        final AtomicBoolean computeInGameLoop = new AtomicBoolean(false);
+        final AtomicBoolean applyInGameLoop = new AtomicBoolean(true);
+
+        @Cron(value = CRON_SECONDLY_EXPRESSION, offload = true)
+        private CronOffload<Integer> offloadSecondly(Long currentTime, Long lastTriggerTime) {
+            final int snapshot = applied.get();
+            return CronOffload.of(() -> {
+                        computeInGameLoop.compareAndSet(false, GameLoops.current().isPresent());
+                        return snapshot + 1;
+                    },
+                    value -> {
+                        applyInGameLoop.compareAndSet(true, GameLoops.current().isPresent());
+                        applied.set(value);
+                    });
+        }
+    }
+
     @SuppressWarnings("unused")
     static class ScheduledObject {
         final AtomicInteger value = new AtomicInteger(0);
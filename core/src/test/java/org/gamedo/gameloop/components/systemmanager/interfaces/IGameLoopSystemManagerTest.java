@@ -0,0 +1,150 @@
+package org.gamedo.gameloop.components.systemmanager.interfaces;
+
+import lombok.extern.log4j.Log4j2;
+import org.gamedo.GameLoopGroupConfiguration;
+import org.gamedo.ecs.ArchetypeEntity;
+import org.gamedo.ecs.ComponentMask;
+import org.gamedo.ecs.ComponentRegistry;
+import org.gamedo.ecs.ComponentType;
+import org.gamedo.gameloop.components.systemmanager.EntityColumns;
+import org.gamedo.gameloop.interfaces.IGameLoop;
+import org.gamedo.util.function.IGameLoopEntityManagerFunction;
+import org.gamedo.util.function.IGameLoopSystemManagerFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Log4j2
+@SpringBootTest(classes = GameLoopGroupConfiguration.class)
+class IGameLoopSystemManagerTest {
+
+    private static final ComponentType<Position> POSITION = ComponentRegistry.of(Position.class);
+    private static final ComponentType<Velocity> VELOCITY = ComponentRegistry.of(Velocity.class);
+    private IGameLoop gameLoop;
+    private final ConfigurableApplicationContext context;
+
+    IGameLoopSystemManagerTest(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    @BeforeEach
+    void setUp() {
+        gameLoop = context.getBean(IGameLoop.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gameLoop.shutdown();
+        Assertions.assertTrue(gameLoop.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSystem() throws InterruptedException {
+
+        final int movableCount = 50000;
+        final int staticCount = 100;
+        final List<ArchetypeEntity> movableList = IntStream.range(0, movableCount)
+                .mapToObj(i -> newEntity("movable-" + i, true))
+                .collect(Collectors.toList());
+        final List<ArchetypeEntity> staticList = IntStream.range(0, staticCount)
+                .mapToObj(i -> newEntity("static-" + i, false))
+                .collect(Collectors.toList());
+
+        final Integer count1 = Assertions.assertDoesNotThrow(() -> gameLoop.submit(IGameLoopEntityManagerFunction.registerEntities(movableList)).get());
+        final Integer count2 = Assertions.assertDoesNotThrow(() -> gameLoop.submit(IGameLoopEntityManagerFunction.registerEntities(staticList)).get());
+        Assertions.assertEquals(movableCount, count1);
+        Assertions.assertEquals(staticCount, count2);
+
+        final MoveSystem moveSystem = new MoveSystem(new CountDownLatch(3));
+        final Boolean registered = Assertions.assertDoesNotThrow(() -> gameLoop.submit(IGameLoopSystemManagerFunction.register(moveSystem, 10, TimeUnit.MILLISECONDS)).get());
+        Assertions.assertTrue(registered);
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> gameLoop.submit(IGameLoopSystemManagerFunction.register(moveSystem, 10, TimeUnit.MILLISECONDS)).get()));
+
+        Assertions.assertTrue(moveSystem.latch.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(movableCount, moveSystem.size);
+        log.info("system update {} entities, cost:{}ns", movableCount, moveSystem.costNanos);
+
+        final Boolean checked = Assertions.assertDoesNotThrow(() -> gameLoop.submit(gameLoop -> {
+            final boolean moved = movableList.stream().allMatch(entity -> entity.component(POSITION).x > 0);
+            final boolean stayed = staticList.stream().allMatch(entity -> entity.component(POSITION).x == 0);
+            return moved && stayed;
+        }).get());
+        Assertions.assertTrue(checked);
+
+        //反注册一个实体，以及给一个静止的实体增加Velocity组件之后，都会在下一次心跳中生效
+        final ArchetypeEntity removed = movableList.get(0);
+        final ArchetypeEntity refreshed = staticList.get(0);
+        Assertions.assertDoesNotThrow(() -> gameLoop.submit(gameLoop -> {
+            moveSystem.latch = new CountDownLatch(1);
+            refreshed.addComponent(Velocity.class, new Velocity(1));
+            IGameLoopSystemManagerFunction.refreshEntity(refreshed).apply(gameLoop);
+            return IGameLoopEntityManagerFunction.unregisterEntity(removed.getId()).apply(gameLoop);
+        }).get());
+
+        Assertions.assertTrue(moveSystem.latch.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(movableCount, moveSystem.size);
+
+        final Boolean unregistered = Assertions.assertDoesNotThrow(() -> gameLoop.submit(IGameLoopSystemManagerFunction.unregister(moveSystem)).get());
+        Assertions.assertTrue(unregistered);
+    }
+
+    private static ArchetypeEntity newEntity(String id, boolean movable) {
+        final ArchetypeEntity entity = new ArchetypeEntity(id);
+        entity.addComponent(Position.class, new Position());
+        if (movable) {
+            entity.addComponent(Velocity.class, new Velocity(1));
+        }
+        return entity;
+    }
+
+    private static class Position {
+        private long x;
+    }
+
+    private static class Velocity {
+        private final long speed;
+
+        private Velocity(long speed) {
+            this.speed = speed;
+        }
+    }
+
+    private static class MoveSystem implements ISystem {
+        private static final ComponentMask MASK = ComponentMask.of(POSITION, VELOCITY);
+        private volatile CountDownLatch latch;
+        private volatile int size;
+        private volatile long costNanos;
+
+        private MoveSystem(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public ComponentMask getComponentMask() {
+            return MASK;
+        }
+
+        @Override
+        public void update(EntityColumns columns, long currentMilliSecond, long lastMilliSecond) {
+            final long begin = System.nanoTime();
+            final Object[] positions = columns.column(POSITION);
+            final Object[] velocities = columns.column(VELOCITY);
+            for (int i = 0, size = columns.size(); i < size; i++) {
+                ((Position) positions[i]).x += ((Velocity) velocities[i]).speed;
+            }
+
+            costNanos = System.nanoTime() - begin;
+            size = columns.size();
+            latch.countDown();
+        }
+    }
+}
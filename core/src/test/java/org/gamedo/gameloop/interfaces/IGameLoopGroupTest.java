@@ -12,10 +12,17 @@ import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.exception.GameLoopException;
 import org.gamedo.gameloop.GameLoop;
 import org.gamedo.gameloop.GameLoopGroup;
+import org.gamedo.gameloop.GameLoopGroupRebalancer;
+import org.gamedo.gameloop.GameLoopSelectStrategy;
+import org.gamedo.gameloop.GameLoops;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
 import org.gamedo.gameloop.components.eventbus.interfaces.IEvent;
+import org.gamedo.gameloop.components.passivation.interfaces.IEntityCodec;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopScheduler;
+import org.gamedo.gameloop.components.scheduling.interfaces.IGameLoopTimer;
 import org.gamedo.util.function.IGameLoopEntityManagerFunction;
 import org.gamedo.util.function.IGameLoopEventBusFunction;
+import org.gamedo.util.function.IGameLoopPassivationManagerFunction;
 import org.gamedo.util.function.GameLoopFunction;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -24,11 +31,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -106,6 +121,138 @@ class IGameLoopGroupTest {
         gameLoopMap.forEach((key, value) -> Assertions.assertEquals(Optional.of(value), gameLoopGroup1.select(key)));
     }
 
+    @Test
+    void testSelectAffinity() {
+        final GameLoopGroup gameLoopGroup1 = new GameLoopGroup("testGroup", IntStream.rangeClosed(1, 4)
+                .mapToObj(i -> new GameLoop("test" + i))
+                .toArray(IGameLoop[]::new));
+
+        final List<String> keyList = IntStream.range(0, 10000)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .collect(Collectors.toList());
+        final Map<String, IGameLoop> key2GameLoopMap = keyList.stream()
+                .collect(Collectors.toMap(Function.identity(), gameLoopGroup1::selectAffinity));
+
+        keyList.forEach(key -> Assertions.assertSame(key2GameLoopMap.get(key), gameLoopGroup1.selectAffinity(key)));
+        Assertions.assertEquals(4, new HashSet<>(key2GameLoopMap.values()).size());
+
+        //新增IGameLoop后，只有被映射到新IGameLoop上的key才会改变
+        final GameLoop gameLoop = new GameLoop("test5");
+        Assertions.assertTrue(gameLoopGroup1.register(gameLoop));
+        final long movedCount = keyList.stream()
+                .filter(key -> gameLoopGroup1.selectAffinity(key) != key2GameLoopMap.get(key))
+                .peek(key -> Assertions.assertSame(gameLoop, gameLoopGroup1.selectAffinity(key)))
+                .count();
+        Assertions.assertTrue(movedCount > 0 && movedCount < keyList.size() / 2);
+
+        final String key = keyList.get(0);
+        Assertions.assertEquals(gameLoopGroup1.selectAffinity(key).getId(),
+                gameLoopGroup1.submit(key, IGameLoop::getId).join());
+
+        gameLoopGroup1.shutdown();
+    }
+
+    @Test
+    void testSelectStrategy() {
+        for (GameLoopSelectStrategy strategy : new GameLoopSelectStrategy[]{GameLoopSelectStrategy.POWER_OF_TWO_CHOICES,
+                GameLoopSelectStrategy.LEAST_PENDING}) {
+            final GameLoop busyLoop = new GameLoop("busy", true);
+            final GameLoop idleLoop = new GameLoop("idle", true);
+            final GameLoopGroup gameLoopGroup1 = new GameLoopGroup("testGroup", strategy, busyLoop, idleLoop);
+            Assertions.assertSame(strategy, gameLoopGroup1.getSelectStrategy());
+
+            //阻塞busyLoop，并在其上堆积任务，选择时应该避开它
+            final CountDownLatch latch = new CountDownLatch(1);
+            busyLoop.execute(() -> Assertions.assertDoesNotThrow(() -> latch.await()));
+            IntStream.range(0, 10).forEach(i -> busyLoop.execute(() -> {}));
+            Assertions.assertTrue(busyLoop.getPendingTaskCount() >= 10);
+
+            IntStream.range(0, 100).forEach(i -> Assertions.assertSame(idleLoop, gameLoopGroup1.selectNext()));
+
+            latch.countDown();
+            gameLoopGroup1.shutdown();
+        }
+    }
+
+    @Test
+    void testWorkStealing() throws Exception {
+        final GameLoop busyLoop = new GameLoop("busy", true);
+        final GameLoop idleLoop = new GameLoop("idle", true);
+        final GameLoopGroup gameLoopGroup1 = new GameLoopGroup("testGroup", busyLoop, idleLoop);
+        gameLoopGroup1.setWorkStealing(true);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        busyLoop.execute(() -> Assertions.assertDoesNotThrow(() -> latch.await()));
+
+        //busyLoop被阻塞期间，所有任务都由idleLoop取走执行
+        final List<Future<String>> futureList = IntStream.range(0, 20)
+                .mapToObj(i -> gameLoopGroup1.submit(() -> GameLoops.current().map(IGameLoop::getId).orElse("")))
+                .collect(Collectors.toList());
+        for (Future<String> future : futureList) {
+            Assertions.assertEquals(idleLoop.getId(), future.get(5, TimeUnit.SECONDS));
+        }
+
+        final CompletableFuture<Boolean> executeFuture = new CompletableFuture<>();
+        gameLoopGroup1.execute(() -> executeFuture.complete(idleLoop.inThread()));
+        Assertions.assertTrue(executeFuture.get(5, TimeUnit.SECONDS));
+
+        latch.countDown();
+        gameLoopGroup1.shutdown();
+        Assertions.assertTrue(gameLoopGroup1.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertThrows(RejectedExecutionException.class, () -> gameLoopGroup1.submit(() -> {}));
+    }
+
+    @Test
+    void testInvokeAllAndAny() throws Exception {
+        final GameLoopGroup gameLoopGroup1 = new GameLoopGroup("testGroup", IntStream.rangeClosed(1, 4)
+                .mapToObj(i -> new GameLoop("test" + i, true))
+                .toArray(IGameLoop[]::new));
+
+        final List<Callable<String>> taskList = IntStream.range(0, 1000)
+                .mapToObj(i -> (Callable<String>) () -> GameLoops.current().map(IGameLoop::getId).orElse(""))
+                .collect(Collectors.toList());
+        final List<Future<String>> futureList = gameLoopGroup1.invokeAll(taskList);
+        Assertions.assertEquals(taskList.size(), futureList.size());
+        Assertions.assertTrue(futureList.stream().allMatch(Future::isDone));
+        final Set<String> gameLoopIdSet = new HashSet<>();
+        for (Future<String> future : futureList) {
+            gameLoopIdSet.add(future.get());
+        }
+        //任务被分发到了所有的IGameLoop上
+        Assertions.assertEquals(4, gameLoopIdSet.size());
+
+        //在本组的IGameLoop线程内调用时，调用方会协助执行，不会死锁
+        final IGameLoop gameLoop = gameLoopGroup1.selectNext();
+        final Integer doneCount = gameLoop.submit(iGameLoop -> {
+            try {
+                return (int) gameLoopGroup1.invokeAll(taskList, 5, TimeUnit.SECONDS).stream()
+                        .filter(future -> future.isDone() && !future.isCancelled())
+                        .count();
+            } catch (InterruptedException e) {
+                return -1;
+            }
+        }).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(taskList.size(), doneCount);
+
+        final List<Callable<Integer>> anyList = IntStream.range(0, 100)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    if (i != 50) {
+                        throw new RuntimeException("TestException");
+                    }
+                    return i;
+                })
+                .collect(Collectors.toList());
+        Assertions.assertEquals(50, gameLoopGroup1.invokeAny(anyList));
+        Assertions.assertEquals(50, gameLoopGroup1.invokeAny(anyList, 5, TimeUnit.SECONDS));
+
+        final ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                () -> gameLoopGroup1.invokeAny(anyList.subList(0, 50)));
+        Assertions.assertEquals("TestException", exception.getCause().getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gameLoopGroup1.invokeAny(Collections.emptyList()));
+
+        gameLoopGroup1.shutdown();
+    }
+
     @Test
     void testSelectNext() {
         IGameLoop iGameLoop1 = gameLoopGroup.selectNext();
@@ -143,6 +290,55 @@ class IGameLoopGroupTest {
         Assertions.assertSame(iGameLoop1, gameLoopList2.get(0));
     }
 
+    @Test
+    void testSelectTopK() {
+
+        if (gameLoopGroup.size() == 1) {
+            Assertions.assertTrue(gameLoopGroup.register(context.getBean(IGameLoop.class)));
+        }
+
+        final IGameLoop[] iGameLoops = gameLoopGroup.selectAll();
+        final Map<IGameLoop, Integer> gameLoop2KeyMap = new HashMap<>();
+        for (int i = 0; i < iGameLoops.length; i++) {
+            //有重复的比较元素，用于验证与稳定排序的结果一致
+            gameLoop2KeyMap.put(iGameLoops[i], (i * 7) % 3);
+        }
+
+        for (int limit = 0; limit <= iGameLoops.length + 1; limit++) {
+            final List<IGameLoop> expected = Arrays.stream(iGameLoops)
+                    .sorted(Comparator.comparing(gameLoop2KeyMap::get))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+            final List<IGameLoop> actual = gameLoopGroup.select(gameLoop -> gameLoop2KeyMap.get(gameLoop),
+                    Comparator.<Integer>naturalOrder(),
+                    limit).join();
+            Assertions.assertEquals(expected, actual);
+        }
+
+        //在指定的IGameLoop上执行汇总
+        final IGameLoop aggregator = iGameLoops[0];
+        final List<Boolean> inAggregatorList = new ArrayList<>();
+        gameLoopGroup.select(IGameLoopEntityManagerFunction.getEntityCount(),
+                (c1, c2) -> {
+                    inAggregatorList.add(aggregator.inThread());
+                    return Integer.compare(c2, c1);
+                },
+                1,
+                aggregator).join();
+        Assertions.assertFalse(inAggregatorList.isEmpty());
+        Assertions.assertTrue(inAggregatorList.stream().allMatch(Boolean::booleanValue));
+
+        final List<String> idList = gameLoopGroup.submit(gameLoop -> gameLoop != aggregator, IGameLoop::getId, aggregator)
+                .join();
+        Assertions.assertEquals(Arrays.stream(iGameLoops).skip(1).map(IGameLoop::getId).collect(Collectors.toList()), idList);
+
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> gameLoopGroup.submitAll(gameLoop -> {
+                    throw new RuntimeException("TestException");
+                }).join());
+        Assertions.assertEquals("TestException", exception.getCause().getMessage());
+    }
+
     @Test
     void testSelectFilter() {
 
@@ -269,6 +465,214 @@ class IGameLoopGroupTest {
         Assertions.assertEquals(iGameLoops.length, future.stream().filter(c -> c == 1).count());
     }
 
+    @Test
+    void testMigrate() {
+
+        if (gameLoopGroup.size() == 1) {
+            Assertions.assertTrue(gameLoopGroup.register(context.getBean(IGameLoop.class)));
+        }
+
+        final IGameLoop[] iGameLoops = gameLoopGroup.selectAll();
+        final IGameLoop sourceLoop = iGameLoops[0];
+        final IGameLoop targetLoop = iGameLoops[1];
+        final String entityId = UUID.randomUUID().toString();
+        final EntityTestMigrate entity = new EntityTestMigrate(entityId);
+        Assertions.assertTrue(sourceLoop.submit(IGameLoopEntityManagerFunction.registerEntity(entity)).join());
+
+        //迁出期间投递到源IGameLoop上的事件会被暂存下来
+        final List<IEvent> eventList = sourceLoop.submit(gameLoop -> {
+            IGameLoopEntityManagerFunction.migrateOut(entityId).apply(gameLoop);
+            IGameLoopEventBusFunction.post(new EventTest("held")).apply(gameLoop);
+            final List<IEvent> list = IGameLoopEntityManagerFunction.finishMigrateOut(entityId).apply(gameLoop);
+            IGameLoopEntityManagerFunction.registerEntity(entity).apply(gameLoop);
+            return list;
+        }).join();
+        Assertions.assertEquals(1, eventList.size());
+        Assertions.assertEquals(0, entity.eventCount.get());
+
+        Assertions.assertTrue(gameLoopGroup.migrate(entityId, targetLoop).join());
+        Assertions.assertFalse(sourceLoop.submit(IGameLoopEntityManagerFunction.hasEntity(entityId)).join());
+        Assertions.assertTrue(targetLoop.submit(IGameLoopEntityManagerFunction.hasEntity(entityId)).join());
+        Assertions.assertEquals(1, targetLoop.submit(IGameLoopEventBusFunction.post(new EventTest("target"))).join());
+        Assertions.assertEquals(targetLoop.getId(), entity.lastGameLoopId);
+
+        Assertions.assertFalse(gameLoopGroup.migrate(UUID.randomUUID().toString(), targetLoop).join());
+
+        //实体拥有的定时器随之迁移，到期时间不变，并且在目标IGameLoop线程内执行
+        final CompletableFuture<String> timerFuture = new CompletableFuture<>();
+        final long scheduleNanoTime = System.nanoTime();
+        final IGameLoopTimer timer = targetLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(scheduler -> scheduler.scheduleTimer(entityId,
+                        () -> timerFuture.complete(GameLoops.current().map(IGameLoop::getId).orElse(null)),
+                        500,
+                        TimeUnit.MILLISECONDS))
+                .orElseThrow()).join();
+        final IGameLoopTimer cancelledTimer = targetLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(scheduler -> scheduler.scheduleTimer(entityId, () -> {}, 1, TimeUnit.HOURS))
+                .orElseThrow()).join();
+        Assertions.assertTrue(gameLoopGroup.migrate(entityId, sourceLoop).join());
+        Assertions.assertEquals(2, sourceLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(IGameLoopScheduler::getTimerCount)
+                .orElse(0)).join());
+        Assertions.assertEquals(0, targetLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(IGameLoopScheduler::getTimerCount)
+                .orElse(0)).join());
+        //迁移之前的句柄依然有效
+        Assertions.assertTrue(cancelledTimer.cancel());
+        Assertions.assertEquals(sourceLoop.getId(), timerFuture.join());
+        Assertions.assertTrue(System.nanoTime() - scheduleNanoTime >= TimeUnit.MILLISECONDS.toNanos(500));
+        Assertions.assertTrue(timer.isDone());
+        Assertions.assertFalse(timer.isCancelled());
+        Assertions.assertEquals(0, sourceLoop.submit(gameLoop -> gameLoop.getComponent(IGameLoopScheduler.class)
+                .map(IGameLoopScheduler::getTimerCount)
+                .orElse(0)).join());
+
+        //阻塞目标IGameLoop使迁移停在中途：此时的submitOwner等待迁移结束，之后在目标IGameLoop上执行，重复的迁移直接失败
+        final CountDownLatch latch = new CountDownLatch(1);
+        targetLoop.execute(() -> Assertions.assertDoesNotThrow(() -> latch.await()));
+        final CompletableFuture<Boolean> migrateFuture = gameLoopGroup.migrate(entityId, targetLoop);
+        final CompletableFuture<String> ownerFuture = gameLoopGroup.submitOwner(entityId, gameLoop -> gameLoop.getComponent(IGameLoopEntityManager.class)
+                .filter(entityManager -> entityManager.hasEntity(entityId))
+                .map(entityManager -> gameLoop.getId())
+                .orElse(null));
+        Assertions.assertFalse(gameLoopGroup.migrate(entityId, sourceLoop).join());
+        Assertions.assertFalse(ownerFuture.isDone());
+        latch.countDown();
+        Assertions.assertTrue(migrateFuture.join());
+        Assertions.assertEquals(targetLoop.getId(), ownerFuture.join());
+    }
+
+    @Test
+    void testOnCaller() {
+
+        if (gameLoopGroup.size() == 1) {
+            Assertions.assertTrue(gameLoopGroup.register(context.getBean(IGameLoop.class)));
+        }
+
+        final IGameLoop[] iGameLoops = gameLoopGroup.selectAll();
+        final IGameLoop callerLoop = iGameLoops[0];
+        final IGameLoop targetLoop = iGameLoops[1];
+        final int count = 1000;
+        final CompletableFuture<List<Integer>> future = new CompletableFuture<>();
+
+        callerLoop.execute(gameLoop -> {
+            //回调都在调用方线程内执行，因此可以使用非线程安全的容器
+            final List<Integer> replyList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+                targetLoop.promise(IGameLoop::inThread)
+                        .onCaller((inTarget, throwable) -> {
+                            if (throwable != null || !inTarget || !callerLoop.inThread()) {
+                                future.completeExceptionally(new AssertionError("index:" + index));
+                                return;
+                            }
+
+                            replyList.add(index);
+                            if (replyList.size() == count) {
+                                future.complete(replyList);
+                            }
+                        });
+            }
+            return null;
+        });
+
+        final List<Integer> replyList = future.join();
+        Assertions.assertEquals(IntStream.range(0, count).boxed().collect(Collectors.toList()), replyList);
+
+        //调用方不在任何IGameLoop线程内时，回调在目标IGameLoop线程内执行
+        final CompletableFuture<Boolean> outsideFuture = new CompletableFuture<>();
+        targetLoop.promise(IGameLoop::getId).onCaller((id, throwable) -> outsideFuture.complete(targetLoop.inThread()));
+        Assertions.assertTrue(outsideFuture.join());
+    }
+
+    @Test
+    void testOwner() {
+
+        if (gameLoopGroup.size() == 1) {
+            Assertions.assertTrue(gameLoopGroup.register(context.getBean(IGameLoop.class)));
+        }
+
+        final IGameLoop[] iGameLoops = gameLoopGroup.selectAll();
+        final String entityId = UUID.randomUUID().toString();
+        Assertions.assertEquals(Optional.empty(), gameLoopGroup.owner(entityId));
+        Assertions.assertThrows(CompletionException.class,
+                () -> gameLoopGroup.submitOwner(entityId, IGameLoop::getId).join());
+
+        Assertions.assertTrue(iGameLoops[0].submit(IGameLoopEntityManagerFunction.registerEntity(new Entity(entityId))).join());
+        Assertions.assertEquals(Optional.of(iGameLoops[0]), gameLoopGroup.owner(entityId));
+        Assertions.assertEquals(iGameLoops[0].getId(), gameLoopGroup.submitOwner(entityId, IGameLoop::getId).join());
+
+        Assertions.assertTrue(gameLoopGroup.migrate(entityId, iGameLoops[1]).join());
+        Assertions.assertEquals(Optional.of(iGameLoops[1]), gameLoopGroup.owner(entityId));
+
+        //被钝化的实体在submitOwner的操作执行之前被激活
+        final IEntityCodec codec = new IEntityCodec() {
+            @Override
+            public byte[] encode(IEntity entity) {
+                return new byte[0];
+            }
+
+            @Override
+            public IEntity decode(String entityId, ByteBuffer buffer) {
+                return new Entity(entityId);
+            }
+        };
+        Assertions.assertTrue(iGameLoops[1].submit(IGameLoopPassivationManagerFunction.passivate(entityId, codec)).join());
+        Assertions.assertEquals(Optional.of(iGameLoops[1]), gameLoopGroup.owner(entityId));
+        Assertions.assertTrue(gameLoopGroup.submitOwner(entityId, IGameLoopEntityManagerFunction.hasEntity(entityId)).join());
+        Assertions.assertFalse(iGameLoops[1].submit(IGameLoopPassivationManagerFunction.isPassivated(entityId)).join());
+
+        Assertions.assertTrue(iGameLoops[1].submit(IGameLoopEntityManagerFunction.unregisterEntity(entityId)).join().isPresent());
+        Assertions.assertEquals(Optional.empty(), gameLoopGroup.owner(entityId));
+    }
+
+    @Test
+    void testRebalance() {
+
+        if (gameLoopGroup.size() == 1) {
+            Assertions.assertTrue(gameLoopGroup.register(context.getBean(IGameLoop.class)));
+        }
+
+        final IGameLoop sourceLoop = gameLoopGroup.selectAll()[0];
+        final List<Entity> entityList = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> new Entity(UUID.randomUUID().toString()))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(entityList.size(),
+                sourceLoop.submit(IGameLoopEntityManagerFunction.registerEntities(entityList)).join());
+        final int entityCount = sourceLoop.submit(IGameLoopEntityManagerFunction.getEntityCount()).join();
+
+        final GameLoopGroupRebalancer rebalancer = new GameLoopGroupRebalancer(gameLoopGroup);
+        //第一次只记录基准值
+        Assertions.assertEquals(0, rebalancer.rebalance().join());
+
+        //只有源IGameLoop处于忙碌状态
+        sourceLoop.submit(gameLoop -> {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+            return true;
+        }).join();
+
+        final int migrated = rebalancer.rebalance().join();
+        Assertions.assertTrue(migrated > 0);
+        Assertions.assertEquals(entityCount - migrated,
+                sourceLoop.submit(IGameLoopEntityManagerFunction.getEntityCount()).join());
+        Assertions.assertTrue(sourceLoop.getBusyNanoTime() >= TimeUnit.MILLISECONDS.toNanos(200));
+
+        //迁移之后源与目标的采样被丢弃，即使源IGameLoop依然忙碌，下一轮也只记录基准值而不会继续迁移
+        sourceLoop.submit(gameLoop -> {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+            return true;
+        }).join();
+        Assertions.assertEquals(0, rebalancer.rebalance().join());
+        Assertions.assertEquals(entityCount - migrated,
+                sourceLoop.submit(IGameLoopEntityManagerFunction.getEntityCount()).join());
+    }
+
     @Value
     private static class EventTest implements IEvent {
         String eventName;
@@ -302,4 +706,20 @@ class IGameLoopGroupTest {
             log.info("[onEventTest]EventTest, entityId:{}, event:{}", getId(), event.getEventName());
         }
     }
+
+    @SuppressWarnings("unused")
+    private static class EntityTestMigrate extends Entity {
+        private final AtomicInteger eventCount = new AtomicInteger();
+        private volatile String lastGameLoopId;
+
+        private EntityTestMigrate(String id) {
+            super(id);
+        }
+
+        @Subscribe
+        private void onEventTest(EventTest event) {
+            eventCount.incrementAndGet();
+            lastGameLoopId = GameLoops.current().map(IGameLoop::getId).orElse(null);
+        }
+    }
 }
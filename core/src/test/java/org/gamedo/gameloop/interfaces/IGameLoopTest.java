@@ -3,9 +3,18 @@ package org.gamedo.gameloop.interfaces;
 import lombok.extern.log4j.Log4j2;
 import org.gamedo.GameLoopGroupConfiguration;
 import org.gamedo.annotation.Tick;
+import org.gamedo.concurrent.NamedThreadFactory;
+import org.gamedo.concurrent.ThreadAffinity;
 import org.gamedo.ecs.Entity;
 import org.gamedo.ecs.interfaces.IEntity;
 import org.gamedo.exception.GameLoopException;
+import org.gamedo.gameloop.GameLoop;
+import org.gamedo.gameloop.GameLoopConfig;
+import org.gamedo.gameloop.GameLoopOverflowPolicy;
+import org.gamedo.gameloop.GameLoopPromise;
+import org.gamedo.gameloop.GameLoopScheduledExecutorService;
+import org.gamedo.gameloop.GameLoopTaskLane;
+import org.gamedo.gameloop.GameLoopWaitStrategy;
 import org.gamedo.gameloop.GameLoops;
 import org.gamedo.gameloop.components.entitymanager.interfaces.IGameLoopEntityManager;
 import org.gamedo.gameloop.components.eventbus.interfaces.IGameLoopEventBus;
@@ -18,10 +27,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ConfigurableApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -185,6 +201,393 @@ class IGameLoopTest {
         Assertions.assertEquals(entityCount + (selfRegister ? 1 : 0), entityCountActual);
     }
 
+    @Test
+    void testSchedule() {
+        final AtomicInteger rateCount = new AtomicInteger(0);
+        final ScheduledFuture<?> rateFuture = gameLoop.scheduleAtFixedRate(rateCount::incrementAndGet, 0, 100, TimeUnit.MILLISECONDS);
+        final ScheduledFuture<Boolean> future = gameLoop.schedule(() -> gameLoop.inThread(), 200, TimeUnit.MILLISECONDS);
+        final ScheduledFuture<Boolean> cancelledFuture = gameLoop.schedule(() -> true, 200, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(cancelledFuture.cancel(false));
+
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS)));
+        Assertions.assertTrue(cancelledFuture.isCancelled());
+        Assertions.assertThrows(CancellationException.class, () -> cancelledFuture.get());
+
+        Assertions.assertDoesNotThrow(() -> TimeUnit.MILLISECONDS.sleep(800));
+        Assertions.assertTrue(rateFuture.cancel(false));
+        Assertions.assertTrue(Math.abs(10 - rateCount.get()) <= 1, () -> "actual:" + rateCount.get());
+    }
+
+    @Test
+    void testExecuteAndPromise() {
+        final CompletableFuture<Boolean> executeFuture = new CompletableFuture<>();
+        gameLoop.execute(iGameLoop -> {
+            throw new RuntimeException("TestException");
+        });
+        gameLoop.execute(iGameLoop -> executeFuture.complete(iGameLoop.inThread()));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> executeFuture.get(DEFAULT_WAIT_TIMEOUT, DEFAULT_TIME_UNIT)));
+
+        final GameLoopPromise<Boolean> promise = gameLoop.promise(IGameLoopEntityManagerFunction.registerEntity(new Entity("testPromise")));
+        final CompletableFuture<Boolean> callbackFuture = new CompletableFuture<>();
+        promise.whenComplete((r, t) -> callbackFuture.complete(t == null && r && gameLoop.inThread()));
+        Assertions.assertTrue(promise.join());
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> callbackFuture.get(DEFAULT_WAIT_TIMEOUT, DEFAULT_TIME_UNIT)));
+
+        //结果产生之后才注册的回调，同样在GameLoop线程内执行
+        final CompletableFuture<Boolean> lateCallbackFuture = new CompletableFuture<>();
+        promise.whenComplete((r, t) -> lateCallbackFuture.complete(gameLoop.inThread()));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> lateCallbackFuture.get(DEFAULT_WAIT_TIMEOUT, DEFAULT_TIME_UNIT)));
+
+        final GameLoopPromise<Object> exceptionPromise = gameLoop.promise(iGameLoop -> {
+            throw new RuntimeException("TestException");
+        });
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class, exceptionPromise::join);
+        Assertions.assertEquals("TestException", exception.getCause().getMessage());
+        Assertions.assertThrows(CompletionException.class, () -> exceptionPromise.toCompletableFuture().join());
+
+        //在GameLoop线程内提交时立即执行
+        final Boolean result = gameLoop.submit(iGameLoop -> {
+            final GameLoopPromise<Boolean> inThreadPromise = iGameLoop.promise(IGameLoop::inThread);
+            return inThreadPromise.isDone() && inThreadPromise.getNow(false);
+        }).join();
+        Assertions.assertTrue(result);
+
+        //目标GameLoop已经关闭时，提交被拒绝，之后注册的回调直接在当前线程内执行，而不是抛出异常
+        final GameLoop shutdownLoop = new GameLoop("testExecuteAndPromise-shutdown");
+        shutdownLoop.shutdown();
+        final GameLoopPromise<String> rejectedPromise = shutdownLoop.promise(IGameLoop::getId);
+        Assertions.assertTrue(rejectedPromise.isDone());
+        final CompletableFuture<Throwable> rejectedFuture = new CompletableFuture<>();
+        Assertions.assertDoesNotThrow(() -> rejectedPromise.whenComplete((r, t) -> rejectedFuture.complete(t)));
+        Assertions.assertTrue(rejectedFuture.isDone());
+        Assertions.assertTrue(rejectedFuture.join() instanceof RejectedExecutionException);
+        final CompletionException rejectedException = Assertions.assertThrows(CompletionException.class,
+                () -> rejectedPromise.toCompletableFuture().join());
+        Assertions.assertTrue(rejectedException.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    void testBoundedTaskQueue() throws Exception {
+        final int capacity = 4;
+        for (GameLoopOverflowPolicy policy : GameLoopOverflowPolicy.values()) {
+            final GameLoopConfig config = GameLoopConfig.builder()
+                    .gameLoopIdPrefix("bounded-" + policy + "-")
+                    .gameLoopIdCounter(new AtomicInteger(1))
+                    .daemon(true)
+                    .taskQueueCapacity(capacity)
+                    .overflowPolicy(policy)
+                    .overflowBlockMillis(50)
+                    .build();
+            final GameLoop boundedLoop = new GameLoop(config);
+            final GameLoopScheduledExecutorService executorService = boundedLoop.getExecutorService();
+
+            //阻塞GameLoop线程，并填满任务队列
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch latch = new CountDownLatch(1);
+            boundedLoop.execute(() -> {
+                started.countDown();
+                Assertions.assertDoesNotThrow(() -> latch.await());
+            });
+            Assertions.assertTrue(started.await(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+            final List<Future<?>> futureList = IntStream.range(0, capacity)
+                    .mapToObj(i -> boundedLoop.submit(() -> {}))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            Assertions.assertTrue(boundedLoop.getPendingTaskCount() >= capacity);
+
+            switch (policy) {
+                case REJECT:
+                case BLOCK:
+                    Assertions.assertThrows(RejectedExecutionException.class, () -> boundedLoop.submit(() -> {}));
+                    Assertions.assertEquals(1, executorService.getRejectedTaskCount());
+
+                    //紧急、后台通道同样受到容量的限制
+                    IntStream.range(0, capacity).forEach(i -> futureList.add(boundedLoop.submit(iGameLoop -> null, GameLoopTaskLane.BACKGROUND)));
+                    Assertions.assertThrows(RejectedExecutionException.class, () -> boundedLoop.execute(() -> {}, GameLoopTaskLane.BACKGROUND));
+                    Assertions.assertEquals(2, executorService.getRejectedTaskCount());
+                    break;
+                case DROP_OLDEST:
+                    final Future<?> future = boundedLoop.submit(() -> {});
+                    Assertions.assertTrue(futureList.get(0).isCancelled());
+                    Assertions.assertEquals(1, executorService.getDroppedTaskCount());
+                    futureList.add(future);
+
+                    //被丢弃的EntityFunction以及promise同样以CancellationException结束，而不是永远等待
+                    final CompletableFuture<Boolean> droppedFuture = boundedLoop.submit(IGameLoop::inThread);
+                    final GameLoopPromise<Boolean> droppedPromise = boundedLoop.promise(IGameLoop::inThread);
+                    final CompletableFuture<Boolean> droppedCallbackFuture = new CompletableFuture<>();
+                    droppedPromise.whenComplete((r, t) -> droppedCallbackFuture.complete(boundedLoop.inThread()));
+                    IntStream.range(0, capacity).forEach(i -> futureList.add(boundedLoop.submit(() -> {})));
+                    Assertions.assertEquals(capacity + 3, executorService.getDroppedTaskCount());
+                    Assertions.assertTrue(droppedFuture.isCompletedExceptionally());
+                    Assertions.assertThrows(CancellationException.class, droppedFuture::join);
+                    Assertions.assertTrue(droppedPromise.isDone());
+                    final CompletionException exception = Assertions.assertThrows(CompletionException.class, droppedPromise::join);
+                    Assertions.assertTrue(exception.getCause() instanceof CancellationException);
+                    //丢弃之前注册的回调依然在GameLoop线程内执行
+                    futureList.add(droppedCallbackFuture.thenAccept(Assertions::assertTrue));
+
+                    final CompletableFuture<Boolean> droppedLaneFuture = boundedLoop.submit(IGameLoop::inThread, GameLoopTaskLane.URGENT);
+                    IntStream.range(0, capacity).forEach(i -> futureList.add(boundedLoop.submit(iGameLoop -> null, GameLoopTaskLane.URGENT)));
+                    Assertions.assertThrows(CancellationException.class, droppedLaneFuture::join);
+                    Assertions.assertEquals(capacity + 4, executorService.getDroppedTaskCount());
+                    break;
+                case CALLER_RUNS:
+                    //必须在GameLoop线程内执行的任务不会在提交线程内执行，而是退化为BLOCK
+                    Assertions.assertThrows(RejectedExecutionException.class, () -> boundedLoop.submit(() -> boundedLoop.inThread()));
+                    Assertions.assertThrows(RejectedExecutionException.class, () -> boundedLoop.submit(IGameLoop::inThread));
+                    Assertions.assertEquals(2, executorService.getRejectedTaskCount());
+
+                    final CompletableFuture<Boolean> callerFuture = new CompletableFuture<>();
+                    boundedLoop.execute((IThreadAgnosticRunnable) () -> callerFuture.complete(boundedLoop.inThread()));
+                    Assertions.assertTrue(callerFuture.isDone());
+                    Assertions.assertFalse(callerFuture.join());
+                    Assertions.assertEquals(3, executorService.getRejectedTaskCount());
+                    break;
+            }
+
+            latch.countDown();
+            for (Future<?> future : futureList) {
+                if (!future.isCancelled()) {
+                    Assertions.assertDoesNotThrow(() -> future.get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+                }
+            }
+
+            //GameLoop线程内提交的任务不受容量的限制
+            final Integer count = boundedLoop.submit(iGameLoop -> {
+                IntStream.range(0, capacity * 2).forEach(i -> iGameLoop.execute(() -> {}));
+                return iGameLoop.getPendingTaskCount();
+            }).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS);
+            Assertions.assertTrue(count >= capacity * 2);
+            boundedLoop.shutdown();
+        }
+    }
+
+    @Test
+    void testBoundedTaskQueueShutdown() throws Exception {
+        final int count = 200;
+        final GameLoopConfig config = GameLoopConfig.builder()
+                .gameLoopIdPrefix("bounded-shutdown-")
+                .gameLoopIdCounter(new AtomicInteger(1))
+                .daemon(true)
+                .taskQueueCapacity(count)
+                .build();
+        final GameLoop boundedLoop = new GameLoop(config);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        boundedLoop.execute(() -> {
+            started.countDown();
+            Assertions.assertDoesNotThrow(() -> latch.await());
+        });
+        Assertions.assertTrue(started.await(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+
+        //收件箱中的任务超过一个批次，关闭之后同样要全部执行
+        final AtomicInteger counter = new AtomicInteger();
+        final List<Future<?>> futureList = IntStream.range(0, count)
+                .mapToObj(i -> boundedLoop.submit(counter::incrementAndGet))
+                .collect(Collectors.toList());
+        boundedLoop.shutdown();
+        latch.countDown();
+
+        Assertions.assertTrue(boundedLoop.awaitTermination(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+        Assertions.assertEquals(count, counter.get());
+        Assertions.assertTrue(futureList.stream().noneMatch(Future::isCancelled));
+    }
+
+    @Test
+    void testTaskLane() throws Exception {
+        final GameLoop laneLoop = new GameLoop("lane", true);
+        final int count = 10;
+        final List<String> orderList = new ArrayList<>();
+
+        //阻塞GameLoop线程，让三个通道的任务都排队
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        laneLoop.execute(() -> {
+            started.countDown();
+            Assertions.assertDoesNotThrow(() -> latch.await());
+        });
+        Assertions.assertTrue(started.await(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+
+        IntStream.range(0, count).forEach(i -> laneLoop.execute(() -> orderList.add("normal"), GameLoopTaskLane.NORMAL));
+        IntStream.range(0, count).forEach(i -> laneLoop.execute(() -> orderList.add("background"), GameLoopTaskLane.BACKGROUND));
+        IntStream.range(0, count).forEach(i -> laneLoop.execute(() -> orderList.add("urgent"), GameLoopTaskLane.URGENT));
+        final CompletableFuture<Boolean> future = laneLoop.submit(IGameLoop::inThread, GameLoopTaskLane.URGENT);
+        Assertions.assertTrue(laneLoop.getPendingTaskCount() >= count * 3 + 1);
+
+        //取消后移出队列的任务不再计入
+        final Future<?> cancelledFuture = laneLoop.getExecutorService().submit(() -> orderList.add("cancelled"));
+        final int pendingTaskCount = laneLoop.getPendingTaskCount();
+        Assertions.assertTrue(cancelledFuture.cancel(false));
+        Assertions.assertEquals(pendingTaskCount - 1, laneLoop.getPendingTaskCount());
+
+        latch.countDown();
+        Assertions.assertTrue(future.get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+        laneLoop.submit(iGameLoop -> null, GameLoopTaskLane.BACKGROUND).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS);
+
+        //所有通道的异常都以相同的形式返回
+        for (GameLoopTaskLane lane : GameLoopTaskLane.values()) {
+            final CompletableFuture<Object> failedFuture = laneLoop.submit(iGameLoop -> {
+                throw new IllegalStateException(lane.name());
+            }, lane);
+            final CompletionException exception = Assertions.assertThrows(CompletionException.class, failedFuture::join);
+            Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+
+        //紧急任务插在所有普通任务之前，后台任务排在已经提交的普通任务之后
+        final List<String> list = laneLoop.submit(iGameLoop -> new ArrayList<>(orderList)).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS);
+        Assertions.assertEquals(count * 3, list.size());
+        Assertions.assertTrue(list.subList(0, count).stream().allMatch("urgent"::equals));
+        Assertions.assertTrue(list.subList(count, count * 2).stream().allMatch("normal"::equals));
+        Assertions.assertTrue(list.subList(count * 2, count * 3).stream().allMatch("background"::equals));
+        Assertions.assertEquals(0, laneLoop.getPendingTaskCount());
+
+        laneLoop.shutdown();
+        Assertions.assertTrue(laneLoop.awaitTermination(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+        Assertions.assertThrows(RejectedExecutionException.class, () -> laneLoop.execute(() -> {}, GameLoopTaskLane.URGENT));
+    }
+
+    @Test
+    void testVirtualThread() throws Exception {
+        final int count = 1000;
+        final GameLoopConfig config = GameLoopConfig.builder()
+                .gameLoopIdPrefix("virtual-")
+                .gameLoopIdCounter(new AtomicInteger(1))
+                .virtualThread(true)
+                .build();
+        final List<GameLoop> gameLoopList = IntStream.range(0, count)
+                .mapToObj(i -> new GameLoop(config))
+                .collect(Collectors.toList());
+
+        //每个gameLoop的所有任务都在同一个线程内执行
+        final List<CompletableFuture<Thread>> futureList = gameLoopList.stream()
+                .map(loop -> loop.submit(iGameLoop -> Thread.currentThread()))
+                .collect(Collectors.toList());
+        for (int i = 0; i < count; i++) {
+            final GameLoop loop = gameLoopList.get(i);
+            final Thread thread = futureList.get(i).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS);
+            Assertions.assertEquals(loop.getId(), thread.getName());
+            Assertions.assertSame(thread, loop.submit(iGameLoop -> {
+                Assertions.assertDoesNotThrow(() -> TimeUnit.MILLISECONDS.sleep(1));
+                return Thread.currentThread();
+            }).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+            if (NamedThreadFactory.isVirtualThreadSupported()) {
+                Assertions.assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            }
+        }
+
+        gameLoopList.forEach(GameLoop::shutdown);
+        for (GameLoop loop : gameLoopList) {
+            Assertions.assertTrue(loop.awaitTermination(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testWaitStrategyAndAffinity() throws Exception {
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 5), ThreadAffinity.parseCpuList("0-2,5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ThreadAffinity.parseCpuList("3-1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ThreadAffinity.parseCpuList("a"));
+        Assertions.assertNull(ThreadAffinity.resolveCpuList(null, null));
+        if (!ThreadAffinity.isSupported()) {
+            //配置了绑核但无法生效时，创建gameLoop直接失败
+            final GameLoopConfig pinnedConfig = GameLoopConfig.builder()
+                    .gameLoopIdPrefix("pinned-")
+                    .gameLoopIdCounter(new AtomicInteger(1))
+                    .daemon(true)
+                    .cpuAffinity("0")
+                    .build();
+            Assertions.assertThrows(IllegalStateException.class, () -> new GameLoop(pinnedConfig));
+        }
+
+        for (GameLoopWaitStrategy waitStrategy : GameLoopWaitStrategy.values()) {
+            final GameLoopConfig config = GameLoopConfig.builder()
+                    .gameLoopIdPrefix("wait-" + waitStrategy + "-")
+                    .gameLoopIdCounter(new AtomicInteger(1))
+                    .daemon(true)
+                    .threadPriority(Thread.MAX_PRIORITY)
+                    .cpuAffinity(ThreadAffinity.isSupported() ? "0" : null)
+                    .waitStrategy(waitStrategy)
+                    .waitSpinMicros(100)
+                    .build();
+            final GameLoop waitLoop = new GameLoop(config);
+
+            //往返提交，任务在自旋期间到达时不需要唤醒线程
+            for (int i = 0; i < 1000; i++) {
+                final int value = i;
+                Assertions.assertEquals(value, waitLoop.submit(iGameLoop -> value).get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(Thread.MAX_PRIORITY, waitLoop.submit(iGameLoop -> Thread.currentThread().getPriority())
+                    .get(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+
+            //自旋期间定时任务依然按时到期
+            final CountDownLatch latch = new CountDownLatch(1);
+            waitLoop.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(latch.await(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+
+            waitLoop.shutdown();
+            Assertions.assertTrue(waitLoop.awaitTermination(DEFAULT_WAIT_TIMEOUT, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testDelayedTaskFootprint() throws Exception {
+        final String id = "footprint";
+        final GameLoop footprintLoop = new GameLoop(id);
+        final GameLoopScheduledExecutorService executorService = new GameLoopScheduledExecutorService(footprintLoop, id, true);
+        final int taskCount = 200_000;
+        final Runnable runnable = () -> {};
+        final List<ScheduledFuture<?>> futureList = new ArrayList<>(taskCount);
+
+        final long usedBefore = usedMemory();
+        IntStream.range(0, taskCount).forEach(i -> futureList.add(executorService.schedule(runnable, 1, TimeUnit.HOURS)));
+        //等待其他线程添加的定时任务转移到时间轮中
+        executorService.submit(() -> {}).get();
+        final long usedAfter = usedMemory();
+
+        Assertions.assertEquals(taskCount, executorService.getDelayedTaskCount());
+        log.info("delayed task footprint: {} bytes/task (including the ArrayList slot)", (usedAfter - usedBefore) / taskCount);
+
+        futureList.forEach(future -> future.cancel(false));
+        executorService.submit(() -> {}).get();
+        Assertions.assertEquals(0, executorService.getDelayedTaskCount());
+        Assertions.assertTrue(futureList.stream().allMatch(Future::isCancelled));
+
+        final ScheduledFuture<?> pendingFuture = executorService.schedule(runnable, 1, TimeUnit.HOURS);
+        executorService.shutdown();
+        Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(pendingFuture.isCancelled());
+
+        //其他线程添加定时任务的同时关闭线程池，所有添加成功的定时任务最终都会被取消，不会遗留在栈中
+        final GameLoopScheduledExecutorService racingService = new GameLoopScheduledExecutorService(footprintLoop, id, true);
+        //只有producer线程写入，join之后可见
+        final List<ScheduledFuture<?>> racingFutureList = new ArrayList<>();
+        final Thread producer = new Thread(() -> {
+            try {
+                while (true) {
+                    racingFutureList.add(racingService.schedule(runnable, 1, TimeUnit.HOURS));
+                }
+            } catch (RejectedExecutionException ignored) {
+            }
+        });
+        producer.start();
+        TimeUnit.MILLISECONDS.sleep(10);
+        racingService.shutdown();
+        producer.join();
+        Assertions.assertTrue(racingService.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(racingFutureList.stream().allMatch(Future::isCancelled));
+        footprintLoop.shutdown();
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
     @Test
     void inGameLoop() {
     }